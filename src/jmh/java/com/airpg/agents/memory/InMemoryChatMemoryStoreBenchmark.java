@@ -0,0 +1,88 @@
+package com.airpg.agents.memory;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Get/update throughput of a game's {@link InMemoryChatMemoryStore.Generation}, the store agents'
+ * chat memories work on, single-threaded and contended.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryChatMemoryStoreBenchmark {
+
+    @Param({"10", "1000"})
+    public int conversations;
+
+    @Param({"15", "30"})
+    public int messagesPerConversation;
+
+    private InMemoryChatMemoryStore.Generation store;
+    private List<ChatMessage> messages;
+
+    @Setup
+    public void setup() {
+        store = new InMemoryChatMemoryStore().currentGeneration("benchmark");
+        messages = new ArrayList<>();
+        for (int i = 0; i < messagesPerConversation; i++) {
+            messages.add(i % 2 == 0
+                    ? UserMessage.from("The player does something " + i)
+                    : AiMessage.from("The world responds " + i));
+        }
+        for (int i = 0; i < conversations; i++) {
+            store.updateMessages(memoryId(i), messages);
+        }
+    }
+
+    @Benchmark
+    public List<ChatMessage> getMessages() {
+        return store.getMessages(randomMemoryId());
+    }
+
+    @Benchmark
+    public void updateMessages() {
+        store.updateMessages(randomMemoryId(), messages);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<ChatMessage> getMessagesContended() {
+        return store.getMessages(randomMemoryId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void updateMessagesContended() {
+        store.updateMessages(randomMemoryId(), messages);
+    }
+
+    private String randomMemoryId() {
+        return memoryId(ThreadLocalRandom.current().nextInt(conversations));
+    }
+
+    private static String memoryId(int index) {
+        return "npc-" + index;
+    }
+}
@@ -0,0 +1,92 @@
+package com.airpg.combat;
+
+import com.airpg.domain.CombatEncounter;
+import com.airpg.domain.Dice;
+import com.airpg.domain.GameCharacter;
+import com.airpg.domain.NPC;
+import com.airpg.domain.TeamMember;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated encounter on {@link CombatState} columns against the same fight
+ * on domain objects through {@link CombatMechanics} (the dice and outcome are identical).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatStateBenchmark {
+
+    private static final int MAX_TURNS = 100;
+
+    @Param({"0", "3"})
+    public int companions;
+
+    @Param({"1", "5"})
+    public int enemies;
+
+    private Matchup matchup;
+    private CombatSimulator simulator;
+    private CombatState start;
+    private CombatState combat;
+    private Dice random;
+    private CombatMechanics mechanics;
+
+    @Setup
+    public void setup() {
+        List<String> classes = List.of("Healer", "Warrior", "Mage").subList(0, companions);
+        matchup = new Matchup("Warrior", classes, "bandit", enemies);
+        simulator = new CombatSimulator(0.5, MAX_TURNS);
+        start = CombatState.of(matchup.createEncounter());
+        combat = start.copy();
+        random = new Dice(42);
+        mechanics = new CombatMechanics(random);
+    }
+
+    @Benchmark
+    public MatchupStats state() {
+        MatchupStats stats = new MatchupStats();
+        simulator.simulate(combat, start, random, stats);
+        return stats;
+    }
+
+    @Benchmark
+    public CombatEncounter domain() {
+        CombatEncounter encounter = matchup.createEncounter();
+        int turn = 0;
+        while (turn++ < MAX_TURNS && !encounter.areAllEnemiesDefeated() && !encounter.isPartyDefeated()) {
+            for (GameCharacter member : encounter.getPlayerParty()) {
+                if (!member.isAlive()) continue;
+                if (encounter.areAllEnemiesDefeated()) break;
+                mechanics.startTurn(member);
+                if (member instanceof TeamMember companion) {
+                    mechanics.perform(companion, CompanionPolicy.decide(companion, encounter, 0.5), encounter);
+                } else {
+                    mechanics.attack(member, CombatMechanics.strongest(encounter.getEnemies()));
+                }
+            }
+            for (NPC enemy : encounter.getEnemies()) {
+                if (!enemy.isAlive()) continue;
+                if (encounter.isPartyDefeated()) break;
+                mechanics.startTurn(enemy);
+                mechanics.attack(enemy, mechanics.randomLiving(encounter.getPlayerParty()));
+            }
+        }
+        return encounter;
+    }
+}
@@ -0,0 +1,62 @@
+package com.airpg.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic game states for benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A started game with the given number of companions, NPCs, quests (every other one active)
+     * and story history entries
+     */
+    public static GameState gameState(int companions, int npcs, int quests, int historySize) {
+        GameState gameState = new GameState();
+        gameState.startGame(Hero.createDefault("Aria", "Warrior"), "Slay the Dragon of Mount Doom");
+
+        String[] classes = {"warrior", "mage", "healer", "rogue"};
+        for (int i = 0; i < companions; i++) {
+            TeamMember member = TeamMember.create("companion-" + i, "Companion " + i,
+                    classes[i % classes.length], "Loyal and brave", "A wandering sellsword");
+            gameState.addTeamMember(member, Integer.MAX_VALUE);
+        }
+        for (int i = 0; i < npcs; i++) {
+            gameState.addNPC(NPC.create("npc-" + i, "Villager " + i, i % 3 == 0 ? "guard" : "merchant",
+                    gameState.getCurrentLocation(), "Protect the village", "Gruff but fair", false));
+        }
+        for (int i = 0; i < quests; i++) {
+            gameState.addQuest(Quest.builder()
+                    .id("quest-" + i)
+                    .title("Quest " + i)
+                    .description("Help the village")
+                    .givenBy("npc-0")
+                    .status(i % 2 == 0 ? Quest.QuestStatus.ACTIVE : Quest.QuestStatus.COMPLETED)
+                    .experienceReward(100)
+                    .build());
+        }
+        while (gameState.getStoryHistory().size() < historySize) {
+            gameState.addToHistory("Event " + gameState.getStoryHistory().size() + ": the hero explored the wilds.");
+        }
+        return gameState;
+    }
+
+    /**
+     * Enemies with enough health that a combat round rarely ends the fight
+     */
+    public static List<NPC> enemies(int count) {
+        List<NPC> enemies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            NPC enemy = NPC.create("enemy-" + i, "Goblin " + i, "warrior", "Dark Forest",
+                    "Raid the village", "Vicious", true);
+            enemy.setMaxHealth(10_000);
+            enemy.setCurrentHealth(10_000);
+            enemies.add(enemy);
+        }
+        return enemies;
+    }
+}
@@ -0,0 +1,64 @@
+package com.airpg.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stat math on {@link GameCharacter}: modifiers, defense and damage/heal bookkeeping.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameCharacterBenchmark {
+
+    private Hero hero;
+    private NPC enemy;
+
+    @Setup
+    public void setup() {
+        hero = Hero.createDefault("Aria", "Warrior");
+        enemy = NPC.create("enemy", "Goblin", "warrior", "Dark Forest", "Raid", "Vicious", true);
+    }
+
+    @Benchmark
+    public void modifiers(Blackhole blackhole) {
+        blackhole.consume(hero.getStrengthModifier());
+        blackhole.consume(hero.getIntelligenceModifier());
+        blackhole.consume(hero.getAgilityModifier());
+        blackhole.consume(hero.getConstitutionModifier());
+        blackhole.consume(hero.getCharismaModifier());
+    }
+
+    @Benchmark
+    public int defense() {
+        return enemy.getDefense();
+    }
+
+    @Benchmark
+    public int damageAndHeal() {
+        enemy.takeDamage(7);
+        enemy.heal(7);
+        return enemy.getCurrentHealth();
+    }
+
+    @Benchmark
+    public boolean manaSpendAndRestore() {
+        boolean spent = hero.useMana(10);
+        hero.restoreMana(10);
+        return spent;
+    }
+}
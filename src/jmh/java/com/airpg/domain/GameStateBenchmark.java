@@ -0,0 +1,79 @@
+package com.airpg.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups on {@link GameState} as the world grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int worldSize;
+
+    private GameState gameState;
+    private String lastNpcId;
+    private String greetingToLastNpc;
+
+    @Setup
+    public void setup() {
+        gameState = BenchmarkFixtures.gameState(4, worldSize, worldSize, worldSize);
+        lastNpcId = "npc-" + (worldSize - 1);
+        greetingToLastNpc = "Greetings, Villager " + (worldSize - 1) + "! Any news?";
+    }
+
+    @Benchmark
+    public NPC findNPC() {
+        return gameState.findNPC(lastNpcId);
+    }
+
+    @Benchmark
+    public NPC findMissingNPC() {
+        return gameState.findNPC("npc-missing");
+    }
+
+    @Benchmark
+    public NPC findMentionedNPC() {
+        return gameState.getNpcs().findMentioned(greetingToLastNpc, gameState.getCurrentLocation());
+    }
+
+    @Benchmark
+    public Collection<NPC> getNPCsHere() {
+        return gameState.getNPCsHere();
+    }
+
+    @Benchmark
+    public Optional<WorldMap.Route> routeAcrossMap() {
+        return gameState.getWorldMap().route(gameState.getCurrentLocation(), "Mount Doom");
+    }
+
+    @Benchmark
+    public List<GameCharacter> getLivingPartyMembers() {
+        return gameState.getLivingPartyMembers();
+    }
+
+    @Benchmark
+    public List<Quest> getActiveQuests() {
+        return gameState.getActiveQuests();
+    }
+}
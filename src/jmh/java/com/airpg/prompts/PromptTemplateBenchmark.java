@@ -0,0 +1,71 @@
+package com.airpg.prompts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The combat action prompt rendered from its compiled template against the
+ * {@code String.format} text block it replaces (same output).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptTemplateBenchmark {
+
+    private PromptTemplate template;
+    private int damage;
+
+    @Setup
+    public void setup() {
+        template = PromptLibrary.bundled().get("combat/action");
+    }
+
+    @Benchmark
+    public String template() {
+        damage = (damage + 1) & 15;
+        return template.bind()
+                .set("attacker", "Aldric Holt")
+                .set("target", "Goblin 2")
+                .set("action", "MELEE_ATTACK")
+                .set("hit", true)
+                .set("damage", damage)
+                .set("healing", 0)
+                .set("attackRoll", 17)
+                .set("defense", 12)
+                .set("targetHealth", 30 - damage)
+                .set("targetMaxHealth", 30)
+                .render();
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        damage = (damage + 1) & 15;
+        return String.format("""
+                Attacker: %s
+                Target: %s
+                Action: %s
+                Hit: %s
+                Damage dealt: %d
+                Healing done: %d
+                Attack roll: %d
+                Target defense: %d
+                Target remaining HP: %d/%d
+                
+                Narrate this combat action vividly.
+                """,
+                "Aldric Holt", "Goblin 2", "MELEE_ATTACK", true, damage, 0, 17, 12, 30 - damage, 30);
+    }
+}
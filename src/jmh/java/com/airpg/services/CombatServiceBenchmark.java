@@ -0,0 +1,160 @@
+package com.airpg.services;
+
+import com.airpg.agents.AgentService;
+import com.airpg.agents.CombatNarratorAgent;
+import com.airpg.agents.CompanionDecision;
+import com.airpg.config.GameConfig;
+import com.airpg.domain.BenchmarkFixtures;
+import com.airpg.domain.GameState;
+import com.airpg.domain.TeamMember;
+import com.airpg.prompts.PromptLibrary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One combat round through {@link CombatService} with the LLM agents stubbed out,
+ * so only dice, rules, companion decisions and prompt building are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatServiceBenchmark {
+
+    @Param({"0", "3"})
+    public int companions;
+
+    @Param({"1", "5"})
+    public int enemies;
+
+    @Param({"RULES", "AGENT"})
+    public GameConfig.CompanionConfig.Mode companionMode;
+
+    private CombatService combatService;
+    private GameState gameState;
+
+    @Setup(Level.Trial)
+    public void setupService() {
+        combatService = new CombatService();
+        combatService.agentService = new StubAgentService();
+        combatService.teamService = new StubTeamService();
+        combatService.gameConfig = new StubGameConfig(companionMode);
+        combatService.prompts = PromptLibrary.bundled();
+    }
+
+    /**
+     * A fresh encounter per round keeps every invocation measuring the same fight size
+     */
+    @Setup(Level.Invocation)
+    public void setupCombat() {
+        gameState = BenchmarkFixtures.gameState(companions, 0, 0, 0);
+        combatService.startCombat(BenchmarkFixtures.enemies(enemies), gameState);
+    }
+
+    @Benchmark
+    public String executeCombatRound() {
+        return combatService.executeCombatRound(gameState);
+    }
+
+    private static final class StubAgentService extends AgentService {
+
+        private final CombatNarratorAgent narrator = new CombatNarratorAgent() {
+            @Override
+            public String narrateCombatAction(String combatActionContext) {
+                return "The blow lands.";
+            }
+
+            @Override
+            public String narrateCombatStart(String combatContext) {
+                return "Battle is joined.";
+            }
+
+            @Override
+            public String narrateCombatEnd(String combatEndContext) {
+                return "The dust settles.";
+            }
+        };
+
+        @Override
+        public CombatNarratorAgent getCombatNarrator(String sessionId) {
+            return narrator;
+        }
+    }
+
+    private static final class StubTeamService extends TeamService {
+
+        @Override
+        public CompanionDecision getCompanionCombatDecision(TeamMember companion, String combatContext,
+                                                            GameState gameState) {
+            return new CompanionDecision(CompanionDecision.Action.ATTACK, "Goblin 0", "Closest enemy");
+        }
+    }
+
+    private record StubGameConfig(GameConfig.CompanionConfig.Mode mode) implements GameConfig, GameConfig.CompanionConfig {
+
+        @Override
+        public Integer maxTeamSize() {
+            return 4;
+        }
+
+        @Override
+        public List<String> initialGoals() {
+            return List.of();
+        }
+
+        @Override
+        public SpeculationConfig speculation() {
+            return null;
+        }
+
+        @Override
+        public IntentConfig intents() {
+            return null;
+        }
+
+        @Override
+        public CompanionConfig companions() {
+            return this;
+        }
+
+        @Override
+        public DiceConfig dice() {
+            return null;
+        }
+
+        @Override
+        public WorldConfig world() {
+            return null;
+        }
+
+        @Override
+        public AgendaConfig agendas() {
+            return null;
+        }
+
+        @Override
+        public double combatLineRate() {
+            return 0;
+        }
+
+        @Override
+        public double healThreshold() {
+            return 0.5;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.airpg.services.impl;
+
+import com.airpg.config.PersistenceConfig;
+import com.airpg.domain.BenchmarkFixtures;
+import com.airpg.domain.GameState;
+import com.airpg.services.GamePersistenceService;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save/load round trips of {@link GamePersistenceServiceImpl} against in-memory H2
+ * (migrated with the real Flyway scripts) at growing story history sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GamePersistenceServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int historySize;
+
+    private Connection keepAlive;
+    private GamePersistenceServiceImpl persistenceService;
+    private GameState gameState;
+    private Long saveId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bench-" + historySize + ";MODE=PostgreSQL");
+        dataSource.setUser("sa");
+        // In-memory H2 lives as long as one connection is open
+        keepAlive = dataSource.getConnection();
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        persistenceService = new GamePersistenceServiceImpl();
+        persistenceService.dsl = DSL.using(dataSource, SQLDialect.H2);
+        persistenceService.config = new PersistenceConfig() {
+            @Override
+            public boolean enabled() {
+                return true;
+            }
+
+            @Override
+            public int maxSaves() {
+                return 10;
+            }
+        };
+
+        gameState = BenchmarkFixtures.gameState(3, 10, 10, historySize);
+        GamePersistenceService.SaveResult result = persistenceService.saveGame(gameState, "bench");
+        if (!result.success()) {
+            throw new IllegalStateException("Initial save failed: " + result.message());
+        }
+        saveId = result.saveId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+
+    /**
+     * Overwrites the same save, as repeated saves of one game do
+     */
+    @Benchmark
+    public GamePersistenceService.SaveResult saveGame() {
+        return persistenceService.saveGame(gameState, "bench");
+    }
+
+    @Benchmark
+    public GameState loadGame() {
+        return persistenceService.loadGame(saveId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.airpg.agents;
 
 import com.airpg.config.AIConfig;
+import com.airpg.config.RecordingConfig;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.ollama.OllamaChatModel;
@@ -11,11 +12,17 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Factory for creating ChatLanguageModel instances based on configured provider.
- * Supports OpenAI and Ollama with configuration from application.properties.
+ * Supports OpenAI, Ollama and an in-process mock with configuration from application.properties.
+ * Every model is wrapped so its requests pass through the {@link LlmRequestScheduler}.
+ * With hedging enabled, models are additionally routed through a hedging model
+ * that races the primary against an alternate provider/model.
+ * With recording enabled, the outermost layer writes every request and reply to the
+ * session's recording; in replay mode the mock provider answers from a recording.
  */
 @ApplicationScoped
 public class AIProviderFactory {
@@ -25,36 +32,77 @@ public class AIProviderFactory {
     @Inject
     AIConfig aiConfig;
     
+    @Inject
+    LlmRequestScheduler scheduler;
+    
+    @Inject
+    HedgingRouter hedgingRouter;
+    
+    @Inject
+    RecordingConfig recordingConfig;
+    
+    /** Shared by all mock models, so scripted and replayed replies advance across agents */
+    private final LazyAgent<MockResponder> mockResponder = new LazyAgent<>(
+            () -> new MockResponder(aiConfig.mock(), loadReplay()));
+    
     /**
      * Create a ChatLanguageModel based on the configured provider
      */
     public ChatLanguageModel createChatModel() {
-        String provider = aiConfig.provider().toLowerCase();
+        return createChatModel(LlmPriority.NORMAL);
+    }
+    
+    /**
+     * Create a ChatLanguageModel whose requests are scheduled with the given default priority
+     */
+    public ChatLanguageModel createChatModel(LlmPriority priority) {
+        String provider = resolveProvider(aiConfig.provider());
         
         LOG.infof("Creating AI chat model for provider: %s", provider);
         
+        ChatLanguageModel model = new ScheduledChatModel(
+                createChatModel(provider, null), scheduler, provider, priority);
+        
+        AIConfig.HedgingConfig hedging = aiConfig.hedging();
+        if (!hedging.enabled()) {
+            return recorded(model);
+        }
+        
+        String alternateProvider = resolveProvider(hedging.alternateProvider().orElse(provider));
+        String alternateModel = hedging.alternateModel().orElse(null);
+        ChatLanguageModel alternate = new ScheduledChatModel(
+                createChatModel(alternateProvider, alternateModel), scheduler, alternateProvider, priority);
+        
+        return recorded(new HedgingChatModel(
+                model, routeKey(provider, null),
+                alternate, routeKey(alternateProvider, alternateModel),
+                hedgingRouter, priority));
+    }
+    
+    private ChatLanguageModel recorded(ChatLanguageModel model) {
+        return recordingConfig.enabled() ? new RecordingChatModel(model) : model;
+    }
+    
+    private ChatLanguageModel createChatModel(String provider, String modelName) {
         return switch (provider) {
-            case "openai" -> createOpenAIChatModel();
-            case "ollama" -> createOllamaChatModel();
-            default -> {
-                LOG.warnf("Unknown AI provider '%s', falling back to OpenAI", provider);
-                yield createOpenAIChatModel();
-            }
+            case "ollama" -> createOllamaChatModel(modelName);
+            case "mock" -> new MockChatModel(mockResponder.get());
+            default -> createOpenAIChatModel(modelName);
         };
     }
     
     /**
      * Create OpenAI chat model
      */
-    private ChatLanguageModel createOpenAIChatModel() {
+    private ChatLanguageModel createOpenAIChatModel(String modelName) {
         AIConfig.OpenAIConfig config = aiConfig.openai();
         
         return OpenAiChatModel.builder()
                 .apiKey(config.apiKey())
-                .modelName(config.model())
+                .modelName(modelName != null ? modelName : config.model())
                 .temperature(config.temperature())
                 .maxTokens(config.maxTokens())
-                .timeout(Duration.ofSeconds(60))
+                .timeout(config.timeout())
                 .logRequests(false)
                 .logResponses(false)
                 .build();
@@ -63,14 +111,14 @@ public class AIProviderFactory {
     /**
      * Create Ollama chat model (local)
      */
-    private ChatLanguageModel createOllamaChatModel() {
+    private ChatLanguageModel createOllamaChatModel(String modelName) {
         AIConfig.OllamaConfig config = aiConfig.ollama();
         
         return OllamaChatModel.builder()
                 .baseUrl(config.baseUrl())
-                .modelName(config.model())
+                .modelName(modelName != null ? modelName : config.model())
                 .temperature(config.temperature())
-                .timeout(Duration.ofSeconds(120))
+                .timeout(config.timeout())
                 .build();
     }
     
@@ -78,32 +126,60 @@ public class AIProviderFactory {
      * Create a StreamingChatLanguageModel based on the configured provider
      */
     public StreamingChatLanguageModel createStreamingChatModel() {
-        String provider = aiConfig.provider().toLowerCase();
+        return createStreamingChatModel(LlmPriority.INTERACTIVE);
+    }
+    
+    /**
+     * Create a StreamingChatLanguageModel whose requests are scheduled with the given default priority
+     */
+    public StreamingChatLanguageModel createStreamingChatModel(LlmPriority priority) {
+        String provider = resolveProvider(aiConfig.provider());
         
         LOG.infof("Creating AI streaming chat model for provider: %s", provider);
         
+        StreamingChatLanguageModel model = new ScheduledStreamingChatModel(
+                createStreamingChatModel(provider, null), scheduler, provider, priority);
+        
+        AIConfig.HedgingConfig hedging = aiConfig.hedging();
+        if (!hedging.enabled()) {
+            return recorded(model);
+        }
+        
+        String alternateProvider = resolveProvider(hedging.alternateProvider().orElse(provider));
+        String alternateModel = hedging.alternateModel().orElse(null);
+        StreamingChatLanguageModel alternate = new ScheduledStreamingChatModel(
+                createStreamingChatModel(alternateProvider, alternateModel), scheduler, alternateProvider, priority);
+        
+        return recorded(new HedgingStreamingChatModel(
+                model, routeKey(provider, null),
+                alternate, routeKey(alternateProvider, alternateModel),
+                hedgingRouter, priority));
+    }
+    
+    private StreamingChatLanguageModel recorded(StreamingChatLanguageModel model) {
+        return recordingConfig.enabled() ? new RecordingStreamingChatModel(model) : model;
+    }
+    
+    private StreamingChatLanguageModel createStreamingChatModel(String provider, String modelName) {
         return switch (provider) {
-            case "openai" -> createOpenAIStreamingChatModel();
-            case "ollama" -> createOllamaStreamingChatModel();
-            default -> {
-                LOG.warnf("Unknown AI provider '%s', falling back to OpenAI", provider);
-                yield createOpenAIStreamingChatModel();
-            }
+            case "ollama" -> createOllamaStreamingChatModel(modelName);
+            case "mock" -> new MockStreamingChatModel(mockResponder.get());
+            default -> createOpenAIStreamingChatModel(modelName);
         };
     }
     
     /**
      * Create OpenAI streaming chat model
      */
-    private StreamingChatLanguageModel createOpenAIStreamingChatModel() {
+    private StreamingChatLanguageModel createOpenAIStreamingChatModel(String modelName) {
         AIConfig.OpenAIConfig config = aiConfig.openai();
         
         return OpenAiStreamingChatModel.builder()
                 .apiKey(config.apiKey())
-                .modelName(config.model())
+                .modelName(modelName != null ? modelName : config.model())
                 .temperature(config.temperature())
                 .maxTokens(config.maxTokens())
-                .timeout(Duration.ofSeconds(60))
+                .timeout(config.timeout())
                 .logRequests(false)
                 .logResponses(false)
                 .build();
@@ -112,17 +188,63 @@ public class AIProviderFactory {
     /**
      * Create Ollama streaming chat model (local)
      */
-    private StreamingChatLanguageModel createOllamaStreamingChatModel() {
+    private StreamingChatLanguageModel createOllamaStreamingChatModel(String modelName) {
         AIConfig.OllamaConfig config = aiConfig.ollama();
         
         return OllamaStreamingChatModel.builder()
                 .baseUrl(config.baseUrl())
-                .modelName(config.model())
+                .modelName(modelName != null ? modelName : config.model())
                 .temperature(config.temperature())
-                .timeout(Duration.ofSeconds(120))
+                .timeout(config.timeout())
                 .build();
     }
     
+    /**
+     * Responses of the recording being replayed, if any
+     */
+    private ReplayResponses loadReplay() {
+        if (recordingConfig.replayFile().isEmpty()) {
+            return null;
+        }
+        Path file = Path.of(recordingConfig.replayFile().get());
+        try {
+            ReplayResponses replay = ReplayResponses.load(file);
+            LOG.infof("Mock provider replays %d recorded responses from %s", replay.size(), file);
+            return replay;
+        } catch (IOException e) {
+            LOG.errorf("Cannot read recording %s, mock replies are templated: %s", file, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Normalize a provider name, falling back to OpenAI for unknown values
+     */
+    private String resolveProvider(String configured) {
+        String provider = configured.toLowerCase();
+        return switch (provider) {
+            case "openai", "ollama", "mock" -> provider;
+            default -> {
+                LOG.warnf("Unknown AI provider '%s', falling back to OpenAI", provider);
+                yield "openai";
+            }
+        };
+    }
+    
+    /**
+     * Key identifying a provider/model pair for latency tracking
+     */
+    private String routeKey(String provider, String modelName) {
+        if (modelName == null) {
+            modelName = switch (provider) {
+                case "ollama" -> aiConfig.ollama().model();
+                case "mock" -> aiConfig.mock().model();
+                default -> aiConfig.openai().model();
+            };
+        }
+        return provider + "/" + modelName;
+    }
+    
     /**
      * Get the current provider name
      */
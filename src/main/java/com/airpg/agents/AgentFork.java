@@ -0,0 +1,27 @@
+package com.airpg.agents;
+
+import com.airpg.agents.memory.InMemoryChatMemoryStore;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.memory.ChatMemory;
+
+import java.util.List;
+
+/**
+ * A throwaway copy of an agent working on a private copy of its memory.
+ * Used to generate responses speculatively without touching the real conversation;
+ * {@link AgentService#commitFork(AgentFork)} adopts the fork's memory if the real
+ * memory has not moved on in the meantime.
+ *
+ * @param agent        the forked agent
+ * @param memoryId     ID of the real memory this fork was copied from
+ * @param generation   memory generation the fork was taken from
+ * @param baseMessages messages of the real memory at fork time
+ * @param memory       the fork's private memory
+ */
+public record AgentFork<T>(
+        T agent,
+        String memoryId,
+        InMemoryChatMemoryStore.Generation generation,
+        List<ChatMessage> baseMessages,
+        ChatMemory memory
+) {}
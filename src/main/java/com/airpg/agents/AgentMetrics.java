@@ -0,0 +1,253 @@
+package com.airpg.agents;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer instrumentation for agent calls.
+ * Agents are wrapped in a proxy that records latency per agent and method,
+ * errors and timeouts, and for streaming calls time-to-first-token and tokens/sec.
+ * Token counts are recorded by the metered models the agents are built on.
+ */
+@ApplicationScoped
+public class AgentMetrics {
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+    private static final String UNKNOWN_METHOD = "unknown";
+
+    @Inject
+    MeterRegistry registry;
+
+    /**
+     * Wrap an AiServices agent so every method call is measured
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T instrument(Class<T> agentType, T agent) {
+        String agentName = agentType.getSimpleName();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(agent, args);
+            }
+            if (method.getReturnType() == TokenStream.class) {
+                ObservedTokenStream.Observer observer = streamObserver(agentName, method.getName());
+                return new ObservedTokenStream((TokenStream) call(agent, method, args), observer);
+            }
+            return timedCall(agent, method, args, agentName);
+        };
+        return (T) Proxy.newProxyInstance(agentType.getClassLoader(), new Class<?>[]{agentType}, handler);
+    }
+
+    /**
+     * Wrap the model behind an agent so token usage is counted per agent and method
+     */
+    public ChatLanguageModel meter(Class<?> agentType, ChatLanguageModel model) {
+        return new MeteredChatModel(model, this, agentType.getSimpleName());
+    }
+
+    /**
+     * Wrap the streaming model behind an agent so token usage is counted per agent and method
+     */
+    public StreamingChatLanguageModel meter(Class<?> agentType, StreamingChatLanguageModel model) {
+        return new MeteredStreamingChatModel(model, this, agentType.getSimpleName());
+    }
+
+    /**
+     * Agent method currently being called on this thread (set by the instrumented proxy)
+     */
+    static String currentMethod() {
+        String method = CURRENT_METHOD.get();
+        return method != null ? method : UNKNOWN_METHOD;
+    }
+
+    void recordTokens(String agent, String method, TokenUsage usage) {
+        if (usage == null) {
+            return;
+        }
+        if (usage.inputTokenCount() != null) {
+            tokenCounter(agent, method, "input").increment(usage.inputTokenCount());
+        }
+        if (usage.outputTokenCount() != null) {
+            tokenCounter(agent, method, "output").increment(usage.outputTokenCount());
+        }
+    }
+
+    private Object timedCall(Object agent, Method method, Object[] args, String agentName) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call(agent, method, args);
+        } catch (Throwable error) {
+            outcome = recordError(agentName, method.getName(), error);
+            throw error;
+        } finally {
+            callTimer(agentName, method.getName(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Object call(Object agent, Method method, Object[] args) throws Throwable {
+        String previous = enterMethod(method.getName());
+        try {
+            return method.invoke(agent, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            restoreMethod(previous);
+        }
+    }
+
+    private static String enterMethod(String method) {
+        String previous = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(method);
+        return previous;
+    }
+
+    private static void restoreMethod(String previous) {
+        if (previous == null) {
+            CURRENT_METHOD.remove();
+        } else {
+            CURRENT_METHOD.set(previous);
+        }
+    }
+
+    /**
+     * Count a failed call and return its outcome tag ("timeout" or "error")
+     */
+    private String recordError(String agent, String method, Throwable error) {
+        boolean timeout = isTimeout(error);
+        String outcome = timeout ? "timeout" : "error";
+        Counter.builder("airpg.agent.errors")
+                .description("Failed agent calls")
+                .tag("agent", agent)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .tag("exception", error.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+        return outcome;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LlmQueueTimeoutException
+                    || cause instanceof TimeoutException
+                    || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Timer callTimer(String agent, String method, String outcome) {
+        return Timer.builder("airpg.agent.call")
+                .description("Agent call latency (complete response)")
+                .tag("agent", agent)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer timeToFirstTokenTimer(String agent, String method) {
+        return Timer.builder("airpg.agent.time.to.first.token")
+                .description("Time from starting a streaming agent call to its first token")
+                .tag("agent", agent)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private DistributionSummary tokensPerSecond(String agent, String method) {
+        return DistributionSummary.builder("airpg.agent.stream.tokens.per.second")
+                .description("Output token rate of streaming agent calls after the first token")
+                .tag("agent", agent)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Count the estimated input tokens of a request that repeat the start of the agent's previous request
+     */
+    void recordPrefixTokens(String agent, String method, int tokens) {
+        Counter.builder("airpg.agent.tokens.prefix")
+                .description("Estimated input tokens repeating the start of the agent's previous request, "
+                        + "which a provider prefix cache can serve")
+                .baseUnit("tokens")
+                .tag("agent", agent)
+                .tag("method", method)
+                .register(registry)
+                .increment(tokens);
+    }
+
+    private Counter tokenCounter(String agent, String method, String type) {
+        return Counter.builder("airpg.agent.tokens")
+                .description("Tokens reported by the provider")
+                .baseUnit("tokens")
+                .tag("agent", agent)
+                .tag("method", method)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    /**
+     * Observer that measures time-to-first-token, total latency and token rate of a streaming call
+     */
+    private ObservedTokenStream.Observer streamObserver(String agent, String method) {
+        long start = System.nanoTime();
+        AtomicLong firstTokenNanos = new AtomicLong();
+        return new ObservedTokenStream.Observer() {
+            @Override
+            public void firstToken() {
+                long now = System.nanoTime();
+                firstTokenNanos.set(now);
+                timeToFirstTokenTimer(agent, method).record(now - start, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void completed(Response<AiMessage> response) {
+                long end = System.nanoTime();
+                callTimer(agent, method, "success").record(end - start, TimeUnit.NANOSECONDS);
+                TokenUsage usage = response.tokenUsage();
+                long first = firstTokenNanos.get();
+                if (usage != null && usage.outputTokenCount() != null && first != 0 && end > first) {
+                    tokensPerSecond(agent, method).record(usage.outputTokenCount() / ((end - first) / 1e9));
+                }
+            }
+
+            @Override
+            public void failed(Throwable error) {
+                String outcome = recordError(agent, method, error);
+                callTimer(agent, method, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void aroundStart(Runnable startCall) {
+                String previous = enterMethod(method);
+                try {
+                    startCall.run();
+                } finally {
+                    restoreMethod(previous);
+                }
+            }
+        };
+    }
+}
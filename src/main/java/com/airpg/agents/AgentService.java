@@ -1,11 +1,11 @@
 package com.airpg.agents;
 
+import com.airpg.agents.memory.BlockWindowChatMemory;
 import com.airpg.agents.memory.InMemoryChatMemoryStore;
 import com.airpg.domain.NPC;
 import com.airpg.domain.TeamMember;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.memory.ChatMemory;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.service.AiServices;
@@ -20,107 +20,86 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Central service for managing AI agents.
  * Creates and maintains different agent types for world narration, NPCs, and combat.
+ *
+ * Agents and their memories belong to one game in play, keyed by its
+ * {@link com.airpg.domain.GameState#getSessionId() session id} rather than the save's game id,
+ * so sessions that loaded the same save never share them. Memory ids such as
+ * {@code world-narrator} or {@code npc-<id>} only name a conversation within it.
+ * Agents are cached per session and memory generation. Clearing or importing a
+ * game's memories starts a new generation; calls already in flight finish against the
+ * generation they started with, and the old agents are dropped with it.
+ *
+ * Memories evict old messages in blocks ({@link BlockWindowChatMemory}), so consecutive
+ * requests of an agent start with the same system message and history, which providers
+ * with prompt prefix caching can serve from their cache.
  */
 @ApplicationScoped
 public class AgentService {
 
     private static final Logger LOG = Logger.getLogger(AgentService.class);
 
+    private static final String WORLD_NARRATOR_MEMORY = "world-narrator";
+    private static final int WORLD_NARRATOR_MAX_MESSAGES = 20;
+    private static final int NPC_MAX_MESSAGES = 15;
+    private static final int COMPANION_MAX_MESSAGES = 15;
+
     @Inject
     AIProviderFactory providerFactory;
 
     @Inject
     InMemoryChatMemoryStore memoryStore;
 
-    // Agent caches
-    private WorldNarratorAgent worldNarratorAgent;
-    private WorldNarratorStreamingAgent worldNarratorStreamingAgent;
-    private CombatNarratorAgent combatNarratorAgent;
-    private final Map<String, NPCAgent> npcAgents = new ConcurrentHashMap<>();
-    private final Map<String, CompanionAgent> companionAgents = new ConcurrentHashMap<>();
+    @Inject
+    AgentMetrics metrics;
 
-    /**
-     * Get or create the world narrator agent
-     */
-    public WorldNarratorAgent getWorldNarrator() {
-        if (worldNarratorAgent == null) {
-            ChatLanguageModel model = providerFactory.createChatModel();
-            ChatMemory memory = MessageWindowChatMemory.builder()
-                    .maxMessages(20)
-                    .chatMemoryStore(memoryStore)
-                    .id("world-narrator")
-                    .build();
+    @Inject
+    AgentTracing tracing;
 
-            worldNarratorAgent = AiServices.builder(WorldNarratorAgent.class)
-                    .chatLanguageModel(model)
-                    .chatMemory(memory)
-                    .build();
+    private final Map<String, AgentGeneration> generations = new ConcurrentHashMap<>();
+    private final LazyAgent<ChatLanguageModel> backgroundModel =
+            new LazyAgent<>(() -> providerFactory.createChatModel(LlmPriority.BACKGROUND));
+    // No memory: every session's batches are independent, so all games share it
+    private final LazyAgent<ChroniclerAgent> chronicler =
+            new LazyAgent<>(() -> buildAgent(ChroniclerAgent.class, backgroundModel.get(), null));
 
-            LOG.info("World narrator agent created");
-        }
-        return worldNarratorAgent;
+    /**
+     * Get or create a game's world narrator agent
+     */
+    public WorldNarratorAgent getWorldNarrator(String sessionId) {
+        return currentGeneration(sessionId).worldNarrator.get();
     }
 
     /**
-     * Get or create the streaming world narrator agent
+     * Get or create a game's streaming world narrator agent
      */
-    public WorldNarratorStreamingAgent getWorldNarratorStreaming() {
-        if (worldNarratorStreamingAgent == null) {
-            StreamingChatLanguageModel model = providerFactory.createStreamingChatModel();
-            ChatMemory memory = MessageWindowChatMemory.builder()
-                    .maxMessages(20)
-                    .chatMemoryStore(memoryStore)
-                    .id("world-narrator")
-                    .build();
-
-            worldNarratorStreamingAgent = AiServices.builder(WorldNarratorStreamingAgent.class)
-                    .streamingChatLanguageModel(model)
-                    .chatMemory(memory)
-                    .build();
-
-            LOG.info("Streaming world narrator agent created");
-        }
-        return worldNarratorStreamingAgent;
+    public WorldNarratorStreamingAgent getWorldNarratorStreaming(String sessionId) {
+        return currentGeneration(sessionId).worldNarratorStreaming.get();
     }
 
     /**
-     * Get or create the combat narrator agent
+     * Get or create a game's combat narrator agent
      */
-    public CombatNarratorAgent getCombatNarrator() {
-        if (combatNarratorAgent == null) {
-            ChatLanguageModel model = providerFactory.createChatModel();
-            ChatMemory memory = MessageWindowChatMemory.builder()
-                    .maxMessages(30)
-                    .chatMemoryStore(memoryStore)
-                    .id("combat-narrator")
-                    .build();
-
-            combatNarratorAgent = AiServices.builder(CombatNarratorAgent.class)
-                    .chatLanguageModel(model)
-                    .chatMemory(memory)
-                    .build();
+    public CombatNarratorAgent getCombatNarrator(String sessionId) {
+        return currentGeneration(sessionId).combatNarrator.get();
+    }
 
-            LOG.info("Combat narrator agent created");
-        }
-        return combatNarratorAgent;
+    /**
+     * Get or create the chronicler agent (memoryless, background priority)
+     */
+    public ChroniclerAgent getChronicler() {
+        return chronicler.get();
     }
 
     /**
-     * Get or create an NPC agent
+     * Get or create an NPC agent of a game
      */
-    public NPCAgent getNPCAgent(NPC npc) {
-        return npcAgents.computeIfAbsent(npc.getId(), id -> {
+    public NPCAgent getNPCAgent(String sessionId, NPC npc) {
+        AgentGeneration current = currentGeneration(sessionId);
+        return current.npcAgents.computeIfAbsent(npc.getId(), id -> {
             ChatLanguageModel model = providerFactory.createChatModel();
-            ChatMemory memory = MessageWindowChatMemory.builder()
-                    .maxMessages(15)
-                    .chatMemoryStore(memoryStore)
-                    .id("npc-" + id)
-                    .build();
+            ChatMemory memory = new BlockWindowChatMemory(npcMemoryId(id), NPC_MAX_MESSAGES, current.memory);
 
-            NPCAgent agent = AiServices.builder(NPCAgent.class)
-                    .chatLanguageModel(model)
-                    .chatMemory(memory)
-                    .build();
+            NPCAgent agent = buildAgent(NPCAgent.class, model, memory);
 
             LOG.infof("NPC agent created for: %s", npc.getName());
             return agent;
@@ -128,21 +107,16 @@ public class AgentService {
     }
 
     /**
-     * Get or create a companion agent
+     * Get or create a companion agent of a game
      */
-    public CompanionAgent getCompanionAgent(TeamMember companion) {
-        return companionAgents.computeIfAbsent(companion.getId(), id -> {
+    public CompanionAgent getCompanionAgent(String sessionId, TeamMember companion) {
+        AgentGeneration current = currentGeneration(sessionId);
+        return current.companionAgents.computeIfAbsent(companion.getId(), id -> {
             ChatLanguageModel model = providerFactory.createChatModel();
-            ChatMemory memory = MessageWindowChatMemory.builder()
-                    .maxMessages(15)
-                    .chatMemoryStore(memoryStore)
-                    .id("companion-" + id)
-                    .build();
+            ChatMemory memory = new BlockWindowChatMemory(
+                    companionMemoryId(id), COMPANION_MAX_MESSAGES, current.memory);
 
-            CompanionAgent agent = AiServices.builder(CompanionAgent.class)
-                    .chatLanguageModel(model)
-                    .chatMemory(memory)
-                    .build();
+            CompanionAgent agent = buildAgent(CompanionAgent.class, model, memory);
 
             LOG.infof("Companion agent created for: %s", companion.getName());
             return agent;
@@ -150,37 +124,203 @@ public class AgentService {
     }
 
     /**
-     * Clear all agent memories (useful for new game)
+     * What an NPC's agent will still remember after its next exchange
+     * (facts stated there need not be repeated)
+     */
+    public List<ChatMessage> npcContext(String sessionId, NPC npc) {
+        return BlockWindowChatMemory.retainedAfterExchange(
+                currentGeneration(sessionId).memory.getMessages(npcMemoryId(npc.getId())), NPC_MAX_MESSAGES);
+    }
+
+    /**
+     * What a companion's agent will still remember after its next exchange
      */
-    public void clearAllMemories() {
-        memoryStore.clearAll();
-        worldNarratorAgent = null;
-        worldNarratorStreamingAgent = null;
-        combatNarratorAgent = null;
-        npcAgents.clear();
-        companionAgents.clear();
-        LOG.info("All agent memories cleared");
+    public List<ChatMessage> companionContext(String sessionId, TeamMember companion) {
+        return BlockWindowChatMemory.retainedAfterExchange(
+                currentGeneration(sessionId).memory.getMessages(companionMemoryId(companion.getId())), COMPANION_MAX_MESSAGES);
     }
 
     /**
-     * Export all agent memories for persistence
+     * Fork the world narrator onto a private copy of its memory (for speculative generation)
      */
-    public Map<Object, List<ChatMessage>> exportMemories() {
-        return memoryStore.getAllMemories();
+    public AgentFork<WorldNarratorAgent> forkWorldNarrator(String sessionId) {
+        return fork(currentGeneration(sessionId), WorldNarratorAgent.class, WORLD_NARRATOR_MEMORY, WORLD_NARRATOR_MAX_MESSAGES);
     }
 
     /**
-     * Import agent memories from persistence (e.g., after loading a game)
-     * This also clears cached agents so they get recreated with restored memory
+     * Fork an NPC agent onto a private copy of its memory (for speculative generation)
      */
-    public void importMemories(Map<Object, List<ChatMessage>> memories) {
-        memoryStore.restoreMemories(memories);
-        // Clear cached agents so they get recreated with the restored memory
-        worldNarratorAgent = null;
-        worldNarratorStreamingAgent = null;
-        combatNarratorAgent = null;
-        npcAgents.clear();
-        companionAgents.clear();
-        LOG.infof("Imported %d agent memories", memories.size());
+    public AgentFork<NPCAgent> forkNPCAgent(String sessionId, NPC npc) {
+        return fork(currentGeneration(sessionId), NPCAgent.class, npcMemoryId(npc.getId()), NPC_MAX_MESSAGES);
+    }
+
+    /**
+     * Fork a companion agent onto a private copy of its memory (for background greetings)
+     */
+    public AgentFork<CompanionAgent> forkCompanionAgent(String sessionId, TeamMember companion) {
+        return fork(currentGeneration(sessionId), CompanionAgent.class,
+                companionMemoryId(companion.getId()), COMPANION_MAX_MESSAGES);
+    }
+
+    /**
+     * Adopt a fork's conversation as the real memory.
+     * Fails if memories were reset or the real conversation changed since the fork was taken.
+     *
+     * @return true if the fork's memory was committed
+     */
+    public boolean commitFork(AgentFork<?> fork) {
+        if (!memoryStore.isCurrent(fork.generation())) {
+            return false;
+        }
+        return fork.generation().replaceMessages(fork.memoryId(), fork.baseMessages(), fork.memory().messages());
+    }
+
+    private <T> AgentFork<T> fork(AgentGeneration current, Class<T> agentType, String memoryId, int maxMessages) {
+        List<ChatMessage> baseMessages = current.memory.getMessages(memoryId);
+        ChatMemory memory = BlockWindowChatMemory.withMaxMessages(maxMessages);
+        baseMessages.forEach(memory::add);
+
+        T agent = buildAgent(agentType, backgroundModel.get(), memory);
+        return new AgentFork<>(agent, memoryId, current.memory, baseMessages, memory);
+    }
+
+    /**
+     * Build an agent on a metered model and wrap it with call metrics and tracing
+     *
+     * @param memory the agent's conversation memory, or null for a memoryless agent
+     */
+    private <T> T buildAgent(Class<T> agentType, ChatLanguageModel model, ChatMemory memory) {
+        AiServices<T> builder = AiServices.builder(agentType)
+                .chatLanguageModel(metrics.meter(agentType, model));
+        if (memory != null) {
+            builder.chatMemory(memory);
+        }
+        T agent = builder.build();
+        return tracing.instrument(agentType, metrics.instrument(agentType, agent));
+    }
+
+    private <T> T buildStreamingAgent(Class<T> agentType, StreamingChatLanguageModel model, ChatMemory memory) {
+        T agent = AiServices.builder(agentType)
+                .streamingChatLanguageModel(metrics.meter(agentType, model))
+                .chatMemory(memory)
+                .build();
+        return tracing.instrument(agentType, metrics.instrument(agentType, agent));
+    }
+
+    private static String npcMemoryId(String npcId) {
+        return "npc-" + npcId;
+    }
+
+    private static String companionMemoryId(String companionId) {
+        return "companion-" + companionId;
+    }
+
+    /**
+     * Clear a game's agent memories
+     */
+    public void clearMemories(String sessionId) {
+        memoryStore.clear(sessionId);
+        currentGeneration(sessionId);
+        LOG.infof("Agent memories of session %s cleared", sessionId);
+    }
+
+    /**
+     * Drop a game's agents and memories (e.g., when its session starts or loads another game)
+     */
+    public void releaseMemories(String sessionId) {
+        generations.remove(sessionId);
+        memoryStore.remove(sessionId);
+        LOG.debugf("Agent memories of session %s released", sessionId);
+    }
+
+    /**
+     * Export a game's agent memories for persistence
+     */
+    public Map<Object, List<ChatMessage>> exportMemories(String sessionId) {
+        return memoryStore.getMemories(sessionId);
+    }
+
+    /**
+     * Import a game's agent memories from persistence (e.g., after loading a game)
+     * This also starts a new agent generation so agents get recreated with restored memory
+     */
+    public void importMemories(String sessionId, Map<Object, List<ChatMessage>> memories) {
+        memoryStore.restoreMemories(sessionId, memories);
+        currentGeneration(sessionId);
+        LOG.infof("Imported %d agent memories of session %s", memories.size(), sessionId);
+    }
+
+    /**
+     * Get the agent generation matching a game's memories, replacing a stale one.
+     * The swap is atomic per game, so racing callers agree on a single new generation.
+     */
+    private AgentGeneration currentGeneration(String sessionId) {
+        AgentGeneration current = generations.get(sessionId);
+        if (current != null && memoryStore.isCurrent(current.memory)) {
+            return current;
+        }
+        return generations.compute(sessionId, (id, existing) -> {
+            InMemoryChatMemoryStore.Generation memory = memoryStore.currentGeneration(id);
+            if (existing != null && existing.memory == memory) {
+                return existing;
+            }
+            if (existing != null) {
+                LOG.debugf("Agent generation of session %s replaced: %d -> %d",
+                        id, existing.memory.number(), memory.number());
+            }
+            return new AgentGeneration(memory);
+        });
+    }
+
+    /**
+     * All agents of a game bound to one memory generation.
+     */
+    private final class AgentGeneration {
+
+        private final InMemoryChatMemoryStore.Generation memory;
+        private final LazyAgent<WorldNarratorAgent> worldNarrator;
+        private final LazyAgent<WorldNarratorStreamingAgent> worldNarratorStreaming;
+        private final LazyAgent<CombatNarratorAgent> combatNarrator;
+        private final Map<String, NPCAgent> npcAgents = new ConcurrentHashMap<>();
+        private final Map<String, CompanionAgent> companionAgents = new ConcurrentHashMap<>();
+
+        private AgentGeneration(InMemoryChatMemoryStore.Generation memory) {
+            this.memory = memory;
+            this.worldNarrator = new LazyAgent<>(this::createWorldNarrator);
+            this.worldNarratorStreaming = new LazyAgent<>(this::createWorldNarratorStreaming);
+            this.combatNarrator = new LazyAgent<>(this::createCombatNarrator);
+        }
+
+        private WorldNarratorAgent createWorldNarrator() {
+            ChatLanguageModel model = providerFactory.createChatModel();
+            ChatMemory chatMemory = new BlockWindowChatMemory(
+                    WORLD_NARRATOR_MEMORY, WORLD_NARRATOR_MAX_MESSAGES, memory);
+
+            WorldNarratorAgent agent = buildAgent(WorldNarratorAgent.class, model, chatMemory);
+
+            LOG.info("World narrator agent created");
+            return agent;
+        }
+
+        private WorldNarratorStreamingAgent createWorldNarratorStreaming() {
+            StreamingChatLanguageModel model = providerFactory.createStreamingChatModel(LlmPriority.INTERACTIVE);
+            ChatMemory chatMemory = new BlockWindowChatMemory(
+                    WORLD_NARRATOR_MEMORY, WORLD_NARRATOR_MAX_MESSAGES, memory);
+
+            WorldNarratorStreamingAgent agent = buildStreamingAgent(WorldNarratorStreamingAgent.class, model, chatMemory);
+
+            LOG.info("Streaming world narrator agent created");
+            return agent;
+        }
+
+        private CombatNarratorAgent createCombatNarrator() {
+            ChatLanguageModel model = providerFactory.createChatModel();
+            ChatMemory chatMemory = new BlockWindowChatMemory("combat-narrator", 30, memory);
+
+            CombatNarratorAgent agent = buildAgent(CombatNarratorAgent.class, model, chatMemory);
+
+            LOG.info("Combat narrator agent created");
+            return agent;
+        }
     }
 }
@@ -0,0 +1,114 @@
+package com.airpg.agents;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.TokenStream;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * OpenTelemetry spans for agent calls.
+ * Each call gets an "Agent.method" span under the current span; streaming calls
+ * stay open until the stream completes and mark the first token with an event.
+ */
+@ApplicationScoped
+public class AgentTracing {
+
+    @Inject
+    Tracer tracer;
+
+    /**
+     * Wrap an agent so every method call is traced
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T instrument(Class<T> agentType, T agent) {
+        String agentName = agentType.getSimpleName();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(agent, args);
+            }
+            Span span = startSpan(agentName, method.getName());
+            if (method.getReturnType() == TokenStream.class) {
+                try (Scope ignored = span.makeCurrent()) {
+                    return new ObservedTokenStream((TokenStream) invoke(agent, method, args), streamObserver(span));
+                } catch (Throwable error) {
+                    fail(span, error);
+                    throw error;
+                }
+            }
+            try (Scope ignored = span.makeCurrent()) {
+                return invoke(agent, method, args);
+            } catch (Throwable error) {
+                fail(span, error);
+                throw error;
+            } finally {
+                span.end();
+            }
+        };
+        return (T) Proxy.newProxyInstance(agentType.getClassLoader(), new Class<?>[]{agentType}, handler);
+    }
+
+    private Span startSpan(String agent, String method) {
+        return tracer.spanBuilder(agent + "." + method)
+                .setAttribute("agent", agent)
+                .setAttribute("agent.method", method)
+                .startSpan();
+    }
+
+    private static Object invoke(Object agent, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(agent, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void fail(Span span, Throwable error) {
+        span.recordException(error);
+        span.setStatus(StatusCode.ERROR, error.getClass().getSimpleName());
+    }
+
+    private static ObservedTokenStream.Observer streamObserver(Span span) {
+        return new ObservedTokenStream.Observer() {
+            @Override
+            public void firstToken() {
+                span.addEvent("first token");
+            }
+
+            @Override
+            public void completed(Response<AiMessage> response) {
+                TokenUsage usage = response.tokenUsage();
+                if (usage != null && usage.inputTokenCount() != null) {
+                    span.setAttribute("tokens.input", usage.inputTokenCount());
+                }
+                if (usage != null && usage.outputTokenCount() != null) {
+                    span.setAttribute("tokens.output", usage.outputTokenCount());
+                }
+                span.end();
+            }
+
+            @Override
+            public void failed(Throwable error) {
+                fail(span, error);
+                span.end();
+            }
+
+            @Override
+            public void aroundStart(Runnable start) {
+                try (Scope ignored = span.makeCurrent()) {
+                    start.run();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.airpg.agents;
+
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+
+/**
+ * AI Agent that sums up what NPCs did while the party was elsewhere.
+ * Memoryless and run at background priority; one call covers a batch of NPCs.
+ */
+public interface ChroniclerAgent {
+
+    @SystemMessage("""
+            You are the chronicler of a fantasy RPG world.
+            You are given a numbered list of people, each with where they are, their goal
+            and how far along they are with it, while the heroes were elsewhere.
+            
+            For each person, write one short sentence in past tense about what they did,
+            consistent with their goal and progress. Do not mention the heroes.
+            
+            Answer with exactly one line per person, in the same order, formatted as:
+            <number>. <sentence>
+            """)
+    String summarize(@UserMessage String activities);
+}
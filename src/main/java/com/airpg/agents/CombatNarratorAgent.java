@@ -6,10 +6,11 @@ import dev.langchain4j.service.UserMessage;
 /**
  * AI Agent for narrating combat encounters.
  * Transforms combat mechanics into exciting narrative descriptions.
+ * All methods share one system message, so the requests keep an identical prefix.
  */
 public interface CombatNarratorAgent {
-    
-    @SystemMessage("""
+
+    String SYSTEM_MESSAGE = """
             You are the Combat Narrator for a fantasy RPG game.
             
             Your role:
@@ -32,25 +33,19 @@ public interface CombatNarratorAgent {
             - Hit or miss
             
             Transform this data into engaging narrative.
-            """)
+            
+            At the start of a combat encounter, create tension and set the scene: describe the
+            enemies and the initial situation, exciting but brief (2-3 sentences).
+            At the end, describe the aftermath based on the outcome (victory, defeat, or flee),
+            impactful but concise (2-3 sentences).
+            """;
+
+    @SystemMessage(SYSTEM_MESSAGE)
     String narrateCombatAction(@UserMessage String combatActionContext);
     
-    @SystemMessage("""
-            You are the Combat Narrator for a fantasy RPG game.
-            Narrate the start of a combat encounter.
-            
-            Create tension and set the scene for the battle.
-            Describe the enemies and the initial situation.
-            Keep it exciting but brief (2-3 sentences).
-            """)
+    @SystemMessage(SYSTEM_MESSAGE)
     String narrateCombatStart(@UserMessage String combatContext);
     
-    @SystemMessage("""
-            You are the Combat Narrator for a fantasy RPG game.
-            Narrate the end of a combat encounter.
-            
-            Describe the aftermath based on the outcome (victory, defeat, or flee).
-            Keep it impactful but concise (2-3 sentences).
-            """)
+    @SystemMessage(SYSTEM_MESSAGE)
     String narrateCombatEnd(@UserMessage String combatEndContext);
 }
@@ -2,21 +2,22 @@ package com.airpg.agents;
 
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
 
 /**
  * AI Agent for team member companions.
  * Each companion acts autonomously based on their personality.
+ * The companion's persona is part of the system message, so it is stated once per request
+ * instead of in every remembered user message. All methods share that system message,
+ * with the persona last, so requests keep an identical prefix.
  */
 public interface CompanionAgent {
-    
-    @SystemMessage("""
+
+    String SYSTEM_MESSAGE = """
             You are a team member (companion) in the player's party in a fantasy RPG game.
             
-            You will be given:
-            - Your name, class, and personality
-            - Your backstory
-            - The current situation
-            - Your loyalty to the party
+            You will be given the current situation and your loyalty to the party;
+            what it leaves out is as you last heard it.
             
             Your behavior:
             - Act according to your personality and class
@@ -35,30 +36,24 @@ public interface CompanionAgent {
             - You're part of the party, not an enemy
             - Your loyalty affects your tone (higher loyalty = more supportive)
             - You have your own opinions and can disagree with the player
-            """)
-    String speak(@UserMessage String context);
-    
-    @SystemMessage("""
-            You are a team member in combat.
-            Based on the combat situation, decide what action to take.
-            
-            Consider:
-            - Your class (warrior, mage, healer, rogue)
-            - Current party health and status
-            - Enemy threats
-            - Your personality
             
-            Return your intended action as: "ACTION: [ATTACK/HEAL/DEFEND] | TARGET: [target name] | REASON: [brief reason]"
-            """)
-    String decideCombatAction(@UserMessage String combatContext);
-    
-    @SystemMessage("""
-            You are a team member reacting to a significant event or decision.
+            When reacting to a significant event or decision, express your opinion about what
+            happened, naturally in character (1-2 sentences). This may affect your loyalty to the party.
             
-            Express your opinion about what happened.
-            This may affect your loyalty to the party.
+            When deciding a combat action, consider your class (warrior, mage, healer, rogue),
+            current party health and status, enemy threats and your personality.
+            Choose ATTACK (an enemy by name), HEAL (an ally by name) or DEFEND (yourself).
             
-            Respond naturally in character (1-2 sentences).
-            """)
-    String reactToEvent(@UserMessage String eventContext);
+            Your character:
+            {{persona}}
+            """;
+
+    @SystemMessage(SYSTEM_MESSAGE)
+    String speak(@V("persona") String persona, @UserMessage String context);
+    
+    @SystemMessage(SYSTEM_MESSAGE)
+    CompanionDecision decideCombatAction(@V("persona") String persona, @UserMessage String combatContext);
+    
+    @SystemMessage(SYSTEM_MESSAGE)
+    String reactToEvent(@V("persona") String persona, @UserMessage String eventContext);
 }
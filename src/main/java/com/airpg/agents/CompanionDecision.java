@@ -0,0 +1,25 @@
+package com.airpg.agents;
+
+import dev.langchain4j.model.output.structured.Description;
+
+/**
+ * A companion's combat decision, returned by {@link CompanionAgent#decideCombatAction} as JSON
+ *
+ * @param action what to do this turn
+ * @param target name of the enemy to attack or the ally to heal
+ * @param reason short in-character reason
+ */
+public record CompanionDecision(
+        @Description("ATTACK, HEAL or DEFEND")
+        Action action,
+        @Description("exact name of the enemy to attack or the ally to heal, as listed in the combat situation")
+        String target,
+        @Description("brief reason, one sentence")
+        String reason) {
+
+    public enum Action {
+        ATTACK,
+        HEAL,
+        DEFEND
+    }
+}
@@ -0,0 +1,207 @@
+package com.airpg.agents;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.Response;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routing ChatLanguageModel that sends a hedged request to an alternate
+ * provider/model when the primary is slower than its usual (percentile) latency.
+ * The first successful response wins and the other request is cancelled.
+ * If the primary fails, the alternate is used as a fallback right away.
+ * Background requests are never hedged: neither those of a model created for background
+ * work nor calls made with {@link LlmRequestScheduler#withPriority} BACKGROUND.
+ * Every attempt that started records its latency, also when it fails or loses and is
+ * cancelled (then at least its elapsed time), so the hedge delay follows the real tail.
+ */
+class HedgingChatModel implements ChatLanguageModel {
+
+    private static final Logger LOG = Logger.getLogger(HedgingChatModel.class);
+
+    private final ChatLanguageModel primary;
+    private final String primaryKey;
+    private final ChatLanguageModel alternate;
+    private final String alternateKey;
+    private final HedgingRouter router;
+    private final LlmPriority defaultPriority;
+
+    HedgingChatModel(ChatLanguageModel primary, String primaryKey,
+                     ChatLanguageModel alternate, String alternateKey,
+                     HedgingRouter router, LlmPriority defaultPriority) {
+        this.primary = primary;
+        this.primaryKey = primaryKey;
+        this.alternate = alternate;
+        this.alternateKey = alternateKey;
+        this.router = router;
+        this.defaultPriority = defaultPriority;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return hedge(model -> model.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        return hedge(model -> model.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        return hedge(model -> model.generate(messages, toolSpecification));
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        return hedge(model -> model.chat(chatRequest));
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return primary.supportedCapabilities();
+    }
+
+    private <T> T hedge(Function<ChatLanguageModel, T> call) {
+        LlmPriority priority = router.scheduler().effectivePriority(defaultPriority);
+        if (priority == LlmPriority.BACKGROUND) {
+            // Not timed: background calls wait behind interactive work and would inflate the hedge delay
+            return call.apply(primary);
+        }
+
+        Attempt<T> first = start(primary, primaryKey, call, priority);
+        Duration delay = router.hedgeDelay(primaryKey);
+        try {
+            return first.result().get(delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            LOG.debugf("Request to %s exceeded %d ms, hedging with %s", primaryKey, delay.toMillis(), alternateKey);
+        } catch (ExecutionException e) {
+            LOG.warnf("Request to %s failed (%s), falling back to %s",
+                    primaryKey, e.getCause().getMessage(), alternateKey);
+            return await(start(alternate, alternateKey, call, priority).result());
+        } catch (InterruptedException e) {
+            first.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for LLM response", e);
+        }
+
+        Attempt<T> second = start(alternate, alternateKey, call, priority);
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        first.result().whenComplete((value, error) -> settle(winner, value, error, second.result()));
+        second.result().whenComplete((value, error) -> settle(winner, value, error, first.result()));
+        try {
+            return await(winner);
+        } finally {
+            // Best effort: interrupts the blocking HTTP call of whichever attempt lost
+            first.cancel();
+            second.cancel();
+        }
+    }
+
+    private <T> Attempt<T> start(ChatLanguageModel model, String key,
+                                 Function<ChatLanguageModel, T> call, LlmPriority priority) {
+        Attempt<T> attempt = new Attempt<>(key);
+        attempt.task = router.executor().submit(() -> {
+            try {
+                attempt.result().complete(router.scheduler().withPriority(priority,
+                        () -> attempt.timed(() -> call.apply(model))));
+            } catch (Throwable error) {
+                attempt.result().completeExceptionally(error);
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * Complete the winner with the first success, or with an error once both attempts failed
+     */
+    private static <T> void settle(CompletableFuture<T> winner, T value, Throwable error, CompletableFuture<T> other) {
+        if (error == null) {
+            winner.complete(value);
+        } else if (other.isCompletedExceptionally()) {
+            winner.completeExceptionally(error);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for LLM response", e);
+        }
+    }
+
+    /**
+     * One request to one provider/model. Its latency is timed from the scheduler's admission,
+     * so time queued in the lane is not counted, and recorded exactly once: when the call
+     * returns or fails, or, if it is cancelled first, as a censored sample of its elapsed time.
+     */
+    private final class Attempt<T> {
+
+        private final String key;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private volatile Future<?> task;
+        private volatile boolean admitted;
+        private volatile long startNanos;
+
+        private Attempt(String key) {
+            this.key = key;
+        }
+
+        private CompletableFuture<T> result() {
+            return result;
+        }
+
+        private T timed(Supplier<T> call) {
+            try {
+                return router.scheduler().withAdmissionListener(this::admitted, call);
+            } finally {
+                record();
+            }
+        }
+
+        private void admitted() {
+            startNanos = System.nanoTime();
+            admitted = true;
+        }
+
+        private void record() {
+            // An attempt that failed or was cancelled while queued in the scheduler never
+            // reached the provider, so it says nothing about the provider's latency
+            if (admitted && recorded.compareAndSet(false, true)) {
+                router.record(key, System.nanoTime() - startNanos);
+            }
+        }
+
+        private void cancel() {
+            if (!result.isDone()) {
+                record();
+            }
+            task.cancel(true);
+        }
+    }
+}
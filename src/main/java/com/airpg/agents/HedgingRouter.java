@@ -0,0 +1,85 @@
+package com.airpg.agents;
+
+import com.airpg.config.AIConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Shared state for hedged LLM requests: latency statistics per provider/model
+ * and the threads used to run and time the competing requests.
+ * Only hedgeable (non-background) requests are sampled.
+ */
+@ApplicationScoped
+public class HedgingRouter {
+
+    private static final int LATENCY_WINDOW = 200;
+
+    @Inject
+    AIConfig aiConfig;
+
+    @Inject
+    LlmRequestScheduler scheduler;
+
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ScheduledExecutorService timer;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "llm-hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    /**
+     * Delay after which a hedged request should be fired for the given key.
+     * Based on the configured latency percentile once enough samples exist.
+     */
+    Duration hedgeDelay(String key) {
+        AIConfig.HedgingConfig config = aiConfig.hedging();
+        LatencyTracker tracker = trackers.get(key);
+        if (tracker == null || tracker.sampleCount() < config.minSamples()) {
+            return config.initialDelay();
+        }
+        Duration percentile = Duration.ofNanos(tracker.percentileNanos(config.percentile()));
+        return percentile.compareTo(config.minDelay()) < 0 ? config.minDelay() : percentile;
+    }
+
+    /**
+     * Record a latency sample for the given key; failed or cancelled requests
+     * record the time they took until then
+     */
+    void record(String key, long nanos) {
+        trackers.computeIfAbsent(key, k -> new LatencyTracker(LATENCY_WINDOW)).record(nanos);
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    ScheduledExecutorService timer() {
+        return timer;
+    }
+
+    LlmRequestScheduler scheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,206 @@
+package com.airpg.agents;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Streaming counterpart of {@link HedgingChatModel}.
+ * Hedges on time-to-first-token: if the primary stream has not produced a token
+ * within its percentile delay, the alternate stream is started and whichever
+ * emits first is forwarded. Streams cannot be aborted, so the losing stream
+ * runs to completion and its output is discarded. Background requests are never hedged.
+ * Each stream admitted by the scheduler records its own time from admission to first token,
+ * the losing one included, or the time until it failed, so the hedge delay follows the real
+ * tail of the provider rather than of the queue in front of it.
+ */
+class HedgingStreamingChatModel implements StreamingChatLanguageModel {
+
+    private static final Logger LOG = Logger.getLogger(HedgingStreamingChatModel.class);
+
+    private static final int NO_WINNER = -1;
+
+    private final StreamingChatLanguageModel primary;
+    private final String primaryKey;
+    private final StreamingChatLanguageModel alternate;
+    private final String alternateKey;
+    private final HedgingRouter router;
+    private final LlmPriority defaultPriority;
+
+    HedgingStreamingChatModel(StreamingChatLanguageModel primary, String primaryKey,
+                              StreamingChatLanguageModel alternate, String alternateKey,
+                              HedgingRouter router, LlmPriority defaultPriority) {
+        this.primary = primary;
+        this.primaryKey = primaryKey;
+        this.alternate = alternate;
+        this.alternateKey = alternateKey;
+        this.router = router;
+        this.defaultPriority = defaultPriority;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        hedge(handler, (model, lane) -> model.generate(messages, lane));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler) {
+        hedge(handler, (model, lane) -> model.generate(messages, toolSpecifications, lane));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+                         StreamingResponseHandler<AiMessage> handler) {
+        hedge(handler, (model, lane) -> model.generate(messages, toolSpecification, lane));
+    }
+
+    private void hedge(StreamingResponseHandler<AiMessage> handler,
+                       BiConsumer<StreamingChatLanguageModel, StreamingResponseHandler<AiMessage>> call) {
+        LlmPriority priority = router.scheduler().effectivePriority(defaultPriority);
+        if (priority == LlmPriority.BACKGROUND) {
+            // Not timed: background streams wait behind interactive work and would inflate the hedge delay
+            call.accept(primary, handler);
+            return;
+        }
+
+        Race race = new Race(handler, call, priority);
+        Duration delay = router.hedgeDelay(streamKey(primaryKey));
+        race.launch(0);
+        router.timer().schedule(() -> {
+            if (race.winner.get() == NO_WINNER) {
+                LOG.debugf("No token from %s after %d ms, hedging with %s",
+                        primaryKey, delay.toMillis(), alternateKey);
+                race.launch(1);
+            }
+        }, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static String streamKey(String key) {
+        return "stream:" + key;
+    }
+
+    /**
+     * Tracks the two competing streams; lane 0 is the primary, lane 1 the alternate.
+     */
+    private final class Race {
+
+        private final StreamingResponseHandler<AiMessage> handler;
+        private final BiConsumer<StreamingChatLanguageModel, StreamingResponseHandler<AiMessage>> call;
+        private final LlmPriority priority;
+        private final AtomicInteger winner = new AtomicInteger(NO_WINNER);
+        private final AtomicBoolean[] launched = {new AtomicBoolean(), new AtomicBoolean()};
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private Race(StreamingResponseHandler<AiMessage> handler,
+                     BiConsumer<StreamingChatLanguageModel, StreamingResponseHandler<AiMessage>> call,
+                     LlmPriority priority) {
+            this.handler = handler;
+            this.call = call;
+            this.priority = priority;
+        }
+
+        private void launch(int lane) {
+            if (!launched[lane].compareAndSet(false, true)) {
+                return;
+            }
+            StreamingChatLanguageModel model = lane == 0 ? primary : alternate;
+            String key = lane == 0 ? primaryKey : alternateKey;
+            // Admission may block in the scheduler, so start each stream off the caller thread
+            router.executor().execute(() -> {
+                try {
+                    LaneHandler laneHandler = new LaneHandler(lane, key);
+                    router.scheduler().withPriority(priority, () ->
+                            router.scheduler().withAdmissionListener(laneHandler::admitted, () -> {
+                                call.accept(model, laneHandler);
+                                return null;
+                            }));
+                } catch (RuntimeException e) {
+                    failed(lane, e);
+                }
+            });
+        }
+
+        private boolean claim(int lane) {
+            return winner.get() == lane || winner.compareAndSet(NO_WINNER, lane);
+        }
+
+        private void failed(int lane, Throwable error) {
+            if (winner.get() == lane) {
+                handler.onError(error);
+                return;
+            }
+            if (winner.get() != NO_WINNER) {
+                return;
+            }
+            int failed = failures.incrementAndGet();
+            int otherLane = 1 - lane;
+            if (!launched[otherLane].get()) {
+                LOG.warnf("Stream from %s failed (%s), falling back",
+                        lane == 0 ? primaryKey : alternateKey, error.getMessage());
+                launch(otherLane);
+            } else if (failed == 2) {
+                handler.onError(error);
+            }
+        }
+
+        private final class LaneHandler implements StreamingResponseHandler<AiMessage> {
+
+            private final int lane;
+            private final String key;
+            private final AtomicBoolean responded = new AtomicBoolean();
+            private volatile boolean admitted;
+            private volatile long startNanos;
+
+            private LaneHandler(int lane, String key) {
+                this.lane = lane;
+                this.key = key;
+            }
+
+            @Override
+            public void onNext(String token) {
+                recordFirstResponse();
+                if (claim(lane)) {
+                    handler.onNext(token);
+                }
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                recordFirstResponse();
+                if (claim(lane)) {
+                    handler.onComplete(response);
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                recordFirstResponse();
+                failed(lane, error);
+            }
+
+            private void admitted() {
+                startNanos = System.nanoTime();
+                admitted = true;
+            }
+
+            private void recordFirstResponse() {
+                // A stream that failed while queued in the scheduler never reached the provider
+                if (admitted && responded.compareAndSet(false, true)) {
+                    router.record(streamKey(key), System.nanoTime() - startNanos);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.airpg.agents;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent request latencies for one provider/model.
+ * Used to derive percentile-based hedge delays.
+ */
+final class LatencyTracker {
+
+    private final long[] samplesNanos;
+    private int next;
+    private int count;
+
+    LatencyTracker(int windowSize) {
+        this.samplesNanos = new long[windowSize];
+    }
+
+    synchronized void record(long nanos) {
+        samplesNanos[next] = nanos;
+        next = (next + 1) % samplesNanos.length;
+        count = Math.min(count + 1, samplesNanos.length);
+    }
+
+    synchronized int sampleCount() {
+        return count;
+    }
+
+    /**
+     * Get the latency at the given percentile (0.0-1.0) in nanoseconds, or -1 without samples
+     */
+    synchronized long percentileNanos(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samplesNanos, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
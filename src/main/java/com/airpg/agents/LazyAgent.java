@@ -0,0 +1,32 @@
+package com.airpg.agents;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe lazy holder for a single agent instance (or the model backing agents).
+ * Reads are lock-free once the agent exists; creation is guarded per holder
+ * so concurrent first calls build exactly one model and agent.
+ */
+final class LazyAgent<T> {
+
+    private final Supplier<T> factory;
+    private volatile T agent;
+
+    LazyAgent(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    T get() {
+        T result = agent;
+        if (result == null) {
+            synchronized (this) {
+                result = agent;
+                if (result == null) {
+                    result = factory.get();
+                    agent = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package com.airpg.agents;
+
+/**
+ * Scheduling priority of an LLM request.
+ * Lower ordinal is served first when requests queue up for a provider.
+ */
+public enum LlmPriority {
+    /** Player is watching tokens arrive (streaming narration) */
+    INTERACTIVE,
+    /** Direct answer to a player command (dialogue, combat narration) */
+    NORMAL,
+    /** Nice-to-have output the player is not waiting on (reactions, summaries) */
+    BACKGROUND
+}
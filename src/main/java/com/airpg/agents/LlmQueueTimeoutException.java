@@ -0,0 +1,13 @@
+package com.airpg.agents;
+
+/**
+ * Thrown when an LLM request waited longer than the configured queue timeout
+ * for a free slot on its provider.
+ */
+public class LlmQueueTimeoutException extends RuntimeException {
+
+    public LlmQueueTimeoutException(String provider, LlmPriority priority, int queueLength) {
+        super(String.format("The %s storyteller is busy (%s request timed out with %d waiting). Please try again.",
+                provider, priority.name().toLowerCase(), queueLength));
+    }
+}
@@ -0,0 +1,67 @@
+package com.airpg.agents;
+
+import dev.langchain4j.model.output.TokenUsage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one model request made by an agent.
+ * Duration is the full request latency (until the last token for streaming requests).
+ */
+@Name("airpg.LlmRequest")
+@Label("LLM Request")
+@Category({"AI RPG", "LLM"})
+@Description("A chat model request made on behalf of an agent")
+@StackTrace(false)
+class LlmRequestEvent extends Event {
+
+    @Label("Agent")
+    String agent;
+
+    @Label("Method")
+    String method;
+
+    @Label("Streaming")
+    boolean streaming;
+
+    @Label("Input Tokens")
+    int inputTokens;
+
+    @Label("Output Tokens")
+    int outputTokens;
+
+    @Label("Prefix Tokens")
+    @Description("Estimated input tokens repeating the start of the agent's previous request")
+    int prefixTokens;
+
+    @Label("Outcome")
+    @Description("success or the simple name of the failure")
+    String outcome;
+
+    static LlmRequestEvent begin(String agent, String method, boolean streaming, int prefixTokens) {
+        LlmRequestEvent event = new LlmRequestEvent();
+        event.agent = agent;
+        event.method = method;
+        event.streaming = streaming;
+        event.prefixTokens = prefixTokens;
+        event.begin();
+        return event;
+    }
+
+    void finish(TokenUsage usage, Throwable error) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        if (usage != null) {
+            inputTokens = usage.inputTokenCount() != null ? usage.inputTokenCount() : 0;
+            outputTokens = usage.outputTokenCount() != null ? usage.outputTokenCount() : 0;
+        }
+        outcome = error == null ? "success" : error.getClass().getSimpleName();
+        commit();
+    }
+}
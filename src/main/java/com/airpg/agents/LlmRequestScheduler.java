@@ -0,0 +1,299 @@
+package com.airpg.agents;
+
+import com.airpg.config.AIConfig;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Central admission control for all LLM requests.
+ * Each provider gets a lane that limits in-flight requests and tokens per minute.
+ * Waiting requests are served by priority (interactive before background) and
+ * in arrival order within a priority; they fail only after the queue timeout.
+ */
+@ApplicationScoped
+public class LlmRequestScheduler {
+
+    private static final Logger LOG = Logger.getLogger(LlmRequestScheduler.class);
+
+    /** Rough chars-per-token ratio used to estimate prompt size before sending */
+    static final int CHARS_PER_TOKEN = 4;
+
+    private static final ThreadLocal<LlmPriority> PRIORITY_OVERRIDE = new ThreadLocal<>();
+    private static final ThreadLocal<Runnable> ADMISSION_LISTENER = new ThreadLocal<>();
+
+    @Inject
+    AIConfig aiConfig;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Run an agent call with the given priority instead of the model's default.
+     * Applies to LLM requests issued on the calling thread.
+     */
+    public <T> T withPriority(LlmPriority priority, Supplier<T> call) {
+        LlmPriority previous = PRIORITY_OVERRIDE.get();
+        PRIORITY_OVERRIDE.set(priority);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                PRIORITY_OVERRIDE.remove();
+            } else {
+                PRIORITY_OVERRIDE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run a call, notifying the listener whenever one of the LLM requests it issues on
+     * the calling thread is admitted, i.e. leaves the queue on its way to the provider
+     */
+    <T> T withAdmissionListener(Runnable onAdmitted, Supplier<T> call) {
+        Runnable previous = ADMISSION_LISTENER.get();
+        ADMISSION_LISTENER.set(onAdmitted);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                ADMISSION_LISTENER.remove();
+            } else {
+                ADMISSION_LISTENER.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Resolve the effective priority for a request issued on this thread
+     */
+    LlmPriority effectivePriority(LlmPriority defaultPriority) {
+        LlmPriority override = PRIORITY_OVERRIDE.get();
+        return override != null ? override : defaultPriority;
+    }
+
+    /**
+     * Wait for a slot on the provider's lane.
+     *
+     * @throws LlmQueueTimeoutException if no slot frees up within the queue timeout
+     */
+    Permit acquire(String provider, LlmPriority priority, List<ChatMessage> messages) {
+        Permit permit = admit(provider, priority, messages);
+        Runnable onAdmitted = ADMISSION_LISTENER.get();
+        if (onAdmitted != null) {
+            onAdmitted.run();
+        }
+        return permit;
+    }
+
+    /**
+     * Queue for and take a slot on the provider's lane
+     */
+    Permit admit(String provider, LlmPriority priority, List<ChatMessage> messages) {
+        int estimatedTokens = estimateTokens(messages);
+        return lane(provider).acquire(priority, estimatedTokens, aiConfig.scheduler().queueTimeout().toNanos());
+    }
+
+    /**
+     * Current number of queued requests for a provider (for diagnostics)
+     */
+    public int getQueueLength(String provider) {
+        Lane lane = lanes.get(provider);
+        return lane == null ? 0 : lane.queueLength();
+    }
+
+    private Lane lane(String provider) {
+        return lanes.computeIfAbsent(provider, name -> switch (name) {
+            case "ollama" -> new Lane(name, aiConfig.ollama().maxInFlight(), aiConfig.ollama().tokensPerMinute());
+            case "openai" -> new Lane(name, aiConfig.openai().maxInFlight(), aiConfig.openai().tokensPerMinute());
+            case "mock" -> new Lane(name, aiConfig.mock().maxInFlight(), aiConfig.mock().tokensPerMinute());
+            default -> new Lane(name, aiConfig.openai().maxInFlight(), 0);
+        });
+    }
+
+    static int estimateTokens(List<ChatMessage> messages) {
+        int chars = 0;
+        for (ChatMessage message : messages) {
+            chars += text(message).length();
+        }
+        return Math.max(1, chars / CHARS_PER_TOKEN);
+    }
+
+    /**
+     * The text of a message as counted for estimates; empty for messages without plain text
+     */
+    static String text(ChatMessage message) {
+        if (message instanceof UserMessage userMessage && userMessage.hasSingleText()) {
+            return userMessage.singleText();
+        } else if (message instanceof SystemMessage systemMessage) {
+            return systemMessage.text();
+        } else if (message instanceof AiMessage aiMessage && aiMessage.text() != null) {
+            return aiMessage.text();
+        }
+        return "";
+    }
+
+    /**
+     * Handle for an admitted request. Must be released exactly once.
+     */
+    public interface Permit {
+
+        /**
+         * Release the slot and settle the token budget with the actual usage.
+         *
+         * @param actualTokens total tokens reported by the provider, or null if unknown
+         */
+        void release(Integer actualTokens);
+    }
+
+    /**
+     * Per-provider queue with an in-flight limit and a token bucket.
+     */
+    private final class Lane {
+
+        private final String provider;
+        private final int maxInFlight;
+        private final int tokensPerMinute;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>();
+
+        private int inFlight;
+        private double availableTokens;
+        private long lastRefillNanos = System.nanoTime();
+
+        private Lane(String provider, int maxInFlight, int tokensPerMinute) {
+            this.provider = provider;
+            this.maxInFlight = Math.max(1, maxInFlight);
+            this.tokensPerMinute = tokensPerMinute;
+            this.availableTokens = tokensPerMinute;
+            LOG.infof("LLM lane '%s': max in-flight %d, tokens/min %s",
+                    provider, this.maxInFlight, tokensPerMinute > 0 ? tokensPerMinute : "unlimited");
+        }
+
+        private Permit acquire(LlmPriority priority, int estimatedTokens, long timeoutNanos) {
+            Waiter waiter = new Waiter(priority, sequence.incrementAndGet());
+            long deadline = System.nanoTime() + timeoutNanos;
+            lock.lock();
+            try {
+                queue.add(waiter);
+                while (true) {
+                    refill();
+                    long waitNanos = deadline - System.nanoTime();
+                    if (queue.peek() == waiter && inFlight < maxInFlight) {
+                        long tokenWait = nanosUntilTokens(estimatedTokens);
+                        if (tokenWait <= 0) {
+                            queue.poll();
+                            inFlight++;
+                            if (tokensPerMinute > 0) {
+                                availableTokens -= estimatedTokens;
+                            }
+                            changed.signalAll();
+                            return new LanePermit(estimatedTokens);
+                        }
+                        waitNanos = Math.min(waitNanos, tokenWait);
+                    }
+                    if (deadline - System.nanoTime() <= 0) {
+                        queue.remove(waiter);
+                        changed.signalAll();
+                        throw new LlmQueueTimeoutException(provider, priority, queue.size());
+                    }
+                    changed.awaitNanos(waitNanos);
+                }
+            } catch (InterruptedException e) {
+                queue.remove(waiter);
+                changed.signalAll();
+                Thread.currentThread().interrupt();
+                throw new LlmQueueTimeoutException(provider, priority, queue.size());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(int estimatedTokens, Integer actualTokens) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (tokensPerMinute > 0 && actualTokens != null) {
+                    // Settle the estimate against what the provider actually counted
+                    availableTokens += estimatedTokens - actualTokens;
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int queueLength() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill() {
+            if (tokensPerMinute <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            double refilled = (now - lastRefillNanos) * tokensPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            availableTokens = Math.min(tokensPerMinute, availableTokens + refilled);
+            lastRefillNanos = now;
+        }
+
+        private long nanosUntilTokens(int estimatedTokens) {
+            if (tokensPerMinute <= 0) {
+                return 0;
+            }
+            // A single oversized request may still run once the bucket is full
+            double needed = Math.min(estimatedTokens, tokensPerMinute) - availableTokens;
+            if (needed <= 0) {
+                return 0;
+            }
+            return (long) (needed * TimeUnit.MINUTES.toNanos(1) / tokensPerMinute);
+        }
+
+        private final class LanePermit implements Permit {
+
+            private final int estimatedTokens;
+            private boolean released;
+
+            private LanePermit(int estimatedTokens) {
+                this.estimatedTokens = estimatedTokens;
+            }
+
+            @Override
+            public synchronized void release(Integer actualTokens) {
+                if (!released) {
+                    released = true;
+                    Lane.this.release(estimatedTokens, actualTokens);
+                }
+            }
+        }
+    }
+
+    private record Waiter(LlmPriority priority, long sequence) implements Comparable<Waiter> {
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.airpg.agents;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ChatLanguageModel decorator that counts token usage for the agent it backs,
+ * including the estimated prefix shared with the agent's previous request,
+ * and records each request as a JFR event.
+ * Outermost layer, so it runs on the agent caller's thread and sees the final response.
+ */
+class MeteredChatModel implements ChatLanguageModel {
+
+    private final ChatLanguageModel delegate;
+    private final AgentMetrics metrics;
+    private final String agent;
+    private final PromptPrefixTracker prefix = new PromptPrefixTracker();
+
+    MeteredChatModel(ChatLanguageModel delegate, AgentMetrics metrics, String agent) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.agent = agent;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        LlmRequestEvent event = begin(messages);
+        try {
+            return counted(event, delegate.generate(messages));
+        } catch (RuntimeException e) {
+            event.finish(null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        LlmRequestEvent event = begin(messages);
+        try {
+            return counted(event, delegate.generate(messages, toolSpecifications));
+        } catch (RuntimeException e) {
+            event.finish(null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        LlmRequestEvent event = begin(messages);
+        try {
+            return counted(event, delegate.generate(messages, toolSpecification));
+        } catch (RuntimeException e) {
+            event.finish(null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        LlmRequestEvent event = begin(chatRequest.messages());
+        ChatResponse response;
+        try {
+            response = delegate.chat(chatRequest);
+        } catch (RuntimeException e) {
+            event.finish(null, e);
+            throw e;
+        }
+        metrics.recordTokens(agent, AgentMetrics.currentMethod(), response.tokenUsage());
+        event.finish(response.tokenUsage(), null);
+        return response;
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    private LlmRequestEvent begin(List<ChatMessage> messages) {
+        String method = AgentMetrics.currentMethod();
+        int prefixTokens = prefix.track(messages);
+        metrics.recordPrefixTokens(agent, method, prefixTokens);
+        return LlmRequestEvent.begin(agent, method, false, prefixTokens);
+    }
+
+    private Response<AiMessage> counted(LlmRequestEvent event, Response<AiMessage> response) {
+        metrics.recordTokens(agent, AgentMetrics.currentMethod(), response.tokenUsage());
+        event.finish(response.tokenUsage(), null);
+        return response;
+    }
+}
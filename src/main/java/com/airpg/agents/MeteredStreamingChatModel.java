@@ -0,0 +1,74 @@
+package com.airpg.agents;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+
+/**
+ * StreamingChatLanguageModel decorator that counts token usage for the agent it backs,
+ * including the estimated prefix shared with the agent's previous request,
+ * and records each request as a JFR event.
+ * The agent method is captured when the stream starts, since completion arrives on another thread.
+ */
+class MeteredStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final StreamingChatLanguageModel delegate;
+    private final AgentMetrics metrics;
+    private final String agent;
+    private final PromptPrefixTracker prefix = new PromptPrefixTracker();
+
+    MeteredStreamingChatModel(StreamingChatLanguageModel delegate, AgentMetrics metrics, String agent) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.agent = agent;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, counted(messages, handler));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, toolSpecifications, counted(messages, handler));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+                         StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, toolSpecification, counted(messages, handler));
+    }
+
+    private StreamingResponseHandler<AiMessage> counted(List<ChatMessage> messages,
+                                                        StreamingResponseHandler<AiMessage> handler) {
+        String method = AgentMetrics.currentMethod();
+        int prefixTokens = prefix.track(messages);
+        metrics.recordPrefixTokens(agent, method, prefixTokens);
+        LlmRequestEvent event = LlmRequestEvent.begin(agent, method, true, prefixTokens);
+        return new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+                handler.onNext(token);
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                metrics.recordTokens(agent, method, response.tokenUsage());
+                event.finish(response.tokenUsage(), null);
+                handler.onComplete(response);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                event.finish(null, error);
+                handler.onError(error);
+            }
+        };
+    }
+}
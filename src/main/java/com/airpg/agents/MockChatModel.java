@@ -0,0 +1,32 @@
+package com.airpg.agents;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+
+/**
+ * In-process fake ChatLanguageModel for offline runs and load tests.
+ * Blocks for the sampled latency plus the time to "generate" every token.
+ */
+class MockChatModel implements ChatLanguageModel {
+
+    private final MockResponder responder;
+
+    MockChatModel(MockResponder responder) {
+        this.responder = responder;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        MockResponder.Reply reply = responder.reply(messages);
+        MockResponder.sleepNanos(reply.latencyNanos());
+        if (reply.failed()) {
+            throw new MockProviderException();
+        }
+        MockResponder.sleepNanos(reply.tokenIntervalNanos() * reply.outputTokens());
+        return reply.toResponse();
+    }
+}
@@ -0,0 +1,11 @@
+package com.airpg.agents;
+
+/**
+ * Simulated provider error raised by the mock models (see ai.mock.failure-rate)
+ */
+public class MockProviderException extends RuntimeException {
+
+    public MockProviderException() {
+        super("Simulated mock provider failure");
+    }
+}
@@ -0,0 +1,285 @@
+package com.airpg.agents;
+
+import com.airpg.config.AIConfig;
+import com.airpg.recording.SessionRecording;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Response and latency source shared by the mock chat models.
+ * Replies are templated from the agent's system prompt so that structured
+ * formats (companion decision JSON, "TITLE: ... | DESCRIPTION: ...") parse
+ * like real provider output, or taken from a configured script.
+ * Randomness is derived from the seed and the prompt, so identical prompts
+ * get identical replies and latencies regardless of thread interleaving.
+ * When replaying a recording, recorded replies and timings come first.
+ */
+final class MockResponder {
+
+    private static final String[] NARRATION = {
+            "A cold wind stirs the dust at your feet.",
+            "Somewhere in the distance, a bell tolls twice and falls silent.",
+            "The path ahead splits around an ancient, moss-covered stone.",
+            "Torchlight flickers across walls carved with forgotten runes.",
+            "You catch the scent of smoke and iron on the air.",
+            "Shadows gather beneath the trees, watching and waiting.",
+            "A traveler hurries past, eyes fixed on the ground.",
+            "The ground trembles faintly, as if something vast stirs below.",
+    };
+
+    private static final String[] DIALOGUE = {
+            "Well met, traveler.",
+            "These roads grow more dangerous by the day.",
+            "I have heard rumors you may find useful.",
+            "Be careful whom you trust around here.",
+            "If you seek answers, the old ruins hold many.",
+            "Speak quickly, I have little time to spare.",
+    };
+
+    private static final String[] QUEST_TITLES = {
+            "The Missing Caravan", "Whispers in the Crypt", "The Broken Seal", "A Debt of Iron",
+    };
+
+    private static final Logger LOG = Logger.getLogger(MockResponder.class);
+
+    private final AIConfig.MockConfig config;
+    private final ReplayResponses replay;
+    private final AtomicLong scriptPosition = new AtomicLong();
+
+    /**
+     * @param replay recorded replies to serve, or {@code null}
+     */
+    MockResponder(AIConfig.MockConfig config, ReplayResponses replay) {
+        this.config = config;
+        this.replay = replay;
+    }
+
+    /**
+     * Plan the reply for a request: its text and simulated timing
+     */
+    Reply reply(List<ChatMessage> messages) {
+        if (replay != null) {
+            Optional<SessionRecording.Exchange> recorded = replay.next(messages);
+            if (recorded.isPresent()) {
+                return replayed(recorded.get(), messages);
+            }
+            LOG.warnf("No recorded reply left for this request, answering with a templated one");
+        }
+        String system = systemText(messages);
+        String user = lastUserText(messages);
+        SplittableRandom random = new SplittableRandom(config.seed() ^ ((long) system.hashCode() << 32 | (user.hashCode() & 0xFFFFFFFFL)));
+
+        if (random.nextDouble() < config.failureRate()) {
+            return new Reply(null, sampleLatencyNanos(random), tokenIntervalNanos(), 0, 0, true);
+        }
+
+        String text = config.script()
+                .filter(script -> !script.isEmpty())
+                .map(script -> script.get((int) (scriptPosition.getAndIncrement() % script.size())))
+                .orElseGet(() -> templated(system, user, random));
+        int inputTokens = LlmRequestScheduler.estimateTokens(messages);
+        int outputTokens = tokens(text).size();
+        return new Reply(text, sampleLatencyNanos(random), tokenIntervalNanos(), inputTokens, outputTokens, false);
+    }
+
+    /**
+     * A recorded reply with its recorded timing: the first token after the recorded
+     * latency, the rest spread over the remaining recorded duration
+     */
+    private static Reply replayed(SessionRecording.Exchange exchange, List<ChatMessage> messages) {
+        long firstToken = exchange.firstTokenMillis() * 1_000_000;
+        long total = exchange.totalMillis() * 1_000_000;
+        int inputTokens = LlmRequestScheduler.estimateTokens(messages);
+        if (exchange.failed()) {
+            return new Reply(null, total, 0, inputTokens, 0, true);
+        }
+        int outputTokens = tokens(exchange.response()).size();
+        long interval = outputTokens > 1 ? (total - firstToken) / (outputTokens - 1) : 0;
+        return new Reply(exchange.response(), firstToken, interval, inputTokens, outputTokens, false);
+    }
+
+    /**
+     * Delay between two streamed tokens, or 0 for instant output
+     */
+    private long tokenIntervalNanos() {
+        return config.tokensPerSecond() > 0 ? 1_000_000_000L / config.tokensPerSecond() : 0;
+    }
+
+    /**
+     * Split a reply into the tokens emitted by the streaming model (words with trailing space)
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i - 1) == ' ') {
+                if (i > start) {
+                    tokens.add(text.substring(start, i));
+                }
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    static void sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Mock request interrupted", e);
+        }
+    }
+
+    /**
+     * Log-normal latency around the configured median
+     */
+    private long sampleLatencyNanos(SplittableRandom random) {
+        long median = config.latency().toNanos();
+        if (median <= 0) {
+            return 0;
+        }
+        return (long) (median * Math.exp(config.latencyJitter() * random.nextGaussian()));
+    }
+
+    private String templated(String system, String user, SplittableRandom random) {
+        // Agents state all their tasks in one system message; the user message says which is asked
+        if (user.contains("Combat situation:")) {
+            return combatDecision(user, random);
+        }
+        if (system.contains("You are the chronicler")) {
+            return chronicle(user, random);
+        }
+        if (user.contains("Generate a quest")) {
+            String title = QUEST_TITLES[random.nextInt(QUEST_TITLES.length)];
+            return "TITLE: " + title + " | DESCRIPTION: " + sentences(NARRATION, 2, random);
+        }
+        String[] pool = system.contains("You are an NPC") || system.contains("You are a team member") ? DIALOGUE : NARRATION;
+        int sentences = Math.max(1, config.responseTokens() / 10);
+        return sentences(pool, sentences, random);
+    }
+
+    /**
+     * Companion decision as the JSON object AiServices parses into a {@link CompanionDecision}.
+     * Heals the most wounded ally below half health, otherwise attacks a random enemy.
+     */
+    private static String combatDecision(String context, SplittableRandom random) {
+        List<String> allies = new ArrayList<>();
+        List<String> enemies = new ArrayList<>();
+        String woundedAlly = null;
+        double lowestHealth = 0.5;
+        List<String> section = allies;
+        for (String line : context.split("\n")) {
+            if (line.startsWith("Enemies:")) {
+                section = enemies;
+            } else if (line.startsWith("- ") && line.contains(" (HP: ")) {
+                String name = line.substring(2, line.indexOf(" (HP: "));
+                section.add(name);
+                if (section == allies) {
+                    double health = healthFraction(line);
+                    if (health < lowestHealth) {
+                        lowestHealth = health;
+                        woundedAlly = name;
+                    }
+                }
+            }
+        }
+
+        if (woundedAlly != null) {
+            return decisionJson("HEAL", woundedAlly, "They are badly hurt");
+        }
+        if (enemies.isEmpty()) {
+            return decisionJson("DEFEND", "self", "No enemy in sight");
+        }
+        String target = enemies.get(random.nextInt(enemies.size()));
+        return decisionJson("ATTACK", target, "Strike while we can");
+    }
+
+    /**
+     * One numbered sentence per numbered person in the chronicler's prompt
+     */
+    private static String chronicle(String activities, SplittableRandom random) {
+        StringBuilder text = new StringBuilder();
+        for (String line : activities.split("\n")) {
+            int dot = line.indexOf(". ");
+            if (dot > 0 && line.substring(0, dot).chars().allMatch(Character::isDigit)) {
+                text.append(line, 0, dot + 2).append(NARRATION[random.nextInt(NARRATION.length)]).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private static String decisionJson(String action, String target, String reason) {
+        return "{\"action\": \"" + action + "\", \"target\": \"" + target.replace("\"", "\\\"")
+                + "\", \"reason\": \"" + reason + "\"}";
+    }
+
+    private static double healthFraction(String line) {
+        try {
+            String hp = line.substring(line.indexOf("(HP: ") + 5, line.indexOf(')'));
+            String[] parts = hp.split("/");
+            return Double.parseDouble(parts[0].trim()) / Double.parseDouble(parts[1].trim());
+        } catch (RuntimeException e) {
+            return 1.0;
+        }
+    }
+
+    private static String sentences(String[] pool, int count, SplittableRandom random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(pool[random.nextInt(pool.length)]);
+        }
+        return text.toString();
+    }
+
+    static String systemText(List<ChatMessage> messages) {
+        for (ChatMessage message : messages) {
+            if (message instanceof SystemMessage systemMessage) {
+                return systemMessage.text();
+            }
+        }
+        return "";
+    }
+
+    private static String lastUserText(List<ChatMessage> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) instanceof UserMessage userMessage && userMessage.hasSingleText()) {
+                return userMessage.singleText();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * A planned mock reply: the first token after {@code latencyNanos}, then one token
+     * per {@code tokenIntervalNanos}. {@code failed} replies raise an error after the latency.
+     */
+    record Reply(String text, long latencyNanos, long tokenIntervalNanos,
+                 int inputTokens, int outputTokens, boolean failed) {
+
+        Response<AiMessage> toResponse() {
+            return Response.from(
+                    AiMessage.from(text),
+                    new TokenUsage(inputTokens, outputTokens),
+                    FinishReason.STOP);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.airpg.agents;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+
+import java.util.List;
+
+/**
+ * In-process fake StreamingChatLanguageModel for offline runs and load tests.
+ * Emits the first token after the sampled latency, then one token per interval
+ * on a virtual thread, like a real provider's network stream.
+ */
+class MockStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final MockResponder responder;
+
+    MockStreamingChatModel(MockResponder responder) {
+        this.responder = responder;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        MockResponder.Reply reply = responder.reply(messages);
+        Thread.ofVirtual().name("mock-llm-stream").start(() -> {
+            try {
+                MockResponder.sleepNanos(reply.latencyNanos());
+                if (reply.failed()) {
+                    throw new MockProviderException();
+                }
+                long interval = reply.tokenIntervalNanos();
+                boolean first = true;
+                for (String token : MockResponder.tokens(reply.text())) {
+                    if (!first) {
+                        MockResponder.sleepNanos(interval);
+                    }
+                    first = false;
+                    handler.onNext(token);
+                }
+                handler.onComplete(reply.toResponse());
+            } catch (RuntimeException e) {
+                handler.onError(e);
+            }
+        });
+    }
+}
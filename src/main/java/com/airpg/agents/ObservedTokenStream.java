@@ -0,0 +1,114 @@
+package com.airpg.agents;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.tool.ToolExecution;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * TokenStream decorator that reports the lifecycle of a streaming agent call to an observer.
+ * Keeps the caller's handlers and registers wrapping handlers on the delegate when started.
+ */
+final class ObservedTokenStream implements TokenStream {
+
+    /**
+     * Callbacks for one streaming call
+     */
+    interface Observer {
+
+        default void firstToken() {
+        }
+
+        default void completed(Response<AiMessage> response) {
+        }
+
+        default void failed(Throwable error) {
+        }
+
+        /**
+         * Run the delegate's start (e.g., with thread context set)
+         */
+        default void aroundStart(Runnable start) {
+            start.run();
+        }
+    }
+
+    private final TokenStream delegate;
+    private final Observer observer;
+    private Consumer<String> tokenHandler = token -> { };
+    private Consumer<Response<AiMessage>> completionHandler = response -> { };
+    private Consumer<Throwable> errorHandler;
+
+    ObservedTokenStream(TokenStream delegate, Observer observer) {
+        this.delegate = delegate;
+        this.observer = observer;
+    }
+
+    @Override
+    public TokenStream onNext(Consumer<String> tokenHandler) {
+        this.tokenHandler = tokenHandler;
+        return this;
+    }
+
+    @Override
+    public TokenStream onRetrieved(Consumer<List<Content>> contentHandler) {
+        delegate.onRetrieved(contentHandler);
+        return this;
+    }
+
+    @Override
+    public TokenStream onToolExecuted(Consumer<ToolExecution> toolExecuteHandler) {
+        delegate.onToolExecuted(toolExecuteHandler);
+        return this;
+    }
+
+    @Override
+    public TokenStream onComplete(Consumer<Response<AiMessage>> completionHandler) {
+        this.completionHandler = completionHandler;
+        return this;
+    }
+
+    @Override
+    public TokenStream onError(Consumer<Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    @Override
+    public TokenStream ignoreErrors() {
+        // Errors are still observed, just not forwarded
+        this.errorHandler = null;
+        return this;
+    }
+
+    @Override
+    public void start() {
+        AtomicBoolean firstToken = new AtomicBoolean();
+        Consumer<String> onToken = tokenHandler;
+        Consumer<Response<AiMessage>> onComplete = completionHandler;
+        Consumer<Throwable> onError = errorHandler;
+
+        delegate.onNext(token -> {
+            if (firstToken.compareAndSet(false, true)) {
+                observer.firstToken();
+            }
+            onToken.accept(token);
+        });
+        delegate.onComplete(response -> {
+            observer.completed(response);
+            onComplete.accept(response);
+        });
+        delegate.onError(error -> {
+            observer.failed(error);
+            if (onError != null) {
+                onError.accept(error);
+            }
+        });
+        observer.aroundStart(delegate::start);
+    }
+}
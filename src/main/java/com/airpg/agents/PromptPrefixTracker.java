@@ -0,0 +1,51 @@
+package com.airpg.agents;
+
+import dev.langchain4j.data.message.ChatMessage;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures how much of each request of one agent repeats the start of its previous request:
+ * the part a provider with prompt prefix caching can serve from its cache.
+ * LangChain4j doesn't pass on the cached-token counts some providers report, so the shared
+ * prefix is estimated on our side, in tokens at the scheduler's chars-per-token ratio.
+ */
+final class PromptPrefixTracker {
+
+    private final AtomicReference<List<ChatMessage>> previous = new AtomicReference<>(List.of());
+
+    /**
+     * Remember this request as the previous one
+     *
+     * @return estimated tokens at its start that are the same as at the start of the previous request
+     */
+    int track(List<ChatMessage> messages) {
+        List<ChatMessage> before = previous.getAndSet(List.copyOf(messages));
+        int chars = 0;
+        int common = Math.min(before.size(), messages.size());
+        for (int i = 0; i < common; i++) {
+            ChatMessage last = before.get(i);
+            ChatMessage next = messages.get(i);
+            if (last.equals(next)) {
+                chars += LlmRequestScheduler.text(next).length();
+                continue;
+            }
+            if (last.type() == next.type()) {
+                chars += commonPrefixLength(LlmRequestScheduler.text(last), LlmRequestScheduler.text(next));
+            }
+            break;
+        }
+        return chars / LlmRequestScheduler.CHARS_PER_TOKEN;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return i;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,79 @@
+package com.airpg.agents;
+
+import com.airpg.recording.SessionRecorder;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * ChatLanguageModel decorator that writes each request and reply to the
+ * {@link SessionRecorder} of the session making the call.
+ */
+class RecordingChatModel implements ChatLanguageModel {
+
+    private final ChatLanguageModel delegate;
+
+    RecordingChatModel(ChatLanguageModel delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return recorded(messages, () -> delegate.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        return recorded(messages, () -> delegate.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        return recorded(messages, () -> delegate.generate(messages, toolSpecification));
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        SessionRecorder recorder = SessionRecorder.current();
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = delegate.chat(chatRequest);
+            long elapsed = System.nanoTime() - start;
+            recorder.exchange(chatRequest.messages(), response.aiMessage().text(), elapsed, elapsed);
+            return response;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            recorder.exchange(chatRequest.messages(), null, elapsed, elapsed);
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    private static Response<AiMessage> recorded(List<ChatMessage> messages, Supplier<Response<AiMessage>> call) {
+        SessionRecorder recorder = SessionRecorder.current();
+        long start = System.nanoTime();
+        try {
+            Response<AiMessage> response = call.get();
+            long elapsed = System.nanoTime() - start;
+            recorder.exchange(messages, response.content().text(), elapsed, elapsed);
+            return response;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            recorder.exchange(messages, null, elapsed, elapsed);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.airpg.agents;
+
+import com.airpg.recording.SessionRecorder;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+
+/**
+ * StreamingChatLanguageModel decorator that writes each request and reply to the
+ * {@link SessionRecorder} of the session making the call, with the time to the first token.
+ * The recorder is captured when the stream starts, since completion arrives on another thread.
+ */
+class RecordingStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final StreamingChatLanguageModel delegate;
+
+    RecordingStreamingChatModel(StreamingChatLanguageModel delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, recorded(messages, handler));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, toolSpecifications, recorded(messages, handler));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+                         StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, toolSpecification, recorded(messages, handler));
+    }
+
+    private static StreamingResponseHandler<AiMessage> recorded(List<ChatMessage> messages,
+                                                                StreamingResponseHandler<AiMessage> handler) {
+        SessionRecorder recorder = SessionRecorder.current();
+        if (!recorder.isRecording()) {
+            return handler;
+        }
+        long start = System.nanoTime();
+        return new StreamingResponseHandler<>() {
+            private volatile long firstToken;
+
+            @Override
+            public void onNext(String token) {
+                if (firstToken == 0) {
+                    firstToken = System.nanoTime() - start;
+                }
+                handler.onNext(token);
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                long elapsed = System.nanoTime() - start;
+                recorder.exchange(messages, response.content().text(), firstToken != 0 ? firstToken : elapsed, elapsed);
+                handler.onComplete(response);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                long elapsed = System.nanoTime() - start;
+                recorder.exchange(messages, null, elapsed, elapsed);
+                handler.onError(error);
+            }
+        };
+    }
+}
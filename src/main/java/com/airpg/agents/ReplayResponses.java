@@ -0,0 +1,64 @@
+package com.airpg.agents;
+
+import com.airpg.recording.SessionRecording;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recorded replies served by the mock provider during a replay.
+ * A request gets the next unserved reply to the identical recorded request; when the
+ * replayed session has drifted (e.g. speculation raced differently), it gets the next
+ * unserved reply recorded for the same system prompt, i.e. the same agent method.
+ */
+final class ReplayResponses {
+
+    private final Map<String, Deque<SessionRecording.Exchange>> byRequest = new HashMap<>();
+    private final Map<String, Deque<SessionRecording.Exchange>> bySystem = new HashMap<>();
+    private final int size;
+
+    private ReplayResponses(List<SessionRecording.Exchange> exchanges) {
+        for (SessionRecording.Exchange exchange : exchanges) {
+            String system = MockResponder.systemText(ChatMessageDeserializer.messagesFromJson(exchange.request()));
+            byRequest.computeIfAbsent(exchange.request(), k -> new ArrayDeque<>()).add(exchange);
+            bySystem.computeIfAbsent(system, k -> new ArrayDeque<>()).add(exchange);
+        }
+        this.size = exchanges.size();
+    }
+
+    static ReplayResponses load(Path file) throws IOException {
+        return new ReplayResponses(SessionRecording.read(file).exchanges());
+    }
+
+    int size() {
+        return size;
+    }
+
+    synchronized Optional<SessionRecording.Exchange> next(List<ChatMessage> messages) {
+        String request = ChatMessageSerializer.messagesToJson(messages);
+        SessionRecording.Exchange exchange = take(byRequest, request);
+        if (exchange != null) {
+            bySystem.get(MockResponder.systemText(messages)).remove(exchange);
+            return Optional.of(exchange);
+        }
+        exchange = take(bySystem, MockResponder.systemText(messages));
+        if (exchange != null) {
+            byRequest.get(exchange.request()).remove(exchange);
+        }
+        return Optional.ofNullable(exchange);
+    }
+
+    private static SessionRecording.Exchange take(Map<String, Deque<SessionRecording.Exchange>> queues, String key) {
+        Deque<SessionRecording.Exchange> queue = queues.get(key);
+        return queue != null ? queue.poll() : null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.airpg.agents;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * ChatLanguageModel decorator that admits every request through the
+ * {@link LlmRequestScheduler} before it reaches the provider.
+ */
+class ScheduledChatModel implements ChatLanguageModel {
+
+    private final ChatLanguageModel delegate;
+    private final LlmRequestScheduler scheduler;
+    private final String provider;
+    private final LlmPriority defaultPriority;
+
+    ScheduledChatModel(ChatLanguageModel delegate, LlmRequestScheduler scheduler,
+                       String provider, LlmPriority defaultPriority) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.provider = provider;
+        this.defaultPriority = defaultPriority;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return scheduled(messages, () -> delegate.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        return scheduled(messages, () -> delegate.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        return scheduled(messages, () -> delegate.generate(messages, toolSpecification));
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        LlmRequestScheduler.Permit permit = scheduler.acquire(
+                provider, scheduler.effectivePriority(defaultPriority), chatRequest.messages());
+        Integer usedTokens = null;
+        try {
+            ChatResponse response = delegate.chat(chatRequest);
+            usedTokens = totalTokens(response.tokenUsage());
+            return response;
+        } finally {
+            permit.release(usedTokens);
+        }
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    private Response<AiMessage> scheduled(List<ChatMessage> messages, Supplier<Response<AiMessage>> call) {
+        LlmRequestScheduler.Permit permit = scheduler.acquire(
+                provider, scheduler.effectivePriority(defaultPriority), messages);
+        Integer usedTokens = null;
+        try {
+            Response<AiMessage> response = call.get();
+            usedTokens = totalTokens(response.tokenUsage());
+            return response;
+        } finally {
+            permit.release(usedTokens);
+        }
+    }
+
+    static Integer totalTokens(TokenUsage usage) {
+        return usage == null ? null : usage.totalTokenCount();
+    }
+}
@@ -0,0 +1,83 @@
+package com.airpg.agents;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * StreamingChatLanguageModel decorator that admits every request through the
+ * {@link LlmRequestScheduler}. The slot is held until the stream completes or fails.
+ */
+class ScheduledStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final StreamingChatLanguageModel delegate;
+    private final LlmRequestScheduler scheduler;
+    private final String provider;
+    private final LlmPriority defaultPriority;
+
+    ScheduledStreamingChatModel(StreamingChatLanguageModel delegate, LlmRequestScheduler scheduler,
+                                String provider, LlmPriority defaultPriority) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.provider = provider;
+        this.defaultPriority = defaultPriority;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        scheduled(messages, handler, wrapped -> delegate.generate(messages, wrapped));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler) {
+        scheduled(messages, handler, wrapped -> delegate.generate(messages, toolSpecifications, wrapped));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+                         StreamingResponseHandler<AiMessage> handler) {
+        scheduled(messages, handler, wrapped -> delegate.generate(messages, toolSpecification, wrapped));
+    }
+
+    private void scheduled(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler,
+                           Consumer<StreamingResponseHandler<AiMessage>> call) {
+        LlmRequestScheduler.Permit permit;
+        try {
+            permit = scheduler.acquire(provider, scheduler.effectivePriority(defaultPriority), messages);
+        } catch (LlmQueueTimeoutException e) {
+            handler.onError(e);
+            return;
+        }
+
+        try {
+            call.accept(new StreamingResponseHandler<>() {
+                @Override
+                public void onNext(String token) {
+                    handler.onNext(token);
+                }
+
+                @Override
+                public void onComplete(Response<AiMessage> response) {
+                    permit.release(ScheduledChatModel.totalTokens(response.tokenUsage()));
+                    handler.onComplete(response);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    permit.release(null);
+                    handler.onError(error);
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.release(null);
+            throw e;
+        }
+    }
+}
@@ -6,10 +6,12 @@ import dev.langchain4j.service.UserMessage;
 /**
  * AI Agent for world narration and story progression.
  * Generates atmospheric descriptions, quest updates, and world events.
+ * All methods share one system message (also used by {@link WorldNarratorStreamingAgent}),
+ * so the narrator's requests keep an identical prefix whichever method is called.
  */
 public interface WorldNarratorAgent {
-    
-    @SystemMessage("""
+
+    String SYSTEM_MESSAGE = """
             You are the World Narrator for a fantasy RPG game.
             
             Your role:
@@ -26,38 +28,26 @@ public interface WorldNarratorAgent {
             - Create tension and atmosphere
             - Leave room for player agency
             
+            When responding to a player's action, consider the current location and situation,
+            the action's consequences, nearby NPCs and their potential reactions, and environmental
+            factors. Keep the response focused and atmospheric (2-4 sentences).
+            
+            When describing a location, include sights, colors and architecture, the mood,
+            notable features or points of interest, and any NPCs or creatures present.
+            Keep the description engaging but concise (3-5 sentences).
+            
             Do NOT:
             - Make decisions for the player
             - Control NPC dialogue (that's handled by NPC agents)
             - Describe combat actions (that's handled by combat narrator)
-            """)
+            """;
+
+    @SystemMessage(SYSTEM_MESSAGE)
     String narrateScene(@UserMessage String sceneContext);
     
-    @SystemMessage("""
-            You are the World Narrator for a fantasy RPG game.
-            Generate a response to the player's action within the game world.
-            
-            Consider:
-            - The current location and situation
-            - The player's action and its consequences
-            - Nearby NPCs and their potential reactions
-            - Environmental factors
-            
-            Keep response focused and atmospheric (2-4 sentences).
-            """)
+    @SystemMessage(SYSTEM_MESSAGE)
     String respondToAction(@UserMessage String context);
     
-    @SystemMessage("""
-            You are the World Narrator for a fantasy RPG game.
-            Describe the given location in vivid detail.
-            
-            Include:
-            - Visual description (sights, colors, architecture)
-            - Atmosphere (mood, feeling)
-            - Notable features or points of interest
-            - Any NPCs or creatures present
-            
-            Keep description engaging but concise (3-5 sentences).
-            """)
+    @SystemMessage(SYSTEM_MESSAGE)
     String describeLocation(@UserMessage String locationContext);
 }
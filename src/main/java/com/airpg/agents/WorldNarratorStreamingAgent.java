@@ -7,58 +7,16 @@ import dev.langchain4j.service.UserMessage;
 /**
  * Streaming AI Agent for world narration and story progression.
  * Generates atmospheric descriptions, quest updates, and world events with streaming support.
+ * Shares the memory and the system message of {@link WorldNarratorAgent}.
  */
 public interface WorldNarratorStreamingAgent {
-    
-    @SystemMessage("""
-            You are the World Narrator for a fantasy RPG game.
-            
-            Your role:
-            - Create vivid, atmospheric descriptions of locations, events, and situations
-            - Maintain a fantasy medieval setting with magic, dragons, and adventure
-            - Keep narration engaging but concise (2-4 sentences typically)
-            - React to player actions and decisions
-            - Introduce plot twists and challenges naturally
-            - Maintain consistency with the world's established lore
-            
-            Style:
-            - Use present tense
-            - Be descriptive but not overly verbose
-            - Create tension and atmosphere
-            - Leave room for player agency
-            
-            Do NOT:
-            - Make decisions for the player
-            - Control NPC dialogue (that's handled by NPC agents)
-            - Describe combat actions (that's handled by combat narrator)
-            """)
+
+    @SystemMessage(WorldNarratorAgent.SYSTEM_MESSAGE)
     TokenStream narrateScene(@UserMessage String sceneContext);
     
-    @SystemMessage("""
-            You are the World Narrator for a fantasy RPG game.
-            Generate a response to the player's action within the game world.
-            
-            Consider:
-            - The current location and situation
-            - The player's action and its consequences
-            - Nearby NPCs and their potential reactions
-            - Environmental factors
-            
-            Keep response focused and atmospheric (2-4 sentences).
-            """)
+    @SystemMessage(WorldNarratorAgent.SYSTEM_MESSAGE)
     TokenStream respondToAction(@UserMessage String context);
     
-    @SystemMessage("""
-            You are the World Narrator for a fantasy RPG game.
-            Describe the given location in vivid detail.
-            
-            Include:
-            - Visual description (sights, colors, architecture)
-            - Atmosphere (mood, feeling)
-            - Notable features or points of interest
-            - Any NPCs or creatures present
-            
-            Keep description engaging but concise (3-5 sentences).
-            """)
+    @SystemMessage(WorldNarratorAgent.SYSTEM_MESSAGE)
     TokenStream describeLocation(@UserMessage String locationContext);
 }
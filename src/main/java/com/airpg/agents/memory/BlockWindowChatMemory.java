@@ -0,0 +1,120 @@
+package com.airpg.agents.memory;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chat memory holding at most a window of messages that, unlike
+ * {@link dev.langchain4j.memory.chat.MessageWindowChatMemory}, evicts a block of old messages at a time.
+ * A full sliding window drops a message every turn, so each request starts with a different
+ * history and a provider's prompt prefix cache only ever matches the system message. Here the
+ * history stays an identical prefix of the following requests until the next block is evicted.
+ * <p>
+ * The system message is kept first and never evicted, and the history always resumes with a
+ * user message. As with the sliding window, the system message counts towards the window.
+ */
+public final class BlockWindowChatMemory implements ChatMemory {
+
+    private final Object id;
+    private final int maxMessages;
+    private final ChatMemoryStore store;
+
+    public BlockWindowChatMemory(Object id, int maxMessages, ChatMemoryStore store) {
+        if (maxMessages < 3) {
+            throw new IllegalArgumentException("maxMessages must be at least 3, was " + maxMessages);
+        }
+        this.id = id;
+        this.maxMessages = maxMessages;
+        this.store = store;
+    }
+
+    /**
+     * A memory of its own, not backed by a shared store (e.g. for forks)
+     */
+    public static BlockWindowChatMemory withMaxMessages(int maxMessages) {
+        return new BlockWindowChatMemory("default", maxMessages,
+                new dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore());
+    }
+
+    @Override
+    public Object id() {
+        return id;
+    }
+
+    @Override
+    public void add(ChatMessage message) {
+        List<ChatMessage> messages = new ArrayList<>(store.getMessages(id));
+        if (!add(messages, message)) {
+            return;
+        }
+        evict(messages, maxMessages);
+        store.updateMessages(id, messages);
+    }
+
+    @Override
+    public List<ChatMessage> messages() {
+        return new ArrayList<>(store.getMessages(id));
+    }
+
+    @Override
+    public void clear() {
+        store.deleteMessages(id);
+    }
+
+    /**
+     * The messages of a memory with this window that are still remembered after one more
+     * exchange (a user message and a reply) was added
+     */
+    public static List<ChatMessage> retainedAfterExchange(List<ChatMessage> messages, int maxMessages) {
+        ChatMessage next = UserMessage.from("next");
+        ChatMessage reply = AiMessage.from("reply");
+        List<ChatMessage> simulated = new ArrayList<>(messages);
+        simulated.add(next);
+        evict(simulated, maxMessages);
+        simulated.add(reply);
+        evict(simulated, maxMessages);
+        // Eviction only removes, so the rest are the remembered originals, in order
+        simulated.removeIf(message -> message == next || message == reply);
+        return simulated;
+    }
+
+    /**
+     * @return false if the message changed nothing (the same system message again)
+     */
+    private static boolean add(List<ChatMessage> messages, ChatMessage message) {
+        if (message instanceof SystemMessage) {
+            if (!messages.isEmpty() && messages.get(0).equals(message)) {
+                return false;
+            }
+            messages.removeIf(SystemMessage.class::isInstance);
+            messages.add(0, message);
+        } else {
+            messages.add(message);
+        }
+        return true;
+    }
+
+    /**
+     * Once over the window, drop the oldest third of it, then any replies left at the start
+     */
+    private static void evict(List<ChatMessage> messages, int maxMessages) {
+        if (messages.size() <= maxMessages) {
+            return;
+        }
+        int first = !messages.isEmpty() && messages.get(0) instanceof SystemMessage ? 1 : 0;
+        int target = maxMessages - Math.max(2, maxMessages / 3);
+        // Never the newest message
+        int remove = Math.min(messages.size() - target, messages.size() - first - 1);
+        while (first + remove < messages.size() - 1 && !(messages.get(first + remove) instanceof UserMessage)) {
+            remove++;
+        }
+        messages.subList(first, first + remove).clear();
+    }
+}
@@ -9,62 +9,127 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * In-memory implementation of ChatMemoryStore for NPC conversations.
- * Stores conversation histories for each NPC/agent.
+ * In-memory store of agent conversations (world narrator, NPCs, companions, ...).
+ * Stores conversation histories for each NPC/agent; each game's {@link Generation}
+ * is the {@link ChatMemoryStore} its agents' chat memories work on.
  * Future: Can be replaced with JOOQ-based persistent storage.
+ *
+ * Memories are kept per session id of the game in play, so sessions running side by side
+ * never see, save or wipe each other's conversations, even when they loaded the same save. Each game's memories are held in a generation
+ * snapshot that is swapped atomically on {@link #clear(String)} and
+ * {@link #restoreMemories(String, Map)}. Agents bind to the snapshot of their
+ * generation, so calls still in flight during a reset keep working against the
+ * old snapshot and never write into the new one.
  */
 @ApplicationScoped
-public class InMemoryChatMemoryStore implements ChatMemoryStore {
-    
-    private final Map<Object, List<ChatMessage>> messagesByMemoryId = new ConcurrentHashMap<>();
-    
-    @Override
-    public List<ChatMessage> getMessages(Object memoryId) {
-        return new ArrayList<>(messagesByMemoryId.getOrDefault(memoryId, new ArrayList<>()));
-    }
-    
-    @Override
-    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
-        messagesByMemoryId.put(memoryId, new ArrayList<>(messages));
-    }
-    
-    @Override
-    public void deleteMessages(Object memoryId) {
-        messagesByMemoryId.remove(memoryId);
+public class InMemoryChatMemoryStore {
+
+    private final Map<String, Generation> games = new ConcurrentHashMap<>();
+
+    /**
+     * Clear a game's conversation memories
+     *
+     * @return the new generation number
+     */
+    public long clear(String sessionId) {
+        return replace(sessionId, new ConcurrentHashMap<>());
     }
-    
+
     /**
-     * Clear all conversation memories (e.g., when starting a new game)
+     * Drop a game's memories altogether (e.g., when its session moves on to another game)
      */
-    public void clearAll() {
-        messagesByMemoryId.clear();
+    public void remove(String sessionId) {
+        games.remove(sessionId);
     }
-    
+
     /**
-     * Get number of stored conversations
+     * Get number of stored conversations, over all games
      */
     public int getConversationCount() {
-        return messagesByMemoryId.size();
+        return games.values().stream().mapToInt(generation -> generation.messagesByMemoryId().size()).sum();
     }
 
     /**
-     * Get all memories as a map for persistence
+     * Get a game's memories as a map for persistence
      */
-    public Map<Object, List<ChatMessage>> getAllMemories() {
+    public Map<Object, List<ChatMessage>> getMemories(String sessionId) {
         Map<Object, List<ChatMessage>> copy = new ConcurrentHashMap<>();
-        for (Map.Entry<Object, List<ChatMessage>> entry : messagesByMemoryId.entrySet()) {
-            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        Generation generation = games.get(sessionId);
+        if (generation != null) {
+            for (Map.Entry<Object, List<ChatMessage>> entry : generation.messagesByMemoryId().entrySet()) {
+                copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
         }
         return copy;
     }
 
     /**
-     * Restore memories from a map (e.g., loaded from database)
+     * Restore a game's memories from a map (e.g., loaded from database)
+     *
+     * @return the new generation number
      */
-    public void restoreMemories(Map<Object, List<ChatMessage>> memories) {
-        messagesByMemoryId.clear();
+    public long restoreMemories(String sessionId, Map<Object, List<ChatMessage>> memories) {
+        Map<Object, List<ChatMessage>> restored = new ConcurrentHashMap<>();
         for (Map.Entry<Object, List<ChatMessage>> entry : memories.entrySet()) {
-            messagesByMemoryId.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            restored.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return replace(sessionId, restored);
+    }
+
+    /**
+     * Get a game's current generation, starting an empty one for a new game.
+     * Agents should bind their chat memory to this snapshot rather than to the store itself.
+     */
+    public Generation currentGeneration(String sessionId) {
+        return games.computeIfAbsent(sessionId, id -> new Generation(id, 0, new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Whether a generation is still its game's current one
+     */
+    public boolean isCurrent(Generation generation) {
+        return games.get(generation.sessionId()) == generation;
+    }
+
+    private long replace(String sessionId, Map<Object, List<ChatMessage>> messagesByMemoryId) {
+        return games.compute(sessionId, (id, current) ->
+                new Generation(id, current == null ? 0 : current.number() + 1, messagesByMemoryId)).number();
+    }
+
+    /**
+     * Snapshot of all memories of one game belonging to one generation.
+     */
+    public record Generation(String sessionId, long number, Map<Object, List<ChatMessage>> messagesByMemoryId)
+            implements ChatMemoryStore {
+
+        @Override
+        public List<ChatMessage> getMessages(Object memoryId) {
+            return new ArrayList<>(messagesByMemoryId.getOrDefault(memoryId, new ArrayList<>()));
+        }
+
+        @Override
+        public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+            messagesByMemoryId.put(memoryId, new ArrayList<>(messages));
+        }
+
+        @Override
+        public void deleteMessages(Object memoryId) {
+            messagesByMemoryId.remove(memoryId);
+        }
+
+        /**
+         * Atomically replace the messages of a memory, but only if it still
+         * holds exactly the expected messages.
+         *
+         * @return true if the messages were replaced
+         */
+        public boolean replaceMessages(Object memoryId, List<ChatMessage> expected, List<ChatMessage> messages) {
+            List<ChatMessage> replacement = new ArrayList<>(messages);
+            if (expected.isEmpty()) {
+                List<ChatMessage> existing = messagesByMemoryId.putIfAbsent(memoryId, replacement);
+                return existing == null || (existing.isEmpty() && messagesByMemoryId.replace(memoryId, existing, replacement));
+            }
+            return messagesByMemoryId.replace(memoryId, new ArrayList<>(expected), replacement);
         }
     }
 }
@@ -0,0 +1,149 @@
+package com.airpg.combat;
+
+import com.airpg.agents.CompanionDecision;
+import com.airpg.domain.CombatAction;
+import com.airpg.domain.CombatEncounter;
+import com.airpg.domain.GameCharacter;
+import com.airpg.domain.TeamMember;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Combat rules: dice, hits, damage, healing and defending.
+ * No narration or agent calls, so the same rules serve the game and the headless simulator.
+ * Not thread-safe unless the random generator is.
+ */
+public final class CombatMechanics {
+
+    public static final int MAGIC_MANA_COST = 10;
+    public static final int HEAL_MANA_COST = 15;
+    public static final int DEFEND_ARMOR_BONUS = 2;
+
+    private final RandomGenerator random;
+
+    public CombatMechanics(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Magic attack if the attacker is smarter than strong and has the mana, melee otherwise
+     */
+    public CombatAction attack(GameCharacter attacker, GameCharacter target) {
+        boolean isMagicAttack = attacker.getIntelligence() > attacker.getStrength();
+        if (isMagicAttack && attacker.getCurrentMana() >= MAGIC_MANA_COST) {
+            return magicAttack(attacker, target);
+        }
+        return meleeAttack(attacker, target);
+    }
+
+    /**
+     * d20 + strength modifier vs defense; damage is strength modifier + weapon bonus + d6
+     */
+    public CombatAction meleeAttack(GameCharacter attacker, GameCharacter target) {
+        int attackRoll = roll(20);
+        int attackTotal = attackRoll + attacker.getStrengthModifier();
+        boolean isHit = attackTotal >= target.getDefense();
+        int damage = 0;
+
+        if (isHit) {
+            damage = Math.max(1, attacker.getStrengthModifier() + attacker.getWeaponBonus() + roll(6));
+            target.takeDamage(damage);
+        }
+        return CombatAction.meleeAttack(attacker, target, attackRoll, damage, isHit);
+    }
+
+    /**
+     * Always hits for intelligence modifier + d8; halved if the target resists (d20 + intelligence modifier > 15)
+     */
+    public CombatAction magicAttack(GameCharacter attacker, GameCharacter target) {
+        attacker.useMana(MAGIC_MANA_COST);
+        int damage = Math.max(1, attacker.getIntelligenceModifier() + roll(8));
+
+        if (roll(20) + target.getIntelligenceModifier() > 15) {
+            damage = damage / 2;
+        }
+        target.takeDamage(damage);
+        return CombatAction.magicAttack(attacker, target, damage, true);
+    }
+
+    /**
+     * Heal for intelligence modifier + d8, or null if the healer lacks the mana
+     */
+    public CombatAction heal(GameCharacter healer, GameCharacter target) {
+        if (!healer.useMana(HEAL_MANA_COST)) {
+            return null;
+        }
+        int healing = healer.getIntelligenceModifier() + roll(8);
+        target.heal(healing);
+        return CombatAction.heal(healer, target, healing);
+    }
+
+    /**
+     * Start a character's turn, lowering a guard raised by defending
+     */
+    public void startTurn(GameCharacter character) {
+        character.setDefendBonus(0);
+    }
+
+    /**
+     * Raise defense until the character's next turn (defending again doesn't stack)
+     */
+    public CombatAction defend(GameCharacter character) {
+        character.setDefendBonus(DEFEND_ARMOR_BONUS);
+        return CombatAction.builder()
+                .attacker(character)
+                .target(character)
+                .actionType(CombatAction.ActionType.DEFEND)
+                .build();
+    }
+
+    /**
+     * Carry out a companion decision. Decisions are expected to be checked with
+     * {@link CompanionPolicy#rejectReason}; a heal without mana or an attack
+     * with no enemy left to hit turns into defending.
+     */
+    public CombatAction perform(TeamMember companion, CompanionDecision decision, CombatEncounter combat) {
+        return switch (decision.action()) {
+            case HEAL -> {
+                GameCharacter target = CompanionPolicy.healTarget(decision.target(), companion, combat);
+                CombatAction heal = target != null ? heal(companion, target) : null;
+                yield heal != null ? heal : defend(companion);
+            }
+            case DEFEND -> defend(companion);
+            case ATTACK -> {
+                GameCharacter target = CompanionPolicy.findLiving(decision.target(), combat.getEnemies());
+                if (target == null) {
+                    target = randomLiving(combat.getEnemies());
+                }
+                yield target != null ? attack(companion, target) : defend(companion);
+            }
+        };
+    }
+
+    /**
+     * Random living character, or null if none is left
+     */
+    public GameCharacter randomLiving(List<? extends GameCharacter> characters) {
+        List<? extends GameCharacter> alive = characters.stream().filter(GameCharacter::isAlive).toList();
+        return alive.isEmpty() ? null : alive.get(random.nextInt(alive.size()));
+    }
+
+    /**
+     * Living character with the most health, or null if none is left
+     */
+    public static GameCharacter strongest(List<? extends GameCharacter> characters) {
+        return characters.stream()
+                .filter(GameCharacter::isAlive)
+                .max(Comparator.comparingInt(GameCharacter::getCurrentHealth))
+                .orElse(null);
+    }
+
+    /**
+     * Roll a die with the given number of sides
+     */
+    public int roll(int sides) {
+        return random.nextInt(sides) + 1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.airpg.combat;
+
+import com.airpg.domain.Dice;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * Monte Carlo combat without narration or agent calls.
+ * Encounters follow the same turn order and targeting as CombatService: the party
+ * acts first, the hero attacks the strongest enemy, companions use their class
+ * tactic and enemies attack a random party member.
+ * Fights run on a {@link CombatState} reset from the matchup's starting state, so
+ * the loop doesn't allocate per encounter or round.
+ * Batches run on the fork/join pool; the dice of each batch are split off the
+ * seed's dice by position, so results are the same for any number of threads.
+ */
+public final class CombatSimulator {
+
+    private static final int BATCH_SIZE = 4096;
+
+    private final double healThreshold;
+    private final int maxTurns;
+
+    public CombatSimulator(double healThreshold, int maxTurns) {
+        this.healThreshold = healThreshold;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Simulate encounters of a matchup in parallel
+     */
+    public MatchupStats run(Matchup matchup, int encounters, long seed) {
+        return ForkJoinPool.commonPool().invoke(new Batch(matchup, 0, encounters, new Dice(seed)));
+    }
+
+    /**
+     * Fight one encounter to the end or the turn limit and add it to the stats
+     */
+    void simulate(CombatState combat, CombatState start, RandomGenerator random, MatchupStats stats) {
+        combat.reset(start);
+        int turn = 0;
+        while (turn < maxTurns && !combat.areAllEnemiesDefeated() && !combat.isPartyDefeated()) {
+            turn++;
+            combat.resolveRound(random, healThreshold, stats);
+        }
+        stats.finish(combat, turn);
+    }
+
+    /**
+     * A range of encounters, split in halves until small enough to run
+     */
+    private final class Batch extends RecursiveTask<MatchupStats> {
+
+        private final Matchup matchup;
+        private final int from;
+        private final int to;
+        private final Dice random;
+
+        private Batch(Matchup matchup, int from, int to, Dice random) {
+            this.matchup = matchup;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected MatchupStats compute() {
+            if (to - from <= BATCH_SIZE) {
+                CombatState start = CombatState.of(matchup.createEncounter());
+                CombatState combat = start.copy();
+                MatchupStats stats = new MatchupStats();
+                for (int i = from; i < to; i++) {
+                    simulate(combat, start, random, stats);
+                }
+                return stats;
+            }
+            int middle = (from + to) >>> 1;
+            Batch upper = new Batch(matchup, middle, to, random.split());
+            upper.fork();
+            MatchupStats lower = new Batch(matchup, from, middle, random).compute();
+            return lower.merge(upper.join());
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.airpg.combat;
+
+import com.airpg.domain.CombatEncounter;
+import com.airpg.domain.GameCharacter;
+import com.airpg.domain.NPC;
+import com.airpg.domain.TeamMember;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Combat encounter as primitive columns, one slot per combatant: the party first, then the enemies.
+ * Rounds are resolved in place without allocating, for the simulator's hot loop.
+ * The rules, turn order and targeting are those of {@link CombatMechanics}, {@link CompanionPolicy}
+ * and {@link CombatSimulator}, and dice are rolled in the same order, so with the same random
+ * stream a fight ends exactly as it would on domain objects. Changes to the rules go in both places.
+ */
+public final class CombatState {
+
+    /** Role of a party member that isn't a companion: attacks the strongest enemy */
+    static final int ROLE_HERO = -1;
+    /** Role of an enemy: attacks a random party member */
+    static final int ROLE_ENEMY = -2;
+
+    private static final int MAGIC_RESIST_DC = 15;
+    private static final double LAST_STAND_THRESHOLD = 0.25;
+    private static final double HEALER_MARGIN = 0.15;
+
+    private final int partySize;
+    private final int size;
+
+    // Fixed for the fight
+    private final int[] role;
+    private final int[] maxHealth;
+    private final int[] strength;
+    private final int[] intelligence;
+    private final int[] strengthModifier;
+    private final int[] intelligenceModifier;
+    private final int[] agilityModifier;
+    private final int[] weaponBonus;
+    private final int[] armorBonus;
+
+    // Changed by actions
+    private final int[] health;
+    private final int[] mana;
+    private final int[] defendBonus;
+    private int livingParty;
+    private int livingEnemies;
+
+    private CombatState(int partySize, int size) {
+        this.partySize = partySize;
+        this.size = size;
+        role = new int[size];
+        maxHealth = new int[size];
+        strength = new int[size];
+        intelligence = new int[size];
+        strengthModifier = new int[size];
+        intelligenceModifier = new int[size];
+        agilityModifier = new int[size];
+        weaponBonus = new int[size];
+        health = new int[size];
+        mana = new int[size];
+        armorBonus = new int[size];
+        defendBonus = new int[size];
+    }
+
+    /**
+     * Copy a domain encounter into columns
+     */
+    public static CombatState of(CombatEncounter combat) {
+        List<GameCharacter> party = combat.getPlayerParty();
+        List<NPC> enemies = combat.getEnemies();
+        CombatState state = new CombatState(party.size(), party.size() + enemies.size());
+        for (int i = 0; i < party.size(); i++) {
+            GameCharacter member = party.get(i);
+            state.load(i, member, member instanceof TeamMember companion
+                    ? CompanionPolicy.Tactic.forClass(companion.getCharacterClass()).ordinal()
+                    : ROLE_HERO);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            state.load(party.size() + i, enemies.get(i), ROLE_ENEMY);
+        }
+        state.countLiving();
+        return state;
+    }
+
+    /**
+     * Write health, mana and defend bonus back to the encounter's characters (same order as {@link #of})
+     */
+    public void applyTo(CombatEncounter combat) {
+        List<GameCharacter> party = combat.getPlayerParty();
+        List<NPC> enemies = combat.getEnemies();
+        if (party.size() != partySize || party.size() + enemies.size() != size) {
+            throw new IllegalArgumentException("Encounter doesn't match this state");
+        }
+        for (int i = 0; i < size; i++) {
+            GameCharacter character = i < partySize ? party.get(i) : enemies.get(i - partySize);
+            character.setCurrentHealth(health[i]);
+            character.setCurrentMana(mana[i]);
+            character.setDefendBonus(defendBonus[i]);
+        }
+    }
+
+    /**
+     * Independent copy, e.g. as the starting point to {@link #reset} from
+     */
+    public CombatState copy() {
+        CombatState copy = new CombatState(partySize, size);
+        System.arraycopy(role, 0, copy.role, 0, size);
+        System.arraycopy(maxHealth, 0, copy.maxHealth, 0, size);
+        System.arraycopy(strength, 0, copy.strength, 0, size);
+        System.arraycopy(intelligence, 0, copy.intelligence, 0, size);
+        System.arraycopy(strengthModifier, 0, copy.strengthModifier, 0, size);
+        System.arraycopy(intelligenceModifier, 0, copy.intelligenceModifier, 0, size);
+        System.arraycopy(agilityModifier, 0, copy.agilityModifier, 0, size);
+        System.arraycopy(weaponBonus, 0, copy.weaponBonus, 0, size);
+        System.arraycopy(armorBonus, 0, copy.armorBonus, 0, size);
+        copy.reset(this);
+        return copy;
+    }
+
+    /**
+     * Restore health, mana and defend bonus from a state of the same encounter, without allocating
+     */
+    public void reset(CombatState start) {
+        System.arraycopy(start.health, 0, health, 0, size);
+        System.arraycopy(start.mana, 0, mana, 0, size);
+        System.arraycopy(start.defendBonus, 0, defendBonus, 0, size);
+        livingParty = start.livingParty;
+        livingEnemies = start.livingEnemies;
+    }
+
+    public boolean isPartyDefeated() {
+        return livingParty == 0;
+    }
+
+    public boolean areAllEnemiesDefeated() {
+        return livingEnemies == 0;
+    }
+
+    /**
+     * Fraction of the party's total health left
+     */
+    public double partyHealthLeft() {
+        int current = 0;
+        int max = 0;
+        for (int i = 0; i < partySize; i++) {
+            current += health[i];
+            max += maxHealth[i];
+        }
+        return (double) current / Math.max(1, max);
+    }
+
+    /**
+     * One round: every living party member acts, then every living enemy; a side stops once the other is down.
+     * Attacks are added to the stats if given.
+     */
+    public void resolveRound(RandomGenerator random, double healThreshold, MatchupStats stats) {
+        for (int i = 0; i < partySize; i++) {
+            if (health[i] <= 0) continue;
+            if (livingEnemies == 0) break;
+            defendBonus[i] = 0;
+            actParty(i, random, healThreshold, stats);
+        }
+        for (int i = partySize; i < size; i++) {
+            if (health[i] <= 0) continue;
+            if (livingParty == 0) break;
+            defendBonus[i] = 0;
+            attack(i, randomLiving(0, partySize, livingParty, random), random, stats);
+        }
+    }
+
+    private void actParty(int actor, RandomGenerator random, double healThreshold, MatchupStats stats) {
+        if (role[actor] == ROLE_HERO) {
+            attack(actor, strongestEnemy(), random, stats);
+            return;
+        }
+        int wounded;
+        switch (CompanionPolicy.Tactic.values()[role[actor]]) {
+            case HEALER -> {
+                wounded = woundedAlly(actor, healThreshold + HEALER_MARGIN);
+                if (wounded >= 0) heal(actor, wounded, random);
+                else attack(actor, weakestEnemy(), random, stats);
+            }
+            case WARRIOR -> {
+                if (healthFraction(actor) < LAST_STAND_THRESHOLD) defendBonus[actor] = CombatMechanics.DEFEND_ARMOR_BONUS;
+                else attack(actor, strongestEnemy(), random, stats);
+            }
+            case MAGE -> {
+                wounded = woundedAlly(actor, LAST_STAND_THRESHOLD);
+                if (wounded >= 0) heal(actor, wounded, random);
+                else attack(actor, weakestEnemy(), random, stats);
+            }
+            case ROGUE -> attack(actor, mostWoundedEnemy(), random, stats);
+            case BALANCED -> {
+                wounded = woundedAlly(actor, healThreshold);
+                if (wounded >= 0) heal(actor, wounded, random);
+                else attack(actor, weakestEnemy(), random, stats);
+            }
+        }
+    }
+
+    private void attack(int attacker, int target, RandomGenerator random, MatchupStats stats) {
+        boolean partySide = attacker < partySize;
+        if (intelligence[attacker] > strength[attacker] && mana[attacker] >= CombatMechanics.MAGIC_MANA_COST) {
+            mana[attacker] -= CombatMechanics.MAGIC_MANA_COST;
+            int damage = Math.max(1, intelligenceModifier[attacker] + roll(random, 8));
+            if (roll(random, 20) + intelligenceModifier[target] > MAGIC_RESIST_DC) {
+                damage = damage / 2;
+            }
+            takeDamage(target, damage);
+            if (stats != null) stats.recordAttack(partySide, true, damage);
+            return;
+        }
+        int attackTotal = roll(random, 20) + strengthModifier[attacker];
+        boolean hit = attackTotal >= 10 + agilityModifier[target] + armorBonus[target] + defendBonus[target];
+        int damage = 0;
+        if (hit) {
+            damage = Math.max(1, strengthModifier[attacker] + weaponBonus[attacker] + roll(random, 6));
+            takeDamage(target, damage);
+        }
+        if (stats != null) stats.recordAttack(partySide, hit, damage);
+    }
+
+    private void heal(int healer, int target, RandomGenerator random) {
+        mana[healer] -= CombatMechanics.HEAL_MANA_COST;
+        int healing = intelligenceModifier[healer] + roll(random, 8);
+        health[target] = Math.min(maxHealth[target], health[target] + healing);
+    }
+
+    private void takeDamage(int target, int damage) {
+        if (health[target] <= 0) {
+            return;
+        }
+        health[target] = Math.max(0, health[target] - damage);
+        if (health[target] == 0) {
+            if (target < partySize) livingParty--;
+            else livingEnemies--;
+        }
+    }
+
+    /**
+     * Most wounded living ally below the threshold, or -1 (also if the healer lacks the mana)
+     */
+    private int woundedAlly(int healer, double threshold) {
+        if (mana[healer] < CombatMechanics.HEAL_MANA_COST) {
+            return -1;
+        }
+        int best = -1;
+        double bestFraction = threshold;
+        for (int i = 0; i < partySize; i++) {
+            if (health[i] > 0 && healthFraction(i) < bestFraction) {
+                best = i;
+                bestFraction = healthFraction(i);
+            }
+        }
+        return best;
+    }
+
+    private int strongestEnemy() {
+        int best = -1;
+        for (int i = partySize; i < size; i++) {
+            if (health[i] > 0 && (best < 0 || health[i] > health[best])) best = i;
+        }
+        return best;
+    }
+
+    private int weakestEnemy() {
+        int best = -1;
+        for (int i = partySize; i < size; i++) {
+            if (health[i] > 0 && (best < 0 || health[i] < health[best])) best = i;
+        }
+        return best;
+    }
+
+    private int mostWoundedEnemy() {
+        int best = -1;
+        for (int i = partySize; i < size; i++) {
+            if (health[i] > 0 && (best < 0 || healthFraction(i) < healthFraction(best))) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * The n-th living slot in [from, to), n drawn uniformly like {@link CombatMechanics#randomLiving}
+     */
+    private int randomLiving(int from, int to, int living, RandomGenerator random) {
+        int remaining = random.nextInt(living);
+        for (int i = from; i < to; i++) {
+            if (health[i] > 0 && remaining-- == 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Living count out of sync");
+    }
+
+    private double healthFraction(int slot) {
+        return (double) health[slot] / Math.max(1, maxHealth[slot]);
+    }
+
+    private static int roll(RandomGenerator random, int sides) {
+        return random.nextInt(sides) + 1;
+    }
+
+    private void load(int slot, GameCharacter character, int slotRole) {
+        role[slot] = slotRole;
+        maxHealth[slot] = character.getMaxHealth();
+        strength[slot] = character.getStrength();
+        intelligence[slot] = character.getIntelligence();
+        strengthModifier[slot] = character.getStrengthModifier();
+        intelligenceModifier[slot] = character.getIntelligenceModifier();
+        agilityModifier[slot] = character.getAgilityModifier();
+        weaponBonus[slot] = character.getWeaponBonus();
+        health[slot] = character.getCurrentHealth();
+        mana[slot] = character.getCurrentMana();
+        armorBonus[slot] = character.getArmorBonus();
+        defendBonus[slot] = character.getDefendBonus();
+    }
+
+    private void countLiving() {
+        livingParty = 0;
+        livingEnemies = 0;
+        for (int i = 0; i < size; i++) {
+            if (health[i] > 0) {
+                if (i < partySize) livingParty++;
+                else livingEnemies++;
+            }
+        }
+    }
+}
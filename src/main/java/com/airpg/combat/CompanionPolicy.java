@@ -0,0 +1,153 @@
+package com.airpg.combat;
+
+import com.airpg.agents.CompanionDecision;
+import com.airpg.agents.CompanionDecision.Action;
+import com.airpg.domain.CombatEncounter;
+import com.airpg.domain.GameCharacter;
+import com.airpg.domain.TeamMember;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local rules for companion combat decisions.
+ * Decides instantly from the companion's class (see {@link Tactic}), checks decisions
+ * from the companion agent against the encounter, and stands in when the agent call
+ * fails or its decision can't be carried out, so no turn is re-requested.
+ */
+public final class CompanionPolicy {
+
+    /** Healers step in this much earlier than the configured heal threshold */
+    private static final double HEALER_MARGIN = 0.15;
+    private static final double LAST_STAND_THRESHOLD = 0.25;
+
+    /**
+     * How a class fights
+     */
+    public enum Tactic {
+        /** Keeps the party alive: heals early, otherwise finishes off the weakest enemy */
+        HEALER,
+        /** Engages the toughest enemy, braces when close to falling */
+        WARRIOR,
+        /** Spends mana on the enemy closest to death, heals only in an emergency */
+        MAGE,
+        /** Picks off the most wounded enemy by fraction of health */
+        ROGUE,
+        /** Heals the badly wounded if able, otherwise attacks the weakest enemy */
+        BALANCED;
+
+        public static Tactic forClass(String characterClass) {
+            if (characterClass == null) {
+                return BALANCED;
+            }
+            return switch (characterClass.toLowerCase()) {
+                case "healer", "cleric" -> HEALER;
+                case "warrior", "fighter" -> WARRIOR;
+                case "mage", "wizard" -> MAGE;
+                case "rogue", "archer" -> ROGUE;
+                default -> BALANCED;
+            };
+        }
+    }
+
+    private CompanionPolicy() {
+    }
+
+    /**
+     * Decide with the companion's class tactic
+     */
+    public static CompanionDecision decide(TeamMember companion, CombatEncounter combat, double healThreshold) {
+        List<? extends GameCharacter> enemies = living(combat.getEnemies());
+        if (enemies.isEmpty()) {
+            return new CompanionDecision(Action.DEFEND, companion.getName(), "No enemy in reach");
+        }
+        return switch (Tactic.forClass(companion.getCharacterClass())) {
+            case HEALER -> healIfWounded(companion, combat, healThreshold + HEALER_MARGIN)
+                    .orElseGet(() -> attack(weakest(enemies), "Finish off the weakest foe"));
+            case WARRIOR -> healthFraction(companion) < LAST_STAND_THRESHOLD
+                    ? new CompanionDecision(Action.DEFEND, companion.getName(), "Brace and hold the line")
+                    : attack(strongest(enemies), "Take on the biggest threat");
+            case MAGE -> healIfWounded(companion, combat, LAST_STAND_THRESHOLD)
+                    .orElseGet(() -> attack(weakest(enemies), "One more spell should do it"));
+            case ROGUE -> attack(mostWounded(enemies), "Strike where it already hurts");
+            case BALANCED -> healIfWounded(companion, combat, healThreshold)
+                    .orElseGet(() -> attack(weakest(enemies), "Finish off the weakest foe"));
+        };
+    }
+
+    /**
+     * Why the decision can't be carried out, or null if it can
+     */
+    public static String rejectReason(CompanionDecision decision, TeamMember companion, CombatEncounter combat) {
+        if (decision == null || decision.action() == null) {
+            return "no action";
+        }
+        return switch (decision.action()) {
+            case ATTACK -> findLiving(decision.target(), combat.getEnemies()) == null
+                    ? "no living enemy named '" + decision.target() + "'" : null;
+            case HEAL -> healTarget(decision.target(), companion, combat) == null
+                    ? "no living ally named '" + decision.target() + "'"
+                    : companion.getCurrentMana() < CombatMechanics.HEAL_MANA_COST ? "not enough mana to heal" : null;
+            case DEFEND -> null;
+        };
+    }
+
+    /**
+     * Ally named by a HEAL decision; a missing target or "self" means the companion
+     */
+    public static GameCharacter healTarget(String name, TeamMember companion, CombatEncounter combat) {
+        if (name == null || name.isBlank() || name.trim().equalsIgnoreCase("self")) {
+            return companion.isAlive() ? companion : null;
+        }
+        return findLiving(name, combat.getPlayerParty());
+    }
+
+    public static GameCharacter findLiving(String name, List<? extends GameCharacter> characters) {
+        if (name == null) {
+            return null;
+        }
+        return living(characters).stream()
+                .filter(character -> character.getName().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Heal the most wounded ally below the threshold, if there is mana for it
+     */
+    private static Optional<CompanionDecision> healIfWounded(TeamMember companion, CombatEncounter combat,
+                                                             double threshold) {
+        if (companion.getCurrentMana() < CombatMechanics.HEAL_MANA_COST) {
+            return Optional.empty();
+        }
+        return living(combat.getPlayerParty()).stream()
+                .filter(ally -> healthFraction(ally) < threshold)
+                .min(Comparator.comparingDouble(CompanionPolicy::healthFraction))
+                .map(ally -> new CompanionDecision(Action.HEAL, ally.getName(), "They are badly hurt"));
+    }
+
+    private static CompanionDecision attack(GameCharacter enemy, String reason) {
+        return new CompanionDecision(Action.ATTACK, enemy.getName(), reason);
+    }
+
+    private static GameCharacter weakest(List<? extends GameCharacter> enemies) {
+        return enemies.stream().min(Comparator.comparingInt(GameCharacter::getCurrentHealth)).orElseThrow();
+    }
+
+    private static GameCharacter strongest(List<? extends GameCharacter> enemies) {
+        return enemies.stream().max(Comparator.comparingInt(GameCharacter::getCurrentHealth)).orElseThrow();
+    }
+
+    private static GameCharacter mostWounded(List<? extends GameCharacter> enemies) {
+        return enemies.stream().min(Comparator.comparingDouble(CompanionPolicy::healthFraction)).orElseThrow();
+    }
+
+    private static List<? extends GameCharacter> living(List<? extends GameCharacter> characters) {
+        return characters.stream().filter(GameCharacter::isAlive).toList();
+    }
+
+    private static double healthFraction(GameCharacter character) {
+        return (double) character.getCurrentHealth() / Math.max(1, character.getMaxHealth());
+    }
+}
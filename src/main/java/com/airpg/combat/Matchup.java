@@ -0,0 +1,57 @@
+package com.airpg.combat;
+
+import com.airpg.domain.CombatEncounter;
+import com.airpg.domain.GameCharacter;
+import com.airpg.domain.Hero;
+import com.airpg.domain.NPC;
+import com.airpg.domain.TeamMember;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A party composition against an enemy group, built from the regular character factories
+ *
+ * @param heroClass        hero class for {@link Hero#createDefault}
+ * @param companionClasses companion classes for {@link TeamMember#create}
+ * @param enemyRole        enemy role for {@link NPC#create}
+ * @param enemies          number of enemies
+ */
+public record Matchup(String heroClass, List<String> companionClasses, String enemyRole, int enemies) {
+
+    public Matchup {
+        companionClasses = List.copyOf(companionClasses);
+        if (enemies < 1) {
+            throw new IllegalArgumentException("A matchup needs at least one enemy");
+        }
+    }
+
+    public String label() {
+        String party = companionClasses.isEmpty() ? heroClass : heroClass + "+" + String.join("+", companionClasses);
+        return party + " vs " + enemies + "x " + enemyRole;
+    }
+
+    /**
+     * Fresh characters at full health; names are unique so decisions can target them
+     */
+    public CombatEncounter createEncounter() {
+        List<GameCharacter> party = new ArrayList<>(1 + companionClasses.size());
+        party.add(Hero.createDefault("Hero", heroClass));
+        for (int i = 0; i < companionClasses.size(); i++) {
+            String characterClass = companionClasses.get(i);
+            party.add(TeamMember.create("companion-" + i, characterClass + " " + (i + 1), characterClass, "", ""));
+        }
+        List<NPC> enemyGroup = new ArrayList<>(enemies);
+        for (int i = 0; i < enemies; i++) {
+            enemyGroup.add(NPC.create("enemy-" + i, enemyRole + " " + (i + 1), enemyRole, "arena", "", "", true));
+        }
+        return CombatEncounter.builder()
+                .id(label())
+                .playerParty(party)
+                .enemies(enemyGroup)
+                .status(CombatEncounter.CombatStatus.IN_PROGRESS)
+                .currentTurn(1)
+                .location("arena")
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.airpg.combat;
+
+/**
+ * Outcome counters and per-hit damage histograms of simulated encounters.
+ * Each simulation batch fills its own instance; batches are combined with {@link #merge}.
+ */
+public final class MatchupStats {
+
+    /** Damage per hit above this is counted in the last histogram bucket */
+    private static final int MAX_DAMAGE = 63;
+
+    private long encounters;
+    private long victories;
+    private long defeats;
+    private long turns;
+    private double healthLeft;
+    private final Side party = new Side();
+    private final Side enemies = new Side();
+
+    /**
+     * Attacks and damage dealt by one side
+     */
+    public static final class Side {
+
+        private long attacks;
+        private long hits;
+        private long damage;
+        private final long[] damageHistogram = new long[MAX_DAMAGE + 1];
+
+        private void record(boolean hit, int dealt) {
+            attacks++;
+            if (hit) {
+                hits++;
+                damage += dealt;
+                damageHistogram[Math.min(dealt, MAX_DAMAGE)]++;
+            }
+        }
+
+        private void merge(Side other) {
+            attacks += other.attacks;
+            hits += other.hits;
+            damage += other.damage;
+            for (int i = 0; i <= MAX_DAMAGE; i++) {
+                damageHistogram[i] += other.damageHistogram[i];
+            }
+        }
+
+        public double hitRate() {
+            return attacks == 0 ? 0 : (double) hits / attacks;
+        }
+
+        public double meanDamage() {
+            return hits == 0 ? 0 : (double) damage / hits;
+        }
+
+        /**
+         * Damage per hit at the given percentile (0..1)
+         */
+        public int damagePercentile(double percentile) {
+            long rank = (long) Math.ceil(percentile * hits);
+            long seen = 0;
+            for (int i = 0; i <= MAX_DAMAGE; i++) {
+                seen += damageHistogram[i];
+                if (seen >= rank && seen > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
+
+    void recordAttack(boolean partySide, boolean hit, int damage) {
+        (partySide ? party : enemies).record(hit, damage);
+    }
+
+    void finish(CombatState combat, int turnsTaken) {
+        encounters++;
+        turns += turnsTaken;
+        if (combat.areAllEnemiesDefeated()) {
+            victories++;
+            healthLeft += combat.partyHealthLeft();
+        } else if (combat.isPartyDefeated()) {
+            defeats++;
+        }
+    }
+
+    MatchupStats merge(MatchupStats other) {
+        encounters += other.encounters;
+        victories += other.victories;
+        defeats += other.defeats;
+        turns += other.turns;
+        healthLeft += other.healthLeft;
+        party.merge(other.party);
+        enemies.merge(other.enemies);
+        return this;
+    }
+
+    public long encounters() {
+        return encounters;
+    }
+
+    public double winRate() {
+        return encounters == 0 ? 0 : (double) victories / encounters;
+    }
+
+    public double lossRate() {
+        return encounters == 0 ? 0 : (double) defeats / encounters;
+    }
+
+    /**
+     * Share of encounters still undecided after the turn limit
+     */
+    public double stalemateRate() {
+        return encounters == 0 ? 0 : (double) (encounters - victories - defeats) / encounters;
+    }
+
+    public double meanTurns() {
+        return encounters == 0 ? 0 : (double) turns / encounters;
+    }
+
+    /**
+     * Mean fraction of the party's total health left after a victory
+     */
+    public double meanHealthLeft() {
+        return victories == 0 ? 0 : healthLeft / victories;
+    }
+
+    public Side party() {
+        return party;
+    }
+
+    public Side enemies() {
+        return enemies;
+    }
+}
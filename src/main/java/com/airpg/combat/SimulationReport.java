@@ -0,0 +1,48 @@
+package com.airpg.combat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the stats of each simulated matchup and renders the summary
+ */
+final class SimulationReport {
+
+    private final Map<Matchup, MatchupStats> matchups = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long endNanos;
+
+    void add(Matchup matchup, MatchupStats stats) {
+        matchups.put(matchup, stats);
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * Render the report as a plain-text table; damage columns are per hit (mean/p50/p95)
+     */
+    String render() {
+        double seconds = (endNanos - startNanos) / 1e9;
+        long total = matchups.values().stream().mapToLong(MatchupStats::encounters).sum();
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%nCombat simulation: %d matchups, %d encounters in %.1fs (%.0f/s)%n",
+                matchups.size(), total, seconds, total / Math.max(seconds, 1e-9)));
+        report.append(String.format("%-36s %6s %6s %6s %6s %6s %6s %14s %6s %14s%n",
+                "matchup", "win%", "loss%", "stale%", "turns", "hp%", "hit%", "party dmg", "ehit%", "enemy dmg"));
+        matchups.forEach((matchup, stats) -> report.append(String.format(
+                "%-36s %6.1f %6.1f %6.1f %6.1f %6.1f %6.1f %14s %6.1f %14s%n",
+                matchup.label(),
+                stats.winRate() * 100, stats.lossRate() * 100, stats.stalemateRate() * 100,
+                stats.meanTurns(), stats.meanHealthLeft() * 100,
+                stats.party().hitRate() * 100, damage(stats.party()),
+                stats.enemies().hitRate() * 100, damage(stats.enemies()))));
+        return report.toString();
+    }
+
+    private static String damage(MatchupStats.Side side) {
+        return String.format("%.1f/%d/%d", side.meanDamage(), side.damagePercentile(0.5), side.damagePercentile(0.95));
+    }
+}
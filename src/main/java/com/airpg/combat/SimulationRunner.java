@@ -0,0 +1,63 @@
+package com.airpg.combat;
+
+import com.airpg.config.GameConfig;
+import com.airpg.config.SimulationConfig;
+import com.airpg.domain.Dice;
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Headless balance run. With simulation.enabled=true, simulates every configured
+ * hero class against every enemy role on startup and logs win rates, turn counts
+ * and damage distributions. Uses only the combat rules, so no AI provider is called.
+ */
+@ApplicationScoped
+public class SimulationRunner {
+
+    private static final Logger LOG = Logger.getLogger(SimulationRunner.class);
+
+    @Inject
+    SimulationConfig config;
+
+    @Inject
+    GameConfig gameConfig;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!config.enabled()) {
+            return;
+        }
+        Thread.ofPlatform().name("combat-simulation").daemon().start(this::run);
+    }
+
+    private void run() {
+        List<String> companions = config.companionClasses().orElse(List.of());
+        LOG.infof("Combat simulation starting: %d hero classes x %d enemy roles, %d encounters each",
+                config.heroClasses().size(), config.enemyRoles().size(), config.encounters());
+
+        CombatSimulator simulator = new CombatSimulator(gameConfig.companions().healThreshold(), config.maxTurns());
+        Dice seeds = new Dice(config.seed());
+        SimulationReport report = new SimulationReport();
+        try {
+            for (String heroClass : config.heroClasses()) {
+                for (String enemyRole : config.enemyRoles()) {
+                    Matchup matchup = new Matchup(heroClass, companions, enemyRole, config.enemies());
+                    report.add(matchup, simulator.run(matchup, config.encounters(), seeds.nextLong()));
+                }
+            }
+            report.finish();
+            LOG.info(report.render());
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Combat simulation failed");
+        }
+
+        if (config.exitWhenDone()) {
+            Quarkus.asyncExit();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.airpg.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Table of player commands, matched without calling the LLM.
+ * Phrases (a command's name and its aliases, possibly several words) are stored in a
+ * word-level trie, so the longest phrase at the start of the input wins and the rest
+ * becomes the command's arguments. Input that matches nothing exactly is compared
+ * against argument-less phrases by unique prefix ("que" -> "quests") and by edit
+ * distance ("quets" -> "quests"), so near-misses are still answered locally.
+ *
+ * @param <C> command identifier (typically an enum)
+ */
+public final class CommandRegistry<C> {
+
+    /**
+     * Whether a command takes argument text after its phrase
+     */
+    public enum Arguments {
+        NONE,
+        OPTIONAL,
+        REQUIRED;
+
+        boolean accepts(String arguments) {
+            return switch (this) {
+                case NONE -> arguments.isEmpty();
+                case OPTIONAL -> true;
+                case REQUIRED -> !arguments.isEmpty();
+            };
+        }
+    }
+
+    /**
+     * How the input was matched
+     */
+    public enum MatchKind {
+        EXACT,
+        PREFIX,
+        FUZZY
+    }
+
+    /**
+     * A matched command
+     *
+     * @param command   the command
+     * @param phrase    the phrase that matched (name or alias)
+     * @param arguments text after the phrase (normalized, may be empty)
+     * @param kind      how the input was matched
+     */
+    public record Match<C>(C command, String phrase, String arguments, MatchKind kind) {
+    }
+
+    private record Entry<C>(C command, Arguments arguments, String phrase) {
+    }
+
+    private static final class Node<C> {
+        private final Map<String, Node<C>> children = new HashMap<>(4);
+        private Entry<C> entry;
+    }
+
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private final Node<C> root;
+    private final List<Entry<C>> fuzzyCandidates;
+    private final int maxFuzzyLength;
+
+    private CommandRegistry(Node<C> root, List<Entry<C>> fuzzyCandidates) {
+        this.root = root;
+        this.fuzzyCandidates = fuzzyCandidates;
+        this.maxFuzzyLength = fuzzyCandidates.stream().mapToInt(entry -> entry.phrase().length()).max().orElse(0) + 2;
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Match player input against all commands
+     */
+    public Optional<Match<C>> match(String input) {
+        return match(input, command -> true);
+    }
+
+    /**
+     * Match player input against the commands that are currently available
+     */
+    public Optional<Match<C>> match(String input, Predicate<C> available) {
+        String normalized = normalize(input);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        String[] words = normalized.split(" ");
+
+        Optional<Match<C>> exact = matchExact(words, available);
+        if (exact.isPresent()) {
+            return exact;
+        }
+        if (normalized.length() > maxFuzzyLength) {
+            return Optional.empty();
+        }
+        Optional<Match<C>> prefix = matchPrefix(normalized, available);
+        return prefix.isPresent() ? prefix : matchFuzzy(normalized, available);
+    }
+
+    /**
+     * Walk the trie and take the longest phrase whose command accepts the remaining words
+     */
+    private Optional<Match<C>> matchExact(String[] words, Predicate<C> available) {
+        List<Entry<C>> path = new ArrayList<>(2);
+        List<Integer> consumed = new ArrayList<>(2);
+        Node<C> node = root;
+        for (int i = 0; i < words.length && node != null; i++) {
+            node = node.children.get(words[i]);
+            if (node != null && node.entry != null) {
+                path.add(node.entry);
+                consumed.add(i + 1);
+            }
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Entry<C> entry = path.get(i);
+            String arguments = String.join(" ", List.of(words).subList(consumed.get(i), words.length));
+            if (available.test(entry.command()) && entry.arguments().accepts(arguments)) {
+                return Optional.of(new Match<>(entry.command(), entry.phrase(), arguments, MatchKind.EXACT));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Input that is the start of phrases (with as many words) of exactly one command
+     */
+    private Optional<Match<C>> matchPrefix(String input, Predicate<C> available) {
+        if (input.length() < MIN_PREFIX_LENGTH) {
+            return Optional.empty();
+        }
+        long words = wordCount(input);
+        Entry<C> found = null;
+        for (Entry<C> entry : fuzzyCandidates) {
+            if (!entry.phrase().startsWith(input) || wordCount(entry.phrase()) != words
+                    || !available.test(entry.command())) {
+                continue;
+            }
+            if (found != null && !found.command().equals(entry.command())) {
+                return Optional.empty();
+            }
+            if (found == null) {
+                found = entry;
+            }
+        }
+        return Optional.ofNullable(found)
+                .map(entry -> new Match<>(entry.command(), entry.phrase(), "", MatchKind.PREFIX));
+    }
+
+    /**
+     * Closest phrase within a small edit distance, if it belongs to a single command
+     */
+    private Optional<Match<C>> matchFuzzy(String input, Predicate<C> available) {
+        // Short words have many real-word neighbours ("hello" vs "help"), so allow fewer edits
+        int maxDistance = input.length() < 3 ? 0 : input.length() < 6 ? 1 : 2;
+        if (maxDistance == 0) {
+            return Optional.empty();
+        }
+        Entry<C> best = null;
+        int bestDistance = maxDistance + 1;
+        boolean ambiguous = false;
+        for (Entry<C> entry : fuzzyCandidates) {
+            if (!available.test(entry.command())) {
+                continue;
+            }
+            int distance = editDistance(input, entry.phrase(), Math.min(bestDistance, maxDistance) + 1);
+            if (distance > maxDistance) {
+                continue;
+            }
+            if (distance < bestDistance) {
+                best = entry;
+                bestDistance = distance;
+                ambiguous = false;
+            } else if (distance == bestDistance && best != null && !best.command().equals(entry.command())) {
+                ambiguous = true;
+            }
+        }
+        if (best == null || ambiguous) {
+            return Optional.empty();
+        }
+        return Optional.of(new Match<>(best.command(), best.phrase(), "", MatchKind.FUZZY));
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions).
+     * Returns {@code limit} as soon as the distance is known to reach it.
+     */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) >= limit) {
+            return limit;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin >= limit) {
+                return limit;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], limit);
+    }
+
+    private static long wordCount(String normalized) {
+        return normalized.chars().filter(c -> c == ' ').count() + 1;
+    }
+
+    /**
+     * Trim, lowercase and collapse whitespace
+     */
+    static String normalize(String input) {
+        return input.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Builder for an immutable registry
+     */
+    public static final class Builder<C> {
+
+        private final Node<C> root = new Node<>();
+        private final List<Entry<C>> fuzzyCandidates = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Register a command under one or more phrases (name first, then aliases)
+         */
+        public Builder<C> add(C command, Arguments arguments, String... phrases) {
+            if (phrases.length == 0) {
+                throw new IllegalArgumentException("Command " + command + " needs at least one phrase");
+            }
+            for (String phrase : phrases) {
+                String normalized = normalize(phrase);
+                Node<C> node = root;
+                for (String word : normalized.split(" ")) {
+                    node = node.children.computeIfAbsent(word, w -> new Node<>());
+                }
+                if (node.entry != null) {
+                    throw new IllegalArgumentException("Phrase '" + normalized + "' is already registered");
+                }
+                node.entry = new Entry<>(command, arguments, normalized);
+                // Arguments can't be guessed from a typo, so only argument-less phrases are fuzzy-matched
+                if (arguments != Arguments.REQUIRED) {
+                    fuzzyCandidates.add(node.entry);
+                }
+            }
+            return this;
+        }
+
+        public CommandRegistry<C> build() {
+            return new CommandRegistry<>(root, List.copyOf(fuzzyCandidates));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.airpg.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Small multinomial naive Bayes text classifier over word unigrams and bigrams.
+ * Trained once from labelled example phrases and then read-only, so it is safe to share.
+ * Classifying a sentence is a few map lookups per word; no model or network call involved.
+ *
+ * @param <I> intent label (typically an enum)
+ */
+public final class IntentClassifier<I> {
+
+    /**
+     * A classification result
+     *
+     * @param intent     most likely intent
+     * @param confidence posterior probability of that intent (0..1)
+     */
+    public record Prediction<I>(I intent, double confidence) {
+    }
+
+    private static final double SMOOTHING = 1.0;
+    private static final String START = "^";
+
+    private final List<I> intents;
+    private final double[] logPriors;
+    private final Map<String, double[]> logLikelihoods;
+
+    private IntentClassifier(List<I> intents, double[] logPriors, Map<String, double[]> logLikelihoods) {
+        this.intents = intents;
+        this.logPriors = logPriors;
+        this.logLikelihoods = logLikelihoods;
+    }
+
+    public static <I> Builder<I> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Most likely intent for the text, or empty if none of its words were seen in training
+     */
+    public Optional<Prediction<I>> classify(String text) {
+        double[] scores = logPriors.clone();
+        boolean known = false;
+        for (String feature : features(text)) {
+            double[] likelihoods = logLikelihoods.get(feature);
+            if (likelihoods == null) {
+                continue;
+            }
+            known = true;
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] += likelihoods[i];
+            }
+        }
+        if (!known) {
+            return Optional.empty();
+        }
+
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        // Softmax relative to the best score, to stay in floating point range
+        double sum = 0;
+        for (double score : scores) {
+            sum += Math.exp(score - scores[best]);
+        }
+        return Optional.of(new Prediction<>(intents.get(best), 1.0 / sum));
+    }
+
+    public int vocabularySize() {
+        return logLikelihoods.size();
+    }
+
+    /**
+     * Lowercased words plus adjacent word pairs; the first word is also paired with a start marker
+     */
+    static List<String> features(String text) {
+        String[] words = text.toLowerCase().split("[^a-z']+");
+        List<String> features = new ArrayList<>(words.length * 2);
+        String previous = START;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            features.add(word);
+            features.add(previous + " " + word);
+            previous = word;
+        }
+        return features;
+    }
+
+    /**
+     * Collects labelled examples and computes the smoothed log probabilities
+     */
+    public static final class Builder<I> {
+
+        private final List<I> intents = new ArrayList<>();
+        private final List<Integer> documents = new ArrayList<>();
+        private final List<Integer> featureTotals = new ArrayList<>();
+        private final Map<String, List<Integer>> featureCounts = new HashMap<>();
+        private int examples;
+
+        private Builder() {
+        }
+
+        public Builder<I> add(I intent, String example) {
+            int index = intents.indexOf(intent);
+            if (index < 0) {
+                index = intents.size();
+                intents.add(intent);
+                documents.add(0);
+                featureTotals.add(0);
+            }
+            documents.set(index, documents.get(index) + 1);
+            for (String feature : features(example)) {
+                List<Integer> counts = featureCounts.computeIfAbsent(feature, f -> new ArrayList<>());
+                while (counts.size() <= index) {
+                    counts.add(0);
+                }
+                counts.set(index, counts.get(index) + 1);
+                featureTotals.set(index, featureTotals.get(index) + 1);
+            }
+            examples++;
+            return this;
+        }
+
+        public IntentClassifier<I> build() {
+            if (intents.isEmpty()) {
+                throw new IllegalStateException("No training examples");
+            }
+            int classes = intents.size();
+            int vocabulary = featureCounts.size();
+            double[] logPriors = new double[classes];
+            double[] denominators = new double[classes];
+            for (int i = 0; i < classes; i++) {
+                logPriors[i] = Math.log((double) documents.get(i) / examples);
+                denominators[i] = featureTotals.get(i) + SMOOTHING * vocabulary;
+            }
+
+            Map<String, double[]> logLikelihoods = new HashMap<>(vocabulary * 2);
+            featureCounts.forEach((feature, counts) -> {
+                double[] likelihoods = new double[classes];
+                for (int i = 0; i < classes; i++) {
+                    int count = i < counts.size() ? counts.get(i) : 0;
+                    likelihoods[i] = Math.log((count + SMOOTHING) / denominators[i]);
+                }
+                logLikelihoods.put(feature, likelihoods);
+            });
+            return new IntentClassifier<>(List.copyOf(intents), logPriors, logLikelihoods);
+        }
+    }
+}
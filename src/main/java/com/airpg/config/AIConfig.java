@@ -1,6 +1,11 @@
 package com.airpg.config;
 
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Configuration for AI provider settings.
@@ -10,7 +15,7 @@ import io.smallrye.config.ConfigMapping;
 public interface AIConfig {
     
     /**
-     * The AI provider to use: "openai" or "ollama"
+     * The AI provider to use: "openai", "ollama" or "mock" (in-process fake for offline runs)
      */
     String provider();
     
@@ -18,11 +23,35 @@ public interface AIConfig {
     
     OllamaConfig ollama();
     
+    MockConfig mock();
+    
+    SchedulerConfig scheduler();
+    
+    HedgingConfig hedging();
+    
     interface OpenAIConfig {
         String apiKey();
         String model();
         Double temperature();
         Integer maxTokens();
+        
+        /**
+         * Request timeout for a single OpenAI call
+         */
+        @WithDefault("60s")
+        Duration timeout();
+        
+        /**
+         * Maximum concurrent requests sent to OpenAI
+         */
+        @WithDefault("8")
+        int maxInFlight();
+        
+        /**
+         * Token budget per minute (0 = unlimited)
+         */
+        @WithDefault("30000")
+        int tokensPerMinute();
     }
     
     interface OllamaConfig {
@@ -30,5 +59,137 @@ public interface AIConfig {
         String model();
         Double temperature();
         Integer maxTokens();
+        
+        /**
+         * Request timeout for a single Ollama call
+         */
+        @WithDefault("120s")
+        Duration timeout();
+        
+        /**
+         * Maximum concurrent requests sent to the Ollama server
+         */
+        @WithDefault("2")
+        int maxInFlight();
+        
+        /**
+         * Token budget per minute (0 = unlimited)
+         */
+        @WithDefault("0")
+        int tokensPerMinute();
+    }
+    
+    interface MockConfig {
+        
+        /**
+         * Model name reported for the mock provider
+         */
+        @WithDefault("mock")
+        String model();
+        
+        /**
+         * Median time until the first token
+         */
+        @WithDefault("300ms")
+        Duration latency();
+        
+        /**
+         * Spread of the log-normal latency distribution (0 = constant latency)
+         */
+        @WithDefault("0.5")
+        double latencyJitter();
+        
+        /**
+         * Output token rate after the first token (0 = instant)
+         */
+        @WithDefault("40")
+        int tokensPerSecond();
+        
+        /**
+         * Approximate length of narrative replies in tokens
+         */
+        @WithDefault("60")
+        int responseTokens();
+        
+        /**
+         * Fraction of requests that fail with a simulated provider error
+         */
+        @WithDefault("0")
+        double failureRate();
+        
+        /**
+         * Seed for replies and latencies; the same seed and prompt give the same result
+         */
+        @WithDefault("42")
+        long seed();
+        
+        /**
+         * Scripted replies returned in order instead of templated ones
+         */
+        Optional<List<String>> script();
+        
+        /**
+         * Maximum concurrent mock requests
+         */
+        @WithDefault("64")
+        int maxInFlight();
+        
+        /**
+         * Token budget per minute (0 = unlimited)
+         */
+        @WithDefault("0")
+        int tokensPerMinute();
+    }
+    
+    interface SchedulerConfig {
+        
+        /**
+         * Maximum time a request may wait in the queue before it fails
+         */
+        @WithDefault("30s")
+        Duration queueTimeout();
+    }
+    
+    interface HedgingConfig {
+        
+        /**
+         * Whether slow requests fire a second (hedged) request
+         */
+        @WithDefault("false")
+        boolean enabled();
+        
+        /**
+         * Provider for the hedged request (defaults to the primary provider)
+         */
+        Optional<String> alternateProvider();
+        
+        /**
+         * Model for the hedged request (defaults to the alternate provider's model)
+         */
+        Optional<String> alternateModel();
+        
+        /**
+         * Latency percentile of the primary after which the hedge fires
+         */
+        @WithDefault("0.95")
+        double percentile();
+        
+        /**
+         * Hedge delay used until enough latency samples are collected
+         */
+        @WithDefault("3s")
+        Duration initialDelay();
+        
+        /**
+         * Lower bound for the hedge delay, avoids doubling every fast request
+         */
+        @WithDefault("250ms")
+        Duration minDelay();
+        
+        /**
+         * Number of samples needed before the percentile is trusted
+         */
+        @WithDefault("20")
+        int minSamples();
     }
 }
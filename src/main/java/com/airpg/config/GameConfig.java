@@ -1,7 +1,10 @@
 package com.airpg.config;
 
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Configuration for game mechanics and rules.
@@ -19,4 +22,170 @@ public interface GameConfig {
      * List of possible initial game goals (one selected randomly)
      */
     List<String> initialGoals();
+    
+    /**
+     * Speculative pre-generation of likely next responses
+     */
+    SpeculationConfig speculation();
+    
+    /**
+     * Local classification of free-text actions
+     */
+    IntentConfig intents();
+    
+    /**
+     * How companions decide their combat actions
+     */
+    CompanionConfig companions();
+    
+    /**
+     * Seeding of each session's dice
+     */
+    DiceConfig dice();
+    
+    /**
+     * Procedural generation of the world around the party
+     */
+    WorldConfig world();
+    
+    /**
+     * Off-screen pursuit of NPC agendas
+     */
+    AgendaConfig agendas();
+    
+    interface SpeculationConfig {
+        
+        /**
+         * Whether likely next commands are pre-generated while the player reads
+         */
+        @WithDefault("false")
+        boolean enabled();
+        
+        /**
+         * Maximum number of commands pre-generated after each turn
+         */
+        @WithDefault("3")
+        int maxPerTurn();
+        
+        /**
+         * Candidate commands, in default order of likelihood
+         */
+        @WithDefault("location,Explore the area,talk Hello")
+        List<String> commands();
+        
+        /**
+         * How long the player's command waits for a speculation still being generated
+         * before it is dropped and the request is made for real
+         */
+        @WithDefault("1s")
+        Duration takeTimeout();
+    }
+    
+    interface IntentConfig {
+        
+        /**
+         * Whether free-text actions recognized as travel, talk, attack, rest or inspect
+         * are executed by the engine instead of being sent to the narrator as-is
+         */
+        @WithDefault("true")
+        boolean enabled();
+        
+        /**
+         * Minimum classifier confidence (0..1) to act on a recognized intent
+         */
+        @WithDefault("0.8")
+        double minConfidence();
+        
+        /**
+         * Extra labelled examples (INTENT<TAB>text per line, e.g. exported from game logs),
+         * added to the bundled training set
+         */
+        Optional<String> trainingFile();
+    }
+    
+    interface CompanionConfig {
+        
+        /**
+         * Who decides companion combat actions
+         */
+        enum Mode {
+            /** Per-class tactics, decided locally without an LLM call */
+            RULES,
+            /** The companion agent, with the rules as fallback for failed or invalid decisions */
+            AGENT
+        }
+        
+        @WithDefault("rules")
+        Mode mode();
+        
+        /**
+         * In rules mode, chance (0..1) that a companion's action also gets an in-character line from the agent
+         */
+        @WithDefault("0.2")
+        double combatLineRate();
+        
+        /**
+         * Allies below this fraction of their max health (0..1) are healed by companions who can
+         */
+        @WithDefault("0.5")
+        double healThreshold();
+    }
+    
+    interface DiceConfig {
+        
+        /**
+         * Master seed: sessions draw their dice seeds from it in the order they start,
+         * so a run with the same seed and inputs rolls the same. Unset = random seeds.
+         */
+        Optional<Long> seed();
+    }
+    
+    interface WorldConfig {
+        
+        /**
+         * Whether the regions next to the party's location are generated in the background,
+         * so arriving there doesn't wait for generation
+         */
+        @WithDefault("true")
+        boolean prefetch();
+        
+        /**
+         * Maximum number of generated regions kept, shared by all games with the same world seed
+         */
+        @WithDefault("1000")
+        int regionCacheSize();
+    }
+    
+    interface AgendaConfig {
+        
+        /**
+         * Whether NPCs away from the party pursue their agendas while the game runs
+         */
+        @WithDefault("true")
+        boolean enabled();
+        
+        /**
+         * Time between world ticks; every tick advances the agendas of all off-screen NPCs
+         */
+        @WithDefault("20s")
+        Duration tickInterval();
+        
+        /**
+         * Off-screen progress is summed up by the chronicler agent every this many ticks (0 = never)
+         */
+        @WithDefault("5")
+        int summaryEveryTicks();
+        
+        /**
+         * Maximum number of NPCs summed up in one chronicler call
+         */
+        @WithDefault("6")
+        int summaryBatchSize();
+        
+        /**
+         * Chance (0..1) per tick that an off-screen NPC moves on to a neighbouring place
+         */
+        @WithDefault("0.1")
+        double travelChance();
+    }
 }
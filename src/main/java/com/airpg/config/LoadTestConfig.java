@@ -0,0 +1,62 @@
+package com.airpg.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the headless load-test driver.
+ * Maps to loadtest.* properties in application.properties.
+ */
+@ConfigMapping(prefix = "loadtest")
+public interface LoadTestConfig {
+
+    /**
+     * Whether the load test runs on startup
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Number of concurrent simulated players
+     */
+    @WithDefault("10")
+    int players();
+
+    /**
+     * Commands each player issues after starting a game
+     */
+    @WithDefault("30")
+    int turnsPerPlayer();
+
+    /**
+     * Time over which players join (evenly spaced)
+     */
+    @WithDefault("5s")
+    Duration rampUp();
+
+    /**
+     * Mean think time between commands (exponentially distributed)
+     */
+    @WithDefault("2s")
+    Duration thinkTime();
+
+    /**
+     * Upper bound for a single think time
+     */
+    @WithDefault("10s")
+    Duration maxThinkTime();
+
+    /**
+     * Seed for player behavior; each player derives its own stream from it
+     */
+    @WithDefault("42")
+    long seed();
+
+    /**
+     * Whether the application exits after the report is written
+     */
+    @WithDefault("true")
+    boolean exitWhenDone();
+}
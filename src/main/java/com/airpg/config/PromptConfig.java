@@ -0,0 +1,19 @@
+package com.airpg.config;
+
+import io.smallrye.config.ConfigMapping;
+
+import java.util.Optional;
+
+/**
+ * Configuration for the agents' prompt templates.
+ * Maps to prompts.* properties in application.properties.
+ */
+@ConfigMapping(prefix = "prompts")
+public interface PromptConfig {
+
+    /**
+     * Directory with tuned templates (e.g. world/travel.txt) used instead of the bundled ones
+     * of the same name; templates not found there are taken from the bundle
+     */
+    Optional<String> directory();
+}
@@ -0,0 +1,38 @@
+package com.airpg.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.util.Optional;
+
+/**
+ * Configuration for session recording and replay.
+ * Maps to recording.* properties in application.properties.
+ */
+@ConfigMapping(prefix = "recording")
+public interface RecordingConfig {
+
+    /**
+     * Whether every session writes its inputs, dice seeds and agent requests to a file
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Directory the recordings are written to
+     */
+    @WithDefault("recordings")
+    String directory();
+
+    /**
+     * Recording to replay on startup: its inputs are re-issued against a fresh engine
+     * and the mock provider answers with the recorded responses and latencies
+     */
+    Optional<String> replayFile();
+
+    /**
+     * Whether the application exits after the replay
+     */
+    @WithDefault("true")
+    boolean exitWhenDone();
+}
@@ -0,0 +1,68 @@
+package com.airpg.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Configuration for the headless combat simulator.
+ * Maps to simulation.* properties in application.properties.
+ */
+@ConfigMapping(prefix = "simulation")
+public interface SimulationConfig {
+
+    /**
+     * Whether the simulation runs on startup
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Hero classes to simulate (see Hero.createDefault)
+     */
+    @WithDefault("Warrior,Mage,Rogue,Bard")
+    List<String> heroClasses();
+
+    /**
+     * Companion classes fighting alongside every hero (see TeamMember.create)
+     */
+    Optional<List<String>> companionClasses();
+
+    /**
+     * Enemy roles to simulate (see NPC.create)
+     */
+    @WithDefault("bandit,guard,mage")
+    List<String> enemyRoles();
+
+    /**
+     * Enemies per encounter
+     */
+    @WithDefault("2")
+    int enemies();
+
+    /**
+     * Encounters simulated per hero class and enemy role
+     */
+    @WithDefault("1000000")
+    int encounters();
+
+    /**
+     * Turns after which an encounter counts as a stalemate
+     */
+    @WithDefault("100")
+    int maxTurns();
+
+    /**
+     * Seed for the dice; the same seed and settings give the same report
+     */
+    @WithDefault("42")
+    long seed();
+
+    /**
+     * Whether the application exits after the report is written
+     */
+    @WithDefault("true")
+    boolean exitWhenDone();
+}
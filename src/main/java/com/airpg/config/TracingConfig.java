@@ -0,0 +1,24 @@
+package com.airpg.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Configuration for the local trace log.
+ * Maps to tracing.* properties in application.properties.
+ */
+@ConfigMapping(prefix = "tracing")
+public interface TracingConfig {
+
+    /**
+     * Whether each finished trace is logged as an indented span waterfall
+     */
+    @WithDefault("false")
+    boolean logWaterfall();
+
+    /**
+     * Traces buffered while waiting for their root span to end; oldest are dropped first
+     */
+    @WithDefault("256")
+    int maxPendingTraces();
+}
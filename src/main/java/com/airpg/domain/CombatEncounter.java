@@ -22,6 +22,7 @@ public class CombatEncounter {
     private CombatStatus status;
     private int currentTurn;
     private String location;
+    private Dice dice; // Split off the session's dice when the fight starts; its seed replays the rolls
     
     public enum CombatStatus {
         IN_PROGRESS,
@@ -62,20 +63,29 @@ public class CombatEncounter {
      * End combat with victory
      */
     public void endWithVictory() {
-        this.status = CombatStatus.PLAYER_VICTORY;
+        end(CombatStatus.PLAYER_VICTORY);
     }
     
     /**
      * End combat with defeat
      */
     public void endWithDefeat() {
-        this.status = CombatStatus.PLAYER_DEFEAT;
+        end(CombatStatus.PLAYER_DEFEAT);
     }
     
     /**
      * End combat by fleeing
      */
     public void endByFleeing() {
-        this.status = CombatStatus.FLED;
+        end(CombatStatus.FLED);
+    }
+    
+    /**
+     * Set the outcome; guards raised by defending only last for the fight
+     */
+    private void end(CombatStatus outcome) {
+        this.status = outcome;
+        playerParty.forEach(character -> character.setDefendBonus(0));
+        enemies.forEach(character -> character.setDefendBonus(0));
     }
 }
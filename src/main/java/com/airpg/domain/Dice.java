@@ -0,0 +1,84 @@
+package com.airpg.domain;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random source of one game session (or one fight split off it).
+ * Remembers its seed, so the same seed and the same actions roll the same numbers;
+ * {@link #split} derives an independent child whose seed is drawn from this one.
+ * Not thread-safe: each session, fight or simulation thread uses its own instance.
+ */
+public final class Dice implements RandomGenerator {
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    public Dice(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Dice with an arbitrary seed (still recorded)
+     */
+    public static Dice randomSeed() {
+        return new Dice(ThreadLocalRandom.current().nextLong());
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Child dice seeded from this stream, e.g. one per fight
+     */
+    public Dice split() {
+        return new Dice(random.nextLong());
+    }
+
+    /**
+     * Roll a die with the given number of sides (1..sides)
+     */
+    public int roll(int sides) {
+        return random.nextInt(sides) + 1;
+    }
+
+    /**
+     * True with the given probability (0..1)
+     */
+    public boolean chance(double probability) {
+        return random.nextDouble() < probability;
+    }
+
+    public <T> T pick(List<T> options) {
+        return options.get(random.nextInt(options.size()));
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return random.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public String toString() {
+        return "Dice[seed=" + seed + "]";
+    }
+}
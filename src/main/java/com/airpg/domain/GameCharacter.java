@@ -33,6 +33,7 @@ public abstract class GameCharacter {
     // Combat stats
     private int armorBonus;
     private int weaponBonus;
+    private int defendBonus; // Raised by defending, until the character's next turn or the end of the fight; never saved
     
     /**
      * Calculate modifier for an attribute (D&D formula: (attribute - 10) / 2)
@@ -62,10 +63,10 @@ public abstract class GameCharacter {
     }
     
     /**
-     * Calculate defense value: 10 + agility modifier + armor bonus
+     * Calculate defense value: 10 + agility modifier + armor bonus + defend bonus
      */
     public int getDefense() {
-        return 10 + getAgilityModifier() + armorBonus;
+        return 10 + getAgilityModifier() + armorBonus + defendBonus;
     }
     
     /**
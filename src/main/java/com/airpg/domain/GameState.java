@@ -1,8 +1,16 @@
 package com.airpg.domain;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -13,15 +21,27 @@ import java.util.UUID;
 public class GameState {
     
     private String gameId;
+    @EqualsAndHashCode.Exclude
+    private final String sessionId = UUID.randomUUID().toString(); // Keys agent memories and speculations; fresh for every new or loaded game, never saved
     private Hero hero;
     private List<TeamMember> teamMembers;
-    private List<NPC> worldNPCs;
+    @Setter(AccessLevel.NONE)
+    private NPCRegistry npcs; // Indexed by id, name and location; NPCs move through moveNPC
     private List<Quest> quests;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<String, List<Quest>> questsByGiver; // Index of quests by the NPC who gave them
+    private WorldMap worldMap; // Known locations and routes; grows as the party discovers places
+    private long worldSeed; // Seed of the generated world; regions are generated from it as the party explores
     private CombatEncounter currentCombat;
     private String currentLocation;
     private String mainGoal;
     private GameStatus status;
     private List<String> storyHistory; // Record of major events
+    @EqualsAndHashCode.Exclude
+    private Dice dice; // All randomness of this session; replaced by a seeded one when the engine starts or loads a game
     
     public enum GameStatus {
         NOT_STARTED,
@@ -36,11 +56,15 @@ public class GameState {
     public GameState() {
         this.gameId = UUID.randomUUID().toString();
         this.teamMembers = new ArrayList<>();
-        this.worldNPCs = new ArrayList<>();
+        this.npcs = new NPCRegistry();
         this.quests = new ArrayList<>();
+        this.questsByGiver = new HashMap<>();
+        this.worldMap = WorldMap.createDefault();
         this.storyHistory = new ArrayList<>();
         this.status = GameStatus.NOT_STARTED;
         this.currentLocation = "Village Square";
+        this.dice = Dice.randomSeed();
+        this.worldSeed = dice.nextLong();
     }
     
     /**
@@ -73,21 +97,71 @@ public class GameState {
         addToHistory(member.getName() + " left your party.");
     }
     
+    /**
+     * All NPCs of the world, in the order they were added
+     */
+    public Collection<NPC> getWorldNPCs() {
+        return npcs.all();
+    }
+    
+    /**
+     * Replace the NPCs of the world (e.g. when loading a save)
+     */
+    public void setWorldNPCs(Collection<NPC> worldNPCs) {
+        this.npcs = new NPCRegistry(worldNPCs);
+    }
+    
     /**
      * Add an NPC to the world
      */
     public void addNPC(NPC npc) {
-        worldNPCs.add(npc);
+        npcs.add(npc);
+    }
+    
+    /**
+     * Remove an NPC from the world
+     *
+     * @return the removed NPC, or null if there was none with this ID
+     */
+    public NPC removeNPC(String npcId) {
+        return npcs.remove(npcId);
+    }
+    
+    /**
+     * Move an NPC to another location
+     */
+    public void moveNPC(NPC npc, String location) {
+        npcs.move(npc, location);
     }
     
     /**
      * Find an NPC by ID
      */
     public NPC findNPC(String npcId) {
-        return worldNPCs.stream()
-                .filter(npc -> npc.getId().equals(npcId))
-                .findFirst()
-                .orElse(null);
+        return npcs.byId(npcId);
+    }
+    
+    /**
+     * NPCs at the given location
+     */
+    public Collection<NPC> getNPCsAt(String location) {
+        return npcs.at(location);
+    }
+    
+    /**
+     * NPCs at the player's current location
+     */
+    public Collection<NPC> getNPCsHere() {
+        return npcs.at(currentLocation);
+    }
+    
+    /**
+     * Replace all quests (e.g. when loading a save)
+     */
+    public void setQuests(List<Quest> quests) {
+        this.quests = quests;
+        questsByGiver.clear();
+        quests.forEach(this::indexQuest);
     }
     
     /**
@@ -95,9 +169,31 @@ public class GameState {
      */
     public void addQuest(Quest quest) {
         quests.add(quest);
+        indexQuest(quest);
         addToHistory("New quest: " + quest.getTitle());
     }
     
+    private void indexQuest(Quest quest) {
+        if (quest.getGivenBy() != null) {
+            questsByGiver.computeIfAbsent(quest.getGivenBy(), k -> new ArrayList<>()).add(quest);
+        }
+    }
+    
+    /**
+     * Active quests given by NPCs at the given location
+     */
+    public List<Quest> getActiveQuestsAt(String location) {
+        List<Quest> here = new ArrayList<>();
+        for (NPC npc : npcs.at(location)) {
+            for (Quest quest : questsByGiver.getOrDefault(npc.getId(), List.of())) {
+                if (quest.isActive()) {
+                    here.add(quest);
+                }
+            }
+        }
+        return here;
+    }
+    
     /**
      * Get active quests
      */
@@ -133,11 +229,11 @@ public class GameState {
     }
     
     /**
-     * Move to a new location
+     * Move to a new location, adding it to the map next to the current one if it is undiscovered
      */
     public void moveTo(String location) {
-        this.currentLocation = location;
-        addToHistory("Traveled to " + location);
+        this.currentLocation = worldMap.discover(location, currentLocation);
+        addToHistory("Traveled to " + currentLocation);
     }
     
     /**
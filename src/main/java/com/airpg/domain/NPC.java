@@ -22,6 +22,8 @@ public class NPC extends GameCharacter {
     private String personality; // Brief personality description for AI agent
     private boolean isHostile; // Whether the NPC is initially hostile
     private boolean isQuestGiver; // Whether this NPC can give quests
+    private int agendaProgress; // How far the NPC has come with their agenda (0..100), advanced by the world clock
+    private String recentActivity; // What the NPC did off-screen lately, as told by the chronicler
     
     /**
      * Create a new NPC with specified attributes
@@ -0,0 +1,215 @@
+package com.airpg.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The NPCs of a game world, indexed by id, by normalized name and by location.
+ * Indexes are updated on every add, move and remove, so lookups don't scan the world;
+ * NPCs must therefore change location through {@link #move}.
+ * Iteration order is insertion order. Not thread-safe, like the rest of {@link GameState}.
+ */
+public final class NPCRegistry {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    /** Words that don't identify anyone, even when part of a name */
+    private static final Set<String> STOP_WORDS = Set.of("the", "of", "a", "an", "and");
+    /** Longest run of words tried as a full name in a message */
+    private static final int MAX_NAME_WORDS = 4;
+
+    private final Map<String, NPC> byId = new LinkedHashMap<>();
+    private final Map<String, List<NPC>> byName = new LinkedHashMap<>();
+    private final Map<String, Map<String, NPC>> byLocation = new LinkedHashMap<>();
+    /** Name and role words of the NPCs at each location, keyed by location and word */
+    private final Map<String, List<NPC>> wordsAt = new LinkedHashMap<>();
+
+    public NPCRegistry() {
+    }
+
+    public NPCRegistry(Collection<NPC> npcs) {
+        npcs.forEach(this::add);
+    }
+
+    /**
+     * Add an NPC, replacing one with the same id
+     */
+    public void add(NPC npc) {
+        remove(npc.getId());
+        byId.put(npc.getId(), npc);
+        byName.computeIfAbsent(nameKey(npc.getName()), k -> new ArrayList<>()).add(npc);
+        indexLocation(npc);
+    }
+
+    /**
+     * @return the removed NPC, or null if there was none with this id
+     */
+    public NPC remove(String id) {
+        NPC npc = byId.remove(id);
+        if (npc == null) {
+            return null;
+        }
+        removeFrom(byName, nameKey(npc.getName()), npc);
+        unindexLocation(npc);
+        return npc;
+    }
+
+    /**
+     * Move an NPC of this world to a new location
+     */
+    public void move(NPC npc, String location) {
+        if (byId.get(npc.getId()) != npc) {
+            throw new IllegalArgumentException("NPC " + npc.getId() + " is not part of this world");
+        }
+        unindexLocation(npc);
+        npc.setLocation(location);
+        indexLocation(npc);
+    }
+
+    public NPC byId(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * NPCs with this name (case, spacing and punctuation ignored)
+     */
+    public List<NPC> byName(String name) {
+        return Collections.unmodifiableList(byName.getOrDefault(nameKey(name), List.of()));
+    }
+
+    /**
+     * NPCs at a location (case ignored), in the order they arrived
+     */
+    public Collection<NPC> at(String location) {
+        Map<String, NPC> here = byLocation.get(normalize(location));
+        return here != null ? Collections.unmodifiableCollection(here.values()) : List.of();
+    }
+
+    /**
+     * The living NPC at a location a message refers to: by full name ("old sage marcus"),
+     * else by a word of a name or role ("marcus", "the wizard")
+     *
+     * @return the NPC, or null if the message names no one here
+     */
+    public NPC findMentioned(String message, String location) {
+        String[] words = words(message);
+        String place = normalize(location);
+        for (int length = Math.min(MAX_NAME_WORDS, words.length); length > 1; length--) {
+            for (int start = 0; start + length <= words.length; start++) {
+                String name = String.join(" ", Arrays.asList(words).subList(start, start + length));
+                for (NPC npc : byName.getOrDefault(name, List.of())) {
+                    if (npc.isAlive() && place.equals(normalize(npc.getLocation()))) {
+                        return npc;
+                    }
+                }
+            }
+        }
+        for (String word : words) {
+            for (NPC npc : wordsAt.getOrDefault(wordKey(place, word), List.of())) {
+                if (npc.isAlive()) {
+                    return npc;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All NPCs in insertion order (a read-only view)
+     */
+    public Collection<NPC> all() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    private void indexLocation(NPC npc) {
+        String place = normalize(npc.getLocation());
+        byLocation.computeIfAbsent(place, k -> new LinkedHashMap<>()).put(npc.getId(), npc);
+        for (String word : identifyingWords(npc)) {
+            wordsAt.computeIfAbsent(wordKey(place, word), k -> new ArrayList<>()).add(npc);
+        }
+    }
+
+    private void unindexLocation(NPC npc) {
+        String place = normalize(npc.getLocation());
+        Map<String, NPC> here = byLocation.get(place);
+        if (here != null) {
+            here.remove(npc.getId());
+            if (here.isEmpty()) {
+                byLocation.remove(place);
+            }
+        }
+        for (String word : identifyingWords(npc)) {
+            removeFrom(wordsAt, wordKey(place, word), npc);
+        }
+    }
+
+    private static void removeFrom(Map<String, List<NPC>> index, String key, NPC npc) {
+        List<NPC> npcs = index.get(key);
+        if (npcs == null) {
+            return;
+        }
+        npcs.removeIf(candidate -> candidate == npc);
+        if (npcs.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Set<String> identifyingWords(NPC npc) {
+        Set<String> words = new LinkedHashSet<>();
+        Collections.addAll(words, words(npc.getName()));
+        if (npc.getRole() != null) {
+            Collections.addAll(words, words(npc.getRole()));
+        }
+        words.removeAll(STOP_WORDS);
+        return words;
+    }
+
+    private static String[] words(String text) {
+        return Arrays.stream(WORD_SEPARATOR.split(normalize(text)))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static String nameKey(String name) {
+        return String.join(" ", words(name));
+    }
+
+    private static String wordKey(String location, String word) {
+        return location + '\n' + word;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof NPCRegistry other && byId.equals(other.byId);
+    }
+
+    @Override
+    public int hashCode() {
+        return byId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return byId.values().toString();
+    }
+}
@@ -0,0 +1,252 @@
+package com.airpg.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The known locations of a game world and the routes between them, with travel costs in hours.
+ * Location names are matched ignoring case and a leading "the", so "the old mill" finds "Old Mill".
+ * Places the party reaches that aren't on the map yet are {@link #discover discovered} next to
+ * where it came from, so the map grows as the world is explored.
+ * Locations are {@link #markExplored explored} once their surroundings and residents have been generated.
+ * Shortest routes are cached per starting location until the map changes.
+ * Not thread-safe, like the rest of {@link GameState}.
+ */
+public final class WorldMap {
+
+    /** Travel cost of a route to a newly discovered place */
+    public static final int DISCOVERY_COST = 1;
+
+    /** Display names by key, in the order the locations were added */
+    private final Map<String, String> names = new LinkedHashMap<>();
+    /** Travel costs to each neighbour, by key */
+    private final Map<String, Map<String, Integer>> routes = new HashMap<>();
+    /** Keys of the locations whose region has been generated */
+    private final Set<String> explored = new HashSet<>();
+    private final Map<String, PathTree> pathTrees = new HashMap<>();
+
+    /**
+     * A direct route between two neighbouring locations
+     */
+    public record Connection(String from, String to, int cost) {
+    }
+
+    /**
+     * A journey: its stops from start to destination (both included) and total cost
+     */
+    public record Route(List<String> stops, int cost) {
+    }
+
+    /**
+     * Cheapest costs and previous stops from one starting location to every reachable one
+     */
+    private record PathTree(Map<String, Integer> costs, Map<String, String> previous) {
+    }
+
+    /**
+     * The region every new game starts in, around the Village Square
+     */
+    public static WorldMap createDefault() {
+        WorldMap map = new WorldMap();
+        map.connect("Village Square", "Old Mill", 1);
+        map.connect("Village Square", "Harbor", 2);
+        map.connect("Village Square", "Dark Forest", 3);
+        map.connect("Old Mill", "Farmlands", 1);
+        map.connect("Farmlands", "Harbor", 2);
+        map.connect("Dark Forest", "Ancient Ruins", 2);
+        map.connect("Dark Forest", "Mountain Pass", 4);
+        map.connect("Mountain Pass", "Mount Doom", 6);
+        return map;
+    }
+
+    /**
+     * Add a location if it isn't known yet
+     *
+     * @return the location's name on the map
+     */
+    public String addLocation(String name) {
+        String key = key(name);
+        String existing = names.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        names.put(key, name.strip());
+        routes.put(key, new LinkedHashMap<>());
+        pathTrees.clear();
+        return name.strip();
+    }
+
+    /**
+     * Add (or re-price) a two-way route, adding unknown locations
+     */
+    public void connect(String from, String to, int cost) {
+        if (cost < 0) {
+            throw new IllegalArgumentException("Travel cost must not be negative: " + cost);
+        }
+        String fromKey = key(addLocation(from));
+        String toKey = key(addLocation(to));
+        if (fromKey.equals(toKey)) {
+            return;
+        }
+        routes.get(fromKey).put(toKey, cost);
+        routes.get(toKey).put(fromKey, cost);
+        pathTrees.clear();
+    }
+
+    /**
+     * The location's name on the map, adding it next to {@code near} if it isn't known yet
+     */
+    public String discover(String name, String near) {
+        Optional<String> known = find(name);
+        if (known.isPresent()) {
+            return known.get();
+        }
+        String added = addLocation(name);
+        if (near != null && !near.isBlank()) {
+            connect(near, added, DISCOVERY_COST);
+        }
+        return added;
+    }
+
+    /**
+     * The location's name on the map
+     */
+    public Optional<String> find(String name) {
+        return Optional.ofNullable(names.get(key(name)));
+    }
+
+    public boolean contains(String name) {
+        return names.containsKey(key(name));
+    }
+
+    /**
+     * Record that a known location's region has been generated
+     */
+    public void markExplored(String name) {
+        String key = key(name);
+        if (names.containsKey(key)) {
+            explored.add(key);
+        }
+    }
+
+    public boolean isExplored(String name) {
+        return explored.contains(key(name));
+    }
+
+    /**
+     * All locations, in the order they were added
+     */
+    public Collection<String> locations() {
+        return Collections.unmodifiableCollection(names.values());
+    }
+
+    /**
+     * Directly reachable locations and their travel costs
+     */
+    public Map<String, Integer> neighbors(String location) {
+        Map<String, Integer> costs = routes.getOrDefault(key(location), Map.of());
+        Map<String, Integer> neighbors = new LinkedHashMap<>();
+        costs.forEach((key, cost) -> neighbors.put(names.get(key), cost));
+        return neighbors;
+    }
+
+    /**
+     * Every route once, for saving the map
+     */
+    public List<Connection> connections() {
+        List<Connection> connections = new ArrayList<>();
+        Set<String> done = new HashSet<>();
+        for (String from : names.keySet()) {
+            for (Map.Entry<String, Integer> route : routes.get(from).entrySet()) {
+                if (!done.contains(route.getKey())) {
+                    connections.add(new Connection(names.get(from), names.get(route.getKey()), route.getValue()));
+                }
+            }
+            done.add(from);
+        }
+        return connections;
+    }
+
+    /**
+     * The cheapest route between two locations
+     *
+     * @return the route, or empty if either location is unknown or unreachable
+     */
+    public Optional<Route> route(String from, String to) {
+        String fromKey = key(from);
+        String toKey = key(to);
+        if (!names.containsKey(fromKey) || !names.containsKey(toKey)) {
+            return Optional.empty();
+        }
+        PathTree tree = pathTrees.computeIfAbsent(fromKey, this::shortestPaths);
+        Integer cost = tree.costs().get(toKey);
+        if (cost == null) {
+            return Optional.empty();
+        }
+        List<String> stops = new ArrayList<>();
+        for (String stop = toKey; stop != null; stop = tree.previous().get(stop)) {
+            stops.add(names.get(stop));
+        }
+        Collections.reverse(stops);
+        return Optional.of(new Route(List.copyOf(stops), cost));
+    }
+
+    /**
+     * Dijkstra from one location over the whole map
+     */
+    private PathTree shortestPaths(String fromKey) {
+        Map<String, Integer> costs = new HashMap<>();
+        Map<String, String> previous = new HashMap<>();
+        PriorityQueue<Map.Entry<String, Integer>> queue = new PriorityQueue<>(Map.Entry.comparingByValue());
+        costs.put(fromKey, 0);
+        queue.add(Map.entry(fromKey, 0));
+        while (!queue.isEmpty()) {
+            Map.Entry<String, Integer> next = queue.poll();
+            String location = next.getKey();
+            if (next.getValue() > costs.get(location)) {
+                continue;
+            }
+            for (Map.Entry<String, Integer> route : routes.get(location).entrySet()) {
+                int cost = next.getValue() + route.getValue();
+                Integer known = costs.get(route.getKey());
+                if (known == null || cost < known) {
+                    costs.put(route.getKey(), cost);
+                    previous.put(route.getKey(), location);
+                    queue.add(Map.entry(route.getKey(), cost));
+                }
+            }
+        }
+        return new PathTree(costs, previous);
+    }
+
+    private static String key(String name) {
+        String key = name.strip().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return key.startsWith("the ") ? key.substring(4) : key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WorldMap other && names.equals(other.names) && routes.equals(other.routes)
+                && explored.equals(other.explored);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode() * 31 + routes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "WorldMap" + names.values();
+    }
+}
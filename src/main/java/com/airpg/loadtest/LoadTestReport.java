@@ -0,0 +1,126 @@
+package com.airpg.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-command latencies, errors and heap samples during a load test
+ * and renders the summary.
+ */
+final class LoadTestReport {
+
+    private final Map<String, Samples> commands = new ConcurrentHashMap<>();
+    private final Set<String> failedCommands = ConcurrentHashMap.newKeySet();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+    private final AtomicLong heapSampleSum = new AtomicLong();
+    private final AtomicLong heapSampleCount = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    void record(String command, long nanos, boolean success) {
+        commands.computeIfAbsent(command, name -> new Samples()).add(nanos, success);
+    }
+
+    /**
+     * Whether this is the first failure with an exception of the command, over all players
+     */
+    boolean firstFailure(String command) {
+        return failedCommands.add(command);
+    }
+
+    void sampleHeap() {
+        long used = memory.getHeapMemoryUsage().getUsed();
+        peakHeapBytes.accumulateAndGet(used, Math::max);
+        heapSampleSum.addAndGet(used);
+        heapSampleCount.incrementAndGet();
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+        sampleHeap();
+    }
+
+    /**
+     * Render the report as a plain-text table
+     */
+    String render(int players) {
+        double seconds = (endNanos - startNanos) / 1e9;
+        long total = commands.values().stream().mapToLong(Samples::count).sum();
+        long errors = commands.values().stream().mapToLong(Samples::errors).sum();
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%nLoad test: %d players, %.1fs, %d commands (%.1f/s), %d errors%n",
+                players, seconds, total, total / seconds, errors));
+        report.append(String.format("Heap: peak %d MB, mean %d MB%n",
+                peakHeapBytes.get() >> 20,
+                heapSampleCount.get() == 0 ? 0 : (heapSampleSum.get() / heapSampleCount.get()) >> 20));
+        report.append(String.format("%-22s %8s %8s %10s %10s %10s %10s%n",
+                "command", "count", "errors", "mean ms", "p50 ms", "p99 ms", "max ms"));
+        new TreeMap<>(commands).forEach((command, samples) -> {
+            long[] sorted = samples.sorted();
+            report.append(String.format("%-22s %8d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    command, samples.count(), samples.errors(),
+                    millis(mean(sorted)), millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        });
+        return report.toString();
+    }
+
+    private static long mean(long[] sorted) {
+        return sorted.length == 0 ? 0 : Arrays.stream(sorted).sum() / sorted.length;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Latency samples of one command type
+     */
+    private static final class Samples {
+
+        private long[] nanos = new long[64];
+        private int count;
+        private int errors;
+
+        synchronized void add(long sample, boolean success) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = sample;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
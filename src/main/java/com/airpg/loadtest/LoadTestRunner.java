@@ -0,0 +1,97 @@
+package com.airpg.loadtest;
+
+import com.airpg.config.AIConfig;
+import com.airpg.config.LoadTestConfig;
+import com.airpg.services.GameEngine;
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load driver. With loadtest.enabled=true, spawns simulated players
+ * on startup, each with its own game engine, and logs throughput, per-command
+ * latency percentiles and heap usage when they finish.
+ * Meant to run against the mock AI provider (ai.provider=mock).
+ */
+@ApplicationScoped
+public class LoadTestRunner {
+
+    private static final Logger LOG = Logger.getLogger(LoadTestRunner.class);
+
+    @Inject
+    LoadTestConfig config;
+
+    @Inject
+    AIConfig aiConfig;
+
+    @Inject
+    Instance<GameEngine> engines;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!config.enabled()) {
+            return;
+        }
+        if (!"mock".equalsIgnoreCase(aiConfig.provider())) {
+            LOG.warnf("Load test running against real provider '%s'; this spends real tokens", aiConfig.provider());
+        }
+        Thread.ofPlatform().name("load-test-driver").daemon().start(this::run);
+    }
+
+    private void run() {
+        LOG.infof("Load test starting: %d players x %d turns", config.players(), config.turnsPerPlayer());
+        LoadTestReport report = new LoadTestReport();
+        ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+        heapSampler.scheduleAtFixedRate(report::sampleHeap, 0, 500, TimeUnit.MILLISECONDS);
+
+        SplittableRandom seeds = new SplittableRandom(config.seed());
+        long rampUpStep = config.players() > 1 ? config.rampUp().toNanos() / (config.players() - 1) : 0;
+
+        try (ExecutorService players = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < config.players(); i++) {
+                int id = i;
+                SplittableRandom random = seeds.split();
+                long delay = rampUpStep * i;
+                running.add(players.submit(() -> {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                    GameEngine engine = engines.get();
+                    try {
+                        new SimulatedPlayer(id, engine, config, report, random).run();
+                    } finally {
+                        engines.destroy(engine);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> player : running) {
+                try {
+                    player.get();
+                } catch (Exception e) {
+                    LOG.errorf(e, "Simulated player failed");
+                }
+            }
+        } finally {
+            heapSampler.shutdownNow();
+        }
+
+        report.finish();
+        LOG.info(report.render(config.players()));
+
+        if (config.exitWhenDone()) {
+            Quarkus.asyncExit();
+        }
+    }
+}
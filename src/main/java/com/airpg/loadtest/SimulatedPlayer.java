@@ -0,0 +1,151 @@
+package com.airpg.loadtest;
+
+import com.airpg.config.LoadTestConfig;
+import com.airpg.domain.GameState;
+import com.airpg.persistence.PersistenceEvent;
+import com.airpg.services.GameEngine;
+import com.airpg.services.GamePersistenceService;
+import org.jboss.logging.Logger;
+
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One scripted player driving its own {@link GameEngine}.
+ * Mixes exploration, dialogue, info commands, test combat and save/load
+ * (the save is deleted again afterwards) with exponentially distributed think times.
+ * The save and load rows time the whole engine call (agent memories, world
+ * regeneration, clock restart, ...); the database time of each persistence
+ * operation is reported in its own "db ..." row.
+ */
+final class SimulatedPlayer implements Runnable {
+
+    private static final Logger LOG = Logger.getLogger(SimulatedPlayer.class);
+
+    private static final String[] HERO_CLASSES = {"Warrior", "Mage", "Rogue", "Bard"};
+    private static final String[] ACTIONS = {"Look around", "Explore the area", "Search for tracks", "Head north"};
+    private static final String[] INFO = {"stats", "quests", "team", "help"};
+    private static final String[] GREETINGS = {"talk Hello", "talk What news do you have?", "talk Any work for me?"};
+    private static final int MAX_COMBAT_ROUNDS = 20;
+
+    private final int id;
+    private final GameEngine engine;
+    private final LoadTestConfig config;
+    private final LoadTestReport report;
+    private final SplittableRandom random;
+
+    SimulatedPlayer(int id, GameEngine engine, LoadTestConfig config, LoadTestReport report, SplittableRandom random) {
+        this.id = id;
+        this.engine = engine;
+        this.config = config;
+        this.report = report;
+        this.random = random;
+    }
+
+    @Override
+    public void run() {
+        // The engine persists on this thread, so its operations are this player's
+        PersistenceEvent.observe((operation, nanos) -> report.record("db " + operation, nanos, true));
+        try {
+            play();
+        } finally {
+            PersistenceEvent.observe(null);
+        }
+    }
+
+    private void play() {
+        startGame();
+        for (int turn = 0; turn < config.turnsPerPlayer() && !Thread.currentThread().isInterrupted(); turn++) {
+            think();
+            if (engine.getGameState().getStatus() != GameState.GameStatus.IN_PROGRESS) {
+                startGame();
+                continue;
+            }
+            takeTurn();
+        }
+    }
+
+    private void takeTurn() {
+        int roll = random.nextInt(100);
+        if (roll < 35) {
+            command("explore", ACTIONS[random.nextInt(ACTIONS.length)]);
+        } else if (roll < 50) {
+            command("location", "location");
+        } else if (roll < 65) {
+            command("talk", GREETINGS[random.nextInt(GREETINGS.length)]);
+        } else if (roll < 75) {
+            command("info", INFO[random.nextInt(INFO.length)]);
+        } else if (roll < 90) {
+            fight();
+        } else {
+            saveAndLoad();
+        }
+    }
+
+    private void startGame() {
+        String heroClass = HERO_CLASSES[random.nextInt(HERO_CLASSES.length)];
+        timed("new game", () -> engine.startNewGame("Player" + id, heroClass) != null);
+    }
+
+    private void fight() {
+        command("combat start", "combat test");
+        for (int round = 0; round < MAX_COMBAT_ROUNDS && engine.isInCombat(); round++) {
+            think();
+            command("attack", "attack");
+        }
+        if (engine.isInCombat()) {
+            command("flee", "flee");
+        }
+    }
+
+    private void saveAndLoad() {
+        GamePersistenceService.SaveResult[] saved = new GamePersistenceService.SaveResult[1];
+        timed("save", () -> {
+            saved[0] = engine.saveGame("loadtest-" + id);
+            return saved[0].success();
+        });
+        if (saved[0] != null && saved[0].success()) {
+            think();
+            timed("load", () -> engine.loadGame(saved[0].saveId()));
+            // Keep load-test saves out of the players' save list
+            timed("delete", () -> {
+                engine.deleteSave(saved[0].saveId());
+                return true;
+            });
+        }
+    }
+
+    private void command(String label, String input) {
+        timed(label, () -> engine.processPlayerInput(input) != null);
+    }
+
+    private void timed(String label, BooleanSupplier call) {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = call.getAsBoolean();
+        } catch (RuntimeException e) {
+            success = false;
+            if (report.firstFailure(label)) {
+                LOG.warnf(e, "Player %d: '%s' failed (later failures of it are logged at debug level)", id, label);
+            } else {
+                LOG.debugf(e, "Player %d: '%s' failed", id, label);
+            }
+        }
+        report.record(label, System.nanoTime() - start, success);
+    }
+
+    private void think() {
+        long mean = config.thinkTime().toNanos();
+        if (mean <= 0) {
+            return;
+        }
+        long nanos = (long) (-Math.log(1.0 - random.nextDouble()) * mean);
+        nanos = Math.min(nanos, config.maxThinkTime().toNanos());
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,10 +7,12 @@ import jakarta.inject.Inject;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
 
 /**
  * CDI producer for jOOQ DSLContext.
- * Creates a DSLContext using the Quarkus-managed datasource.
+ * Creates a DSLContext using the Quarkus-managed datasource,
+ * with a listener that feeds SQL counts into JFR persistence events.
  */
 @ApplicationScoped
 public class DSLContextProducer {
@@ -21,6 +23,9 @@ public class DSLContextProducer {
     @Produces
     @ApplicationScoped
     public DSLContext produceDSLContext() {
-        return DSL.using(dataSource, SQLDialect.H2);
+        return DSL.using(new DefaultConfiguration()
+                .set(dataSource)
+                .set(SQLDialect.H2)
+                .set(new PersistenceEventListener()));
     }
 }
@@ -0,0 +1,80 @@
+package com.airpg.persistence;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * JFR event for one persistence operation (save, load, list, delete).
+ * Statement and row counts are filled in by {@link PersistenceEventListener}
+ * for queries run on the same thread while the operation is active.
+ * A thread can also {@link #observe} the duration of its operations, e.g. to report
+ * the database time of a load test separately from the engine work around it.
+ */
+@Name("airpg.Persistence")
+@Label("Persistence Operation")
+@Category({"AI RPG", "Persistence"})
+@Description("A game save/load operation and the SQL it ran")
+@StackTrace(false)
+public class PersistenceEvent extends Event {
+
+    private static final ThreadLocal<PersistenceEvent> ACTIVE = new ThreadLocal<>();
+    private static final ThreadLocal<ObjLongConsumer<String>> OBSERVER = new ThreadLocal<>();
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Rows Written")
+    long rowsWritten;
+
+    @Label("Rows Read")
+    long rowsRead;
+
+    // Transient: not part of the recorded event
+    private transient long startNanos;
+
+    /**
+     * Begin an operation on this thread; must be paired with {@link #finish()}
+     */
+    public static PersistenceEvent start(String operation) {
+        PersistenceEvent event = new PersistenceEvent();
+        event.operation = operation;
+        event.begin();
+        event.startNanos = System.nanoTime();
+        ACTIVE.set(event);
+        return event;
+    }
+
+    public void finish() {
+        ACTIVE.remove();
+        commit();
+        ObjLongConsumer<String> observer = OBSERVER.get();
+        if (observer != null) {
+            observer.accept(operation, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Report the operation name and duration in nanoseconds of every operation
+     * this thread finishes to the observer, or stop reporting with null
+     */
+    public static void observe(ObjLongConsumer<String> observer) {
+        if (observer == null) {
+            OBSERVER.remove();
+        } else {
+            OBSERVER.set(observer);
+        }
+    }
+
+    static PersistenceEvent active() {
+        return ACTIVE.get();
+    }
+}
@@ -0,0 +1,30 @@
+package com.airpg.persistence;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+
+/**
+ * jOOQ listener that adds statement and row counts to the active {@link PersistenceEvent}
+ */
+class PersistenceEventListener implements ExecuteListener {
+
+    @Override
+    public void executeEnd(ExecuteContext ctx) {
+        PersistenceEvent event = PersistenceEvent.active();
+        if (event == null) {
+            return;
+        }
+        event.statements++;
+        if (ctx.rows() > 0) {
+            event.rowsWritten += ctx.rows();
+        }
+    }
+
+    @Override
+    public void fetchEnd(ExecuteContext ctx) {
+        PersistenceEvent event = PersistenceEvent.active();
+        if (event != null && ctx.result() != null) {
+            event.rowsRead += ctx.result().size();
+        }
+    }
+}
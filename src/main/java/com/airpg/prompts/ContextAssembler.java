@@ -0,0 +1,157 @@
+package com.airpg.prompts;
+
+import com.airpg.domain.NPC;
+import com.airpg.domain.TeamMember;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Assembles what an NPC or companion agent is told, keeping repeated content out of its requests.
+ * <ul>
+ *   <li>Stable persona facts (name, role, personality, agenda, backstory) go into the agent's
+ *       system message via {@link #npcPersona} and {@link #companionPersona}; the chat memory keeps
+ *       one system message, so they are sent once per request rather than once per remembered turn.</li>
+ *   <li>Facts that change now and then (location, loyalty, ...) are collected with {@link #facts};
+ *       a fact is left out when the agent's memory already holds it with the same value.</li>
+ *   <li>Free text is {@link #compact compacted}, dropping runs of blanks and empty lines.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class ContextAssembler {
+
+    @Inject
+    PromptLibrary prompts;
+
+    /**
+     * An assembler on the bundled templates, for use outside the container (e.g. benchmarks)
+     */
+    public static ContextAssembler bundled() {
+        ContextAssembler assembler = new ContextAssembler();
+        assembler.prompts = PromptLibrary.bundled();
+        return assembler;
+    }
+
+    /**
+     * The system message part describing an NPC
+     */
+    public String npcPersona(NPC npc) {
+        return compact(prompts.get("npc/persona").bind()
+                .set("name", npc.getName())
+                .set("role", npc.getRole())
+                .set("personality", npc.getPersonality())
+                .set("agenda", npc.getAgenda())
+                .render());
+    }
+
+    /**
+     * The system message part describing a companion
+     */
+    public String companionPersona(TeamMember companion) {
+        return compact(prompts.get("team/persona").bind()
+                .set("name", companion.getName())
+                .set("characterClass", companion.getCharacterClass())
+                .set("personality", companion.getPersonality())
+                .set("backstory", companion.getBackstory())
+                .render());
+    }
+
+    /**
+     * Start collecting the facts of one request
+     *
+     * @param memory the messages the agent will still remember after this exchange
+     */
+    public Facts facts(List<ChatMessage> memory) {
+        return new Facts(memory);
+    }
+
+    /**
+     * The text with each line stripped, runs of spaces and tabs collapsed to one space
+     * and runs of empty lines collapsed to one
+     */
+    public static String compact(CharSequence text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        boolean blank = false;
+        int newlines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                blank = false;
+                newlines++;
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                blank = true;
+            } else {
+                if (!out.isEmpty()) {
+                    if (newlines > 0) {
+                        out.append(newlines > 1 ? "\n\n" : "\n");
+                    } else if (blank) {
+                        out.append(' ');
+                    }
+                }
+                out.append(c);
+                blank = false;
+                newlines = 0;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Labelled facts for one request, rendered one per line as {@code Label: value}
+     */
+    public static final class Facts {
+
+        private final List<ChatMessage> memory;
+        private final StringBuilder lines = new StringBuilder();
+
+        private Facts(List<ChatMessage> memory) {
+            this.memory = memory;
+        }
+
+        /**
+         * Add a fact unless the agent's most recent statement of it had the same value
+         *
+         * @param value the fact, or null to leave it out
+         */
+        public Facts add(String label, Object value) {
+            if (value == null) {
+                return this;
+            }
+            String line = label + ": " + compact(String.valueOf(value)).replace('\n', ' ');
+            if (!line.equals(lastStated(label + ": "))) {
+                lines.append(line).append('\n');
+            }
+            return this;
+        }
+
+        /**
+         * The facts to send, ending with a blank line; empty if the agent knows them all
+         */
+        public String render() {
+            return lines.isEmpty() ? "" : lines + "\n";
+        }
+
+        private String lastStated(String prefix) {
+            for (int i = memory.size() - 1; i >= 0; i--) {
+                if (memory.get(i) instanceof UserMessage message && message.hasSingleText()) {
+                    String stated = null;
+                    for (String line : message.singleText().split("\n")) {
+                        if (line.startsWith(prefix)) {
+                            stated = line;
+                        }
+                    }
+                    if (stated != null) {
+                        return stated;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
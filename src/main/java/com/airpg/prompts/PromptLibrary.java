@@ -0,0 +1,106 @@
+package com.airpg.prompts;
+
+import com.airpg.config.PromptConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The agents' prompt templates, by name (e.g. {@code world/travel}), compiled on first use
+ * and kept. Templates are bundled as {@code prompts/<name>.txt} resources; with
+ * prompts.directory set, a file {@code <name>.txt} there replaces the bundled template,
+ * so prompts can be tuned without recompiling. A tuned template may use fewer slots
+ * than the bundled one, but not others: those would never be filled.
+ */
+@ApplicationScoped
+public class PromptLibrary {
+
+    private static final Logger LOG = Logger.getLogger(PromptLibrary.class);
+    private static final String RESOURCE_PREFIX = "prompts/";
+    private static final String EXTENSION = ".txt";
+
+    @Inject
+    PromptConfig config;
+
+    private Path directory;
+    private final Map<String, PromptTemplate> templates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        directory = config.directory().map(Path::of).orElse(null);
+        if (directory != null) {
+            LOG.infof("Prompt templates in %s replace the bundled ones", directory.toAbsolutePath());
+        }
+    }
+
+    /**
+     * A library of the bundled templates only, for use outside the container (e.g. benchmarks)
+     */
+    public static PromptLibrary bundled() {
+        return new PromptLibrary();
+    }
+
+    /**
+     * The compiled template
+     *
+     * @throws IllegalArgumentException if there is no bundled template with this name
+     */
+    public PromptTemplate get(String name) {
+        PromptTemplate template = templates.get(name);
+        return template != null ? template : templates.computeIfAbsent(name, this::load);
+    }
+
+    private PromptTemplate load(String name) {
+        PromptTemplate bundled = PromptTemplate.compile(name, readBundled(name));
+        if (directory == null) {
+            return bundled;
+        }
+        Path file = directory.resolve(name + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return bundled;
+        }
+        try {
+            PromptTemplate tuned = PromptTemplate.compile(name, normalize(Files.readString(file)));
+            Set<String> unknown = new HashSet<>(tuned.slots());
+            unknown.removeAll(bundled.slots());
+            if (!unknown.isEmpty()) {
+                LOG.warnf("Ignoring prompt %s: slots %s are not filled by the game (available: %s)",
+                        file, unknown, bundled.slots());
+                return bundled;
+            }
+            LOG.infof("Using tuned prompt %s", file);
+            return tuned;
+        } catch (IOException e) {
+            LOG.warnf("Cannot read prompt %s, using the bundled one: %s", file, e.getMessage());
+            return bundled;
+        }
+    }
+
+    private static String readBundled(String name) {
+        String resource = RESOURCE_PREFIX + name + EXTENSION;
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown prompt template: " + name);
+            }
+            return normalize(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.replace("\r\n", "\n");
+    }
+}
@@ -0,0 +1,228 @@
+package com.airpg.prompts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A prompt with named slots, written as {@code {slotName}}, compiled once into literal
+ * segments and slot references. A brace that doesn't open a valid slot name is kept as text.
+ * <p>
+ * Rendering fills the slots of a pooled {@link Binding} and appends segments and values
+ * into its reused {@link StringBuilder}, so a prompt costs one string and no format parsing:
+ * <pre>{@code
+ * String prompt = template.bind()
+ *         .set("hero", hero.getName())
+ *         .set("level", hero.getLevel())
+ *         .render();
+ * }</pre>
+ * Setting a slot the template doesn't use is ignored, so tuned templates may leave out details;
+ * rendering with a used slot unset is an error. Thread-safe.
+ */
+public final class PromptTemplate {
+
+    /** Bindings kept for reuse per template; more concurrent renders just allocate */
+    private static final int POOL_SIZE = 16;
+    /** Builders grown beyond this by an unusually large prompt are not kept */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    /** Room reserved per slot when sizing a new builder */
+    private static final int SLOT_ESTIMATE = 32;
+
+    private final String name;
+    private final String source;
+    /** Segment texts; null where the segment is a slot */
+    private final String[] literals;
+    /** Slot index of each segment, or -1 for text */
+    private final int[] segmentSlots;
+    private final String[] slotNames;
+    private final int initialCapacity;
+    private final BlockingQueue<Binding> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private PromptTemplate(String name, String source, List<String> literals, List<Integer> segmentSlots,
+                           List<String> slotNames) {
+        this.name = name;
+        this.source = source;
+        this.literals = literals.toArray(String[]::new);
+        this.segmentSlots = segmentSlots.stream().mapToInt(Integer::intValue).toArray();
+        this.slotNames = slotNames.toArray(String[]::new);
+        int literalLength = literals.stream().mapToInt(text -> text == null ? 0 : text.length()).sum();
+        this.initialCapacity = literalLength + SLOT_ESTIMATE * this.slotNames.length;
+    }
+
+    /**
+     * Compile a template text
+     *
+     * @param name identifies the template in errors
+     */
+    public static PromptTemplate compile(String name, String text) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> segmentSlots = new ArrayList<>();
+        List<String> slotNames = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int end = c == '{' ? slotEnd(text, i) : -1;
+            if (end < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (!literal.isEmpty()) {
+                literals.add(literal.toString());
+                segmentSlots.add(-1);
+                literal.setLength(0);
+            }
+            String slot = text.substring(i + 1, end);
+            int index = slotNames.indexOf(slot);
+            if (index < 0) {
+                index = slotNames.size();
+                slotNames.add(slot);
+            }
+            literals.add(null);
+            segmentSlots.add(index);
+            i = end + 1;
+        }
+        if (!literal.isEmpty()) {
+            literals.add(literal.toString());
+            segmentSlots.add(-1);
+        }
+        return new PromptTemplate(name, text, literals, segmentSlots, slotNames);
+    }
+
+    /**
+     * Index of the closing brace of a slot starting at {@code open}, or -1 if it isn't one
+     */
+    private static int slotEnd(String text, int open) {
+        int i = open + 1;
+        if (i >= text.length() || !Character.isJavaIdentifierStart(text.charAt(i))) {
+            return -1;
+        }
+        while (i < text.length() && Character.isJavaIdentifierPart(text.charAt(i))) {
+            i++;
+        }
+        return i < text.length() && text.charAt(i) == '}' ? i : -1;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * The template text as written
+     */
+    public String source() {
+        return source;
+    }
+
+    /**
+     * Names of the slots used, in order of first use
+     */
+    public List<String> slots() {
+        return List.of(slotNames);
+    }
+
+    /**
+     * Start filling the slots for one rendering
+     */
+    public Binding bind() {
+        Binding binding = pool.poll();
+        return binding != null ? binding : new Binding();
+    }
+
+    private int slotIndex(String slot) {
+        for (int i = 0; i < slotNames.length; i++) {
+            // Slot names are usually the same literal on both sides
+            if (slotNames[i] == slot || slotNames[i].equals(slot)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "PromptTemplate[" + name + ", slots " + Arrays.toString(slotNames) + "]";
+    }
+
+    /**
+     * Slot values for one rendering. Returned to the template's pool by {@link #render()},
+     * so it must not be used afterwards.
+     */
+    public final class Binding {
+
+        private final CharSequence[] texts = new CharSequence[slotNames.length];
+        private final long[] numbers = new long[slotNames.length];
+        private final boolean[] isNumber = new boolean[slotNames.length];
+        private final boolean[] isSet = new boolean[slotNames.length];
+        private StringBuilder out = new StringBuilder(initialCapacity);
+
+        private Binding() {
+        }
+
+        public Binding set(String slot, CharSequence value) {
+            int index = slotIndex(slot);
+            if (index >= 0) {
+                texts[index] = value == null ? "null" : value;
+                isNumber[index] = false;
+                isSet[index] = true;
+            }
+            return this;
+        }
+
+        public Binding set(String slot, long value) {
+            int index = slotIndex(slot);
+            if (index >= 0) {
+                numbers[index] = value;
+                isNumber[index] = true;
+                isSet[index] = true;
+            }
+            return this;
+        }
+
+        public Binding set(String slot, boolean value) {
+            return set(slot, value ? "true" : "false");
+        }
+
+        public Binding set(String slot, Object value) {
+            return set(slot, String.valueOf(value));
+        }
+
+        /**
+         * The prompt with all slots filled
+         *
+         * @throws IllegalStateException if a slot the template uses was not set
+         */
+        public String render() {
+            StringBuilder text = out;
+            text.setLength(0);
+            for (int i = 0; i < literals.length; i++) {
+                int slot = segmentSlots[i];
+                if (slot < 0) {
+                    text.append(literals[i]);
+                } else if (!isSet[slot]) {
+                    reset();
+                    throw new IllegalStateException("Slot '" + slotNames[slot] + "' of prompt " + name + " is not set");
+                } else if (isNumber[slot]) {
+                    text.append(numbers[slot]);
+                } else {
+                    text.append(texts[slot]);
+                }
+            }
+            String prompt = text.toString();
+            if (text.capacity() > MAX_RETAINED_CAPACITY) {
+                out = new StringBuilder(initialCapacity);
+            }
+            reset();
+            pool.offer(this);
+            return prompt;
+        }
+
+        private void reset() {
+            Arrays.fill(texts, null);
+            Arrays.fill(isSet, false);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.airpg.recording;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of a recording file: a deflate stream (flushed after every entry, so a file
+ * cut off by a crash is still readable) holding a header and a sequence of entries.
+ * Each entry is a type byte and the milliseconds since the recording started,
+ * followed by the fields of {@link SessionRecording.Seed}, {@link SessionRecording.Input}
+ * or {@link SessionRecording.Exchange}.
+ */
+final class RecordingFormat {
+
+    static final String EXTENSION = ".airec";
+    static final int MAGIC = 0x41495245;
+    static final int VERSION = 1;
+
+    static final byte SEED = 1;
+    static final byte INPUT = 2;
+    static final byte EXCHANGE = 3;
+
+    private RecordingFormat() {
+    }
+
+    /**
+     * Length-prefixed UTF-8 (unlike writeUTF, not limited to 64 KB)
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,24 @@
+package com.airpg.recording;
+
+import com.airpg.config.RecordingConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.nio.file.Path;
+
+/**
+ * Hands out the {@link SessionRecorder} of each game engine.
+ */
+@ApplicationScoped
+public class RecordingService {
+
+    @Inject
+    RecordingConfig config;
+
+    /**
+     * A recorder writing to the configured directory, or {@link SessionRecorder#NONE} when recording is off
+     */
+    public SessionRecorder newRecorder() {
+        return config.enabled() ? new SessionRecorder(Path.of(config.directory())) : SessionRecorder.NONE;
+    }
+}
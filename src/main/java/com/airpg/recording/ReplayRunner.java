@@ -0,0 +1,162 @@
+package com.airpg.recording;
+
+import com.airpg.config.AIConfig;
+import com.airpg.config.RecordingConfig;
+import com.airpg.services.DiceService;
+import com.airpg.services.GameEngine;
+import com.airpg.services.GamePersistenceService;
+import com.airpg.services.StreamingResponseHandler;
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Offline reproduction of a recorded session. With recording.replay-file set, re-issues
+ * the recording's inputs in order against a fresh engine on startup, with the recorded
+ * dice seeds, and logs how long each took. Together with ai.provider=mock, which then
+ * answers with the recorded replies and latencies, a reported session runs again
+ * without a real provider, e.g. under a profiler.
+ */
+@ApplicationScoped
+public class ReplayRunner {
+
+    private static final Logger LOG = Logger.getLogger(ReplayRunner.class);
+    private static final int PREVIEW_LENGTH = 60;
+
+    @Inject
+    RecordingConfig config;
+
+    @Inject
+    AIConfig aiConfig;
+
+    @Inject
+    DiceService diceService;
+
+    @Inject
+    Instance<GameEngine> engines;
+
+    void onStart(@Observes StartupEvent event) {
+        if (config.replayFile().isEmpty()) {
+            return;
+        }
+        if (!"mock".equalsIgnoreCase(aiConfig.provider())) {
+            LOG.warnf("Replaying against real provider '%s'; recorded replies are only served by the mock provider",
+                    aiConfig.provider());
+        }
+        Thread.ofPlatform().name("session-replay").daemon().start(this::run);
+    }
+
+    private void run() {
+        Path file = Path.of(config.replayFile().get());
+        try {
+            replay(SessionRecording.read(file));
+        } catch (IOException e) {
+            LOG.errorf("Cannot read recording %s: %s", file, e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Replay of %s failed", file);
+        }
+
+        if (config.exitWhenDone()) {
+            Quarkus.asyncExit();
+        }
+    }
+
+    private void replay(SessionRecording recording) {
+        List<SessionRecording.Input> inputs = recording.inputs();
+        LOG.infof("Replaying %s: %d inputs, %d agent requests",
+                recording.file(), inputs.size(), recording.exchanges().size());
+        diceService.replaySeeds(recording.seeds());
+
+        // Saves get new ids in this run; loads of recorded saves follow them
+        Map<String, Long> saveIds = new HashMap<>();
+        GameEngine engine = engines.get();
+        long replayStart = System.nanoTime();
+        try {
+            for (SessionRecording.Input input : inputs) {
+                long start = System.nanoTime();
+                String outcome = issue(engine, input, saveIds);
+                LOG.infof("%-8s %6d ms (recorded at %d ms)  %s -> %s", input.kind(),
+                        (System.nanoTime() - start) / 1_000_000, input.at(),
+                        preview(String.join(" / ", input.args())), preview(outcome));
+            }
+        } finally {
+            engines.destroy(engine);
+        }
+        LOG.infof("Replay finished in %d ms", (System.nanoTime() - replayStart) / 1_000_000);
+    }
+
+    private static String issue(GameEngine engine, SessionRecording.Input input, Map<String, Long> saveIds) {
+        List<String> args = input.args();
+        return switch (input.kind()) {
+            case NEW_GAME -> input.streaming()
+                    ? streamed(handler -> engine.startNewGameStreaming(args.get(0), args.get(1), handler))
+                    : engine.startNewGame(args.get(0), args.get(1));
+            case ACTION -> input.streaming()
+                    ? streamed(handler -> engine.processPlayerInputStreaming(args.get(0), handler))
+                    : engine.processPlayerInput(args.get(0));
+            case SAVE -> {
+                GamePersistenceService.SaveResult result = engine.saveGame(args.get(0));
+                if (result.saveId() != null) {
+                    saveIds.put(args.get(1), result.saveId());
+                }
+                yield result.message();
+            }
+            case LOAD -> {
+                Long saveId = saveIds.get(args.get(0));
+                if (saveId == null) {
+                    // A save made before the recording started must exist in this database
+                    saveId = Long.valueOf(args.get(0));
+                }
+                yield engine.loadGame(saveId) ? "Loaded save " + saveId : "Save " + saveId + " not found";
+            }
+        };
+    }
+
+    /**
+     * Run a streaming engine call to completion
+     */
+    private static String streamed(Consumer<StreamingResponseHandler> call) {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        call.accept(new StreamingResponseHandler() {
+            @Override
+            public void onToken(String token) {
+            }
+
+            @Override
+            public void onComplete(String fullResponse) {
+                response.complete(fullResponse);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                response.completeExceptionally(error);
+            }
+        });
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            return "Failed: " + e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay interrupted", e);
+        }
+    }
+
+    private static String preview(String text) {
+        String line = text.replace('\n', ' ').strip();
+        return line.length() <= PREVIEW_LENGTH ? line : line.substring(0, PREVIEW_LENGTH) + "...";
+    }
+}
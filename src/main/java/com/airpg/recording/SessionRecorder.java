@@ -0,0 +1,174 @@
+package com.airpg.recording;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Append-only recording of one player's sessions: inputs, dice seeds and every agent
+ * request with its reply. Each engine owns one recorder and {@link #start starts} a new
+ * file per new or loaded game. Model calls find the recorder of the session they serve
+ * through {@link #current()}, so the engine {@link #activate activates} it around its
+ * entry points and callbacks, and background tasks carry it along with {@link #wrap}.
+ * Writing failures are logged and stop the recording; they never fail the game.
+ */
+public final class SessionRecorder implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(SessionRecorder.class);
+
+    /** Records nothing; used when recording is off and outside of any session */
+    public static final SessionRecorder NONE = new SessionRecorder(null);
+
+    private static final ThreadLocal<SessionRecorder> CURRENT = new ThreadLocal<>();
+
+    private final Path directory;
+    private DataOutputStream out;
+    private long startNanos;
+
+    SessionRecorder(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Restores the previously active recorder when closed
+     */
+    public interface Activation extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Recorder of the session the current thread works for
+     */
+    public static SessionRecorder current() {
+        SessionRecorder recorder = CURRENT.get();
+        return recorder != null ? recorder : NONE;
+    }
+
+    public Activation activate() {
+        SessionRecorder previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * A task that runs with this recorder active, e.g. on an executor thread
+     */
+    public Runnable wrap(Runnable task) {
+        if (this == NONE) {
+            return task;
+        }
+        return () -> {
+            try (Activation ignored = activate()) {
+                task.run();
+            }
+        };
+    }
+
+    public synchronized boolean isRecording() {
+        return out != null;
+    }
+
+    /**
+     * Close the current file and start recording a new session into a fresh one
+     */
+    public synchronized void start(String gameId, long diceSeed) {
+        if (directory == null) {
+            return;
+        }
+        close();
+        Path file = directory.resolve(gameId + "-" + System.currentTimeMillis() + RecordingFormat.EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            out = new DataOutputStream(new DeflaterOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)), true));
+            startNanos = System.nanoTime();
+            out.writeInt(RecordingFormat.MAGIC);
+            out.writeInt(RecordingFormat.VERSION);
+            LOG.infof("Recording game %s to %s", gameId, file);
+        } catch (IOException e) {
+            LOG.warnf("Cannot record game %s to %s: %s", gameId, file, e.getMessage());
+            out = null;
+            return;
+        }
+        write(RecordingFormat.SEED, data -> {
+            RecordingFormat.writeString(data, gameId);
+            data.writeLong(diceSeed);
+        });
+    }
+
+    public void input(SessionRecording.InputKind kind, boolean streaming, String... args) {
+        write(RecordingFormat.INPUT, data -> {
+            data.writeByte(kind.ordinal());
+            data.writeBoolean(streaming);
+            data.writeByte(args.length);
+            for (String arg : args) {
+                RecordingFormat.writeString(data, arg != null ? arg : "");
+            }
+        });
+    }
+
+    /**
+     * Record a model request with its reply text ({@code null} when the request failed)
+     */
+    public void exchange(List<ChatMessage> request, String response, long firstTokenNanos, long totalNanos) {
+        if (!isRecording()) {
+            return;
+        }
+        String messages = ChatMessageSerializer.messagesToJson(request);
+        write(RecordingFormat.EXCHANGE, data -> {
+            RecordingFormat.writeString(data, messages);
+            RecordingFormat.writeString(data, response != null ? response : "");
+            data.writeBoolean(response == null);
+            data.writeLong(firstTokenNanos / 1_000_000);
+            data.writeLong(totalNanos / 1_000_000);
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOG.warnf("Cannot close recording: %s", e.getMessage());
+        }
+        out = null;
+    }
+
+    private interface Fields {
+        void write(DataOutputStream data) throws IOException;
+    }
+
+    private synchronized void write(byte type, Fields fields) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.writeByte(type);
+            out.writeLong((System.nanoTime() - startNanos) / 1_000_000);
+            fields.write(out);
+            out.flush();
+        } catch (IOException e) {
+            LOG.warnf("Recording stopped after a write failure: %s", e.getMessage());
+            close();
+        }
+    }
+}
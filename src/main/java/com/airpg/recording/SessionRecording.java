@@ -0,0 +1,121 @@
+package com.airpg.recording;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A recording read back from disk: the session's entries in the order they were written.
+ */
+public record SessionRecording(Path file, List<Entry> entries) {
+
+    /**
+     * What a player did, re-issued in order on replay
+     */
+    public enum InputKind {
+        NEW_GAME, ACTION, SAVE, LOAD
+    }
+
+    public sealed interface Entry permits Seed, Input, Exchange {
+
+        /**
+         * Milliseconds since the recording started
+         */
+        long at();
+    }
+
+    /**
+     * Dice seed of the recorded session
+     */
+    public record Seed(long at, String gameId, long seed) implements Entry {
+    }
+
+    /**
+     * A player input; {@code args} are the engine call's arguments
+     * (hero name and class, the action text, the save name and id, the loaded save id)
+     */
+    public record Input(long at, InputKind kind, boolean streaming, List<String> args) implements Entry {
+    }
+
+    /**
+     * One model request (serialized messages) and its reply; {@code response} is empty for failed requests
+     */
+    public record Exchange(long at, String request, String response, boolean failed,
+                           long firstTokenMillis, long totalMillis) implements Entry {
+    }
+
+    public static SessionRecording read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(raw)))) {
+            if (in.readInt() != RecordingFormat.MAGIC) {
+                throw new IOException("Not a session recording: " + file);
+            }
+            int version = in.readInt();
+            if (version != RecordingFormat.VERSION) {
+                throw new IOException("Unsupported recording version " + version + ": " + file);
+            }
+            try {
+                while (true) {
+                    entries.add(readEntry(in));
+                }
+            } catch (EOFException e) {
+                // End of the recording, or the last flush before the session stopped
+            }
+        }
+        return new SessionRecording(file, List.copyOf(entries));
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        long at = in.readLong();
+        return switch (type) {
+            case RecordingFormat.SEED -> new Seed(at, RecordingFormat.readString(in), in.readLong());
+            case RecordingFormat.INPUT -> {
+                InputKind kind = InputKind.values()[in.readByte()];
+                boolean streaming = in.readBoolean();
+                int count = in.readByte();
+                List<String> args = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    args.add(RecordingFormat.readString(in));
+                }
+                yield new Input(at, kind, streaming, List.copyOf(args));
+            }
+            case RecordingFormat.EXCHANGE -> new Exchange(at,
+                    RecordingFormat.readString(in), RecordingFormat.readString(in), in.readBoolean(),
+                    in.readLong(), in.readLong());
+            default -> throw new IOException("Unknown recording entry type " + type);
+        };
+    }
+
+    /**
+     * Dice seeds of the recorded sessions, in order
+     */
+    public List<Long> seeds() {
+        return entries.stream()
+                .filter(Seed.class::isInstance)
+                .map(entry -> ((Seed) entry).seed())
+                .toList();
+    }
+
+    public List<Input> inputs() {
+        return entries.stream()
+                .filter(Input.class::isInstance)
+                .map(Input.class::cast)
+                .toList();
+    }
+
+    public List<Exchange> exchanges() {
+        return entries.stream()
+                .filter(Exchange.class::isInstance)
+                .map(Exchange.class::cast)
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.airpg.services;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Mechanical intents of free-text actions, recognized by {@link IntentService}.
+ * OTHER covers everything the narrator should handle as a free-form action.
+ */
+public enum ActionIntent {
+
+    TRAVEL("go", "travel", "walk", "head", "journey", "return", "ride", "leave", "set", "off", "venture",
+            "move", "back"),
+    TALK("talk", "speak", "chat", "ask", "greet", "say", "hello", "hi", "tell", "converse", "have", "word"),
+    ATTACK("attack", "fight", "strike", "kill", "ambush", "charge", "slay", "engage", "hit", "battle",
+            "start", "draw", "my", "sword", "and"),
+    REST("rest", "sleep", "camp", "nap", "take", "break", "relax", "recover", "make", "get", "some"),
+    INSPECT("look", "inspect", "examine", "search", "study", "observe", "check", "survey", "investigate",
+            "closely"),
+    OTHER;
+
+    private static final Set<String> FILLER = Set.of(
+            "the", "a", "an", "to", "at", "with", "for", "about", "into", "towards", "toward", "on", "in", "up",
+            "over", "by", "and", "around", "here", "there", "area", "surroundings", "me", "us");
+
+    private final Set<String> leadWords;
+
+    ActionIntent(String... leadWords) {
+        this.leadWords = Set.copyOf(Arrays.asList(leadWords));
+    }
+
+    /**
+     * What the action is aimed at: the input without its leading verb and filler words
+     * (e.g. "travel to the dark forest" -> "dark forest", "look around" -> "")
+     */
+    public String target(String input) {
+        String[] words = input.trim().toLowerCase().split("\\s+");
+        int start = 0;
+        while (start < words.length && (leadWords.contains(words[start]) || FILLER.contains(words[start]))) {
+            start++;
+        }
+        return String.join(" ", Arrays.copyOfRange(words, start, words.length));
+    }
+}
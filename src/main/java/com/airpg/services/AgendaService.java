@@ -0,0 +1,89 @@
+package com.airpg.services;
+
+import com.airpg.agents.AgentService;
+import com.airpg.config.GameConfig;
+import com.airpg.domain.GameState;
+import com.airpg.recording.SessionRecorder;
+import com.airpg.world.WorldClock;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the {@link WorldClock} of each game, so NPCs away from the party pursue their agendas.
+ * Agendas advance mechanically on every tick; only the occasional summary of what several
+ * NPCs did goes to the chronicler agent, as one background-priority call per batch.
+ */
+@ApplicationScoped
+public class AgendaService {
+
+    private static final Logger LOG = Logger.getLogger(AgendaService.class);
+    private static final Pattern NUMBERED_LINE = Pattern.compile("^\\s*(\\d+)[.):]\\s*(.+)$");
+    /** Longest summary kept per NPC (the saved column holds 500 characters) */
+    private static final int MAX_SUMMARY_LENGTH = 300;
+
+    @Inject
+    GameConfig gameConfig;
+
+    @Inject
+    AgentService agentService;
+
+    /**
+     * Start the clock of a new or loaded game, observing its current off-screen NPCs
+     *
+     * @return the running clock, or {@link WorldClock#STOPPED} if agendas are disabled
+     */
+    public WorldClock startClock(GameState gameState) {
+        GameConfig.AgendaConfig config = gameConfig.agendas();
+        if (!config.enabled()) {
+            return WorldClock.STOPPED;
+        }
+        // Chronicler calls belong to the session that started the clock
+        SessionRecorder recorder = SessionRecorder.current();
+        WorldClock clock = new WorldClock(config, gameState.getDice().split(),
+                activities -> {
+                    try (SessionRecorder.Activation ignored = recorder.activate()) {
+                        return summarize(activities);
+                    }
+                },
+                "world-clock-" + gameState.getGameId());
+        clock.observe(gameState);
+        return clock;
+    }
+
+    private Map<String, String> summarize(List<WorldClock.Activity> activities) {
+        StringBuilder prompt = new StringBuilder();
+        for (int i = 0; i < activities.size(); i++) {
+            WorldClock.Activity activity = activities.get(i);
+            prompt.append(i + 1).append(". ")
+                    .append(activity.name()).append(", ").append(activity.role())
+                    .append(", now at ").append(activity.location())
+                    .append(". Goal: ").append(activity.agenda())
+                    .append(". Progress: ").append(activity.stage()).append(".\n");
+        }
+        String answer = agentService.getChronicler().summarize(prompt.toString());
+
+        Map<String, String> summaries = new HashMap<>();
+        for (String line : answer.split("\n")) {
+            Matcher matcher = NUMBERED_LINE.matcher(line);
+            if (matcher.matches()) {
+                int index = Integer.parseInt(matcher.group(1)) - 1;
+                if (index >= 0 && index < activities.size()) {
+                    String summary = matcher.group(2).strip();
+                    if (summary.length() > MAX_SUMMARY_LENGTH) {
+                        summary = summary.substring(0, MAX_SUMMARY_LENGTH);
+                    }
+                    summaries.put(activities.get(index).npcId(), summary);
+                }
+            }
+        }
+        LOG.debugf("Chronicler summed up %d of %d off-screen NPCs", summaries.size(), activities.size());
+        return summaries;
+    }
+}
@@ -0,0 +1,41 @@
+package com.airpg.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one combat round (all combatants acting, including companion decisions)
+ */
+@Name("airpg.CombatRound")
+@Label("Combat Round")
+@Category({"AI RPG", "Combat"})
+@Description("One round of combat in which every living combatant acts")
+@StackTrace(false)
+class CombatRoundEvent extends Event {
+
+    @Label("Encounter")
+    String encounterId;
+
+    @Label("Dice Seed")
+    @Description("Seed of the encounter's dice, to replay its rolls")
+    long diceSeed;
+
+    @Label("Turn")
+    int turn;
+
+    @Label("Party Combatants")
+    @Description("Living party members at the start of the round")
+    int partyCombatants;
+
+    @Label("Enemy Combatants")
+    @Description("Living enemies at the start of the round")
+    int enemyCombatants;
+
+    @Label("Outcome")
+    @Description("Encounter status after the round (IN_PROGRESS, PLAYER_VICTORY, PLAYER_DEFEAT)")
+    String outcome;
+}
@@ -2,14 +2,19 @@ package com.airpg.services;
 
 import com.airpg.agents.AgentService;
 import com.airpg.agents.CombatNarratorAgent;
+import com.airpg.agents.CompanionDecision;
+import com.airpg.combat.CombatMechanics;
+import com.airpg.combat.CompanionPolicy;
+import com.airpg.config.GameConfig;
 import com.airpg.domain.*;
+import com.airpg.prompts.PromptLibrary;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -20,7 +25,6 @@ import java.util.UUID;
 public class CombatService {
     
     private static final Logger LOG = Logger.getLogger(CombatService.class);
-    private final Random random = new Random();
     
     @Inject
     AgentService agentService;
@@ -28,9 +32,16 @@ public class CombatService {
     @Inject
     TeamService teamService;
     
+    @Inject
+    GameConfig gameConfig;
+    
+    @Inject
+    PromptLibrary prompts;
+    
     /**
      * Start a combat encounter
      */
+    @WithSpan
     public String startCombat(List<NPC> enemies, GameState gameState) {
         // Build party (hero + team members)
         List<GameCharacter> party = new ArrayList<>();
@@ -44,58 +55,65 @@ public class CombatService {
                 .status(CombatEncounter.CombatStatus.IN_PROGRESS)
                 .currentTurn(1)
                 .location(gameState.getCurrentLocation())
+                .dice(gameState.getDice().split())
                 .build();
         
         gameState.startCombat(combat);
         
         // Generate opening narration
-        CombatNarratorAgent narrator = agentService.getCombatNarrator();
+        CombatNarratorAgent narrator = agentService.getCombatNarrator(gameState.getSessionId());
         
-        String context = String.format("""
-                Combat begins!
-                Location: %s
-                Party: %s (level %d) + %d companions
-                Enemies: %s
-                
-                Set the scene for this battle.
-                """,
-                combat.getLocation(),
-                gameState.getHero().getName(),
-                gameState.getHero().getLevel(),
-                gameState.getTeamMembers().size(),
-                enemies.stream().map(NPC::getName).toList()
-        );
+        String context = prompts.get("combat/start").bind()
+                .set("location", combat.getLocation())
+                .set("hero", gameState.getHero().getName())
+                .set("heroLevel", gameState.getHero().getLevel())
+                .set("companions", gameState.getTeamMembers().size())
+                .set("enemies", enemies.stream().map(NPC::getName).toList())
+                .render();
         
         String narration = narrator.narrateCombatStart(context);
-        LOG.infof("Combat started against %d enemies", enemies.size());
+        LOG.infof("Combat %s started against %d enemies (dice seed %d)",
+                combat.getId(), enemies.size(), combat.getDice().seed());
         return narration;
     }
     
     /**
      * Execute one round of combat with all party members and enemies acting
      */
+    @WithSpan
     public String executeCombatRound(GameState gameState) {
         CombatEncounter combat = gameState.getCurrentCombat();
         if (combat == null || !combat.isActive()) {
             return "No active combat.";
         }
         
+        CombatRoundEvent event = new CombatRoundEvent();
+        event.begin();
+        event.encounterId = combat.getId();
+        event.diceSeed = combat.getDice().seed();
+        event.turn = combat.getCurrentTurn();
+        event.partyCombatants = (int) combat.getPlayerParty().stream().filter(GameCharacter::isAlive).count();
+        event.enemyCombatants = (int) combat.getEnemies().stream().filter(GameCharacter::isAlive).count();
+
+        CombatMechanics mechanics = new CombatMechanics(combat.getDice());
         StringBuilder roundNarration = new StringBuilder();
         roundNarration.append(String.format("--- Turn %d ---\n", combat.getCurrentTurn()));
         
         // Party actions (player party acts first based on initiative - simplified)
         for (GameCharacter character : combat.getPlayerParty()) {
             if (!character.isAlive()) continue;
+            if (combat.areAllEnemiesDefeated()) break;
             
-            String actionNarration = executeCharacterAction(character, combat, true);
+            String actionNarration = executeCharacterAction(character, gameState, mechanics);
             roundNarration.append(actionNarration).append("\n");
         }
         
         // Enemy actions
         for (NPC enemy : combat.getEnemies()) {
             if (!enemy.isAlive()) continue;
+            if (combat.isPartyDefeated()) break;
             
-            String actionNarration = executeCharacterAction(enemy, combat, false);
+            String actionNarration = executeCharacterAction(enemy, gameState, mechanics);
             roundNarration.append(actionNarration).append("\n");
         }
         
@@ -109,182 +127,104 @@ public class CombatService {
         } else {
             combat.nextTurn();
         }
-        
+
+        event.outcome = combat.getStatus().name();
+        event.commit();
         return roundNarration.toString();
     }
     
     /**
      * Execute a single character's combat action
      */
-    private String executeCharacterAction(GameCharacter character, CombatEncounter combat, boolean isPlayerSide) {
+    private String executeCharacterAction(GameCharacter character, GameState gameState, CombatMechanics mechanics) {
+        CombatEncounter combat = gameState.getCurrentCombat();
+        mechanics.startTurn(character);
         // Determine action (simplified - always attack for enemies, companions decide autonomously)
         CombatAction action;
+        String line = null;
         
         if (character instanceof TeamMember companion) {
             // Companion decides autonomously
-            action = executeCompanionAction(companion, combat);
+            CompanionDecision decision = decideCompanionAction(companion, gameState);
+            line = companionCombatLine(companion, decision, gameState);
+            action = mechanics.perform(companion, decision, combat);
         } else if (character instanceof Hero) {
             // Hero attacks strongest enemy (simplified)
-            action = executeAttack(character, getStrongestEnemy(combat), combat);
+            action = mechanics.attack(character, CombatMechanics.strongest(combat.getEnemies()));
         } else {
             // Enemy attacks random party member
-            action = executeAttack(character, getRandomTarget(combat.getPlayerParty()), combat);
+            action = mechanics.attack(character, mechanics.randomLiving(combat.getPlayerParty()));
         }
         
         // Narrate the action
-        return narrateAction(action);
-    }
-    
-    /**
-     * Execute companion's autonomous action
-     */
-    private CombatAction executeCompanionAction(TeamMember companion, CombatEncounter combat) {
-        // Build combat context for companion
-        String context = buildCombatContext(combat);
-        
-        // Get companion's decision
-        String decision = teamService.getCompanionCombatDecision(companion, context);
-        
-        // Parse decision (format: "ACTION: [ATTACK/HEAL/DEFEND] | TARGET: [name] | REASON: [reason]")
-        return parseAndExecuteCompanionDecision(companion, decision, combat);
+        String narration = narrateAction(action, gameState);
+        return line == null ? narration : String.format("%s: \"%s\"\n%s", character.getName(), line, narration);
     }
     
     /**
-     * Parse companion decision and execute it
+     * Decide a companion's action: by class tactic in rules mode, otherwise by asking
+     * the companion agent, with the tactic standing in if the call fails or the
+     * decision can't be carried out (instead of asking again)
      */
-    private CombatAction parseAndExecuteCompanionDecision(TeamMember companion, 
-                                                           String decision, 
-                                                           CombatEncounter combat) {
-        try {
-            String actionType = extractValue(decision, "ACTION");
-            String targetName = extractValue(decision, "TARGET");
-            
-            return switch (actionType.toUpperCase()) {
-                case "HEAL" -> {
-                    GameCharacter target = findCharacterByName(targetName, combat.getPlayerParty());
-                    yield executeHeal(companion, target != null ? target : companion);
-                }
-                case "DEFEND" -> {
-                    // Simplified: defending gives bonus to armor for next turn
-                    companion.setArmorBonus(companion.getArmorBonus() + 2);
-                    yield CombatAction.builder()
-                            .attacker(companion)
-                            .target(companion)
-                            .actionType(CombatAction.ActionType.DEFEND)
-                            .build();
-                }
-                default -> { // ATTACK or default
-                    GameCharacter target = findCharacterByName(targetName, combat.getEnemies());
-                    yield executeAttack(companion, target != null ? target : getRandomTarget(combat.getEnemies()), combat);
-                }
-            };
-        } catch (Exception e) {
-            LOG.errorf("Failed to parse companion decision: %s", decision);
-            // Fallback: attack random enemy
-            return executeAttack(companion, getRandomTarget(combat.getEnemies()), combat);
-        }
-    }
-    
-    /**
-     * Execute a melee or magic attack
-     */
-    private CombatAction executeAttack(GameCharacter attacker, GameCharacter target, CombatEncounter combat) {
-        if (target == null || !target.isAlive()) {
-            target = getRandomTarget(combat.getEnemies());
+    private CompanionDecision decideCompanionAction(TeamMember companion, GameState gameState) {
+        CombatEncounter combat = gameState.getCurrentCombat();
+        GameConfig.CompanionConfig config = gameConfig.companions();
+        if (config.mode() == GameConfig.CompanionConfig.Mode.RULES) {
+            return CompanionPolicy.decide(companion, combat, config.healThreshold());
         }
         
-        // Determine if magic attack (high intelligence) or melee
-        boolean isMagicAttack = attacker.getIntelligence() > attacker.getStrength();
-        
-        if (isMagicAttack && attacker.getCurrentMana() >= 10) {
-            return executeMagicAttack(attacker, target);
-        } else {
-            return executeMeleeAttack(attacker, target);
+        CompanionDecision decision;
+        try {
+            decision = teamService.getCompanionCombatDecision(companion, buildCombatContext(combat), gameState);
+        } catch (RuntimeException e) {
+            LOG.warnf("Companion %s decision failed, using local policy: %s", companion.getName(), e.getMessage());
+            return CompanionPolicy.decide(companion, combat, config.healThreshold());
         }
-    }
-    
-    /**
-     * Execute melee attack (d20 + modifier vs defense)
-     */
-    private CombatAction executeMeleeAttack(GameCharacter attacker, GameCharacter target) {
-        int attackRoll = rollD20();
-        int attackTotal = attackRoll + attacker.getStrengthModifier();
-        int defense = target.getDefense();
-        
-        boolean isHit = attackTotal >= defense;
-        int damage = 0;
         
-        if (isHit) {
-            // Damage: strength modifier + weapon bonus + 1d6
-            damage = Math.max(1, attacker.getStrengthModifier() + attacker.getWeaponBonus() + rollD6());
-            target.takeDamage(damage);
+        String rejectReason = CompanionPolicy.rejectReason(decision, companion, combat);
+        if (rejectReason != null) {
+            LOG.warnf("Companion %s decision %s rejected (%s), using local policy",
+                    companion.getName(), decision, rejectReason);
+            return CompanionPolicy.decide(companion, combat, config.healThreshold());
         }
-        
-        return CombatAction.meleeAttack(attacker, target, attackRoll, damage, isHit);
+        return decision;
     }
     
     /**
-     * Execute magic attack
+     * In rules mode, an occasional in-character line for the decided action; null for none
      */
-    private CombatAction executeMagicAttack(GameCharacter attacker, GameCharacter target) {
-        attacker.useMana(10);
-        
-        // Magic attacks auto-hit but can be resisted
-        int damage = Math.max(1, attacker.getIntelligenceModifier() + rollD8());
-        
-        // Target can resist with intelligence
-        if (rollD20() + target.getIntelligenceModifier() > 15) {
-            damage = damage / 2; // Resisted, half damage
+    private String companionCombatLine(TeamMember companion, CompanionDecision decision, GameState gameState) {
+        GameConfig.CompanionConfig config = gameConfig.companions();
+        Dice dice = gameState.getCurrentCombat().getDice();
+        if (config.mode() != GameConfig.CompanionConfig.Mode.RULES || !dice.chance(config.combatLineRate())) {
+            return null;
         }
-        
-        target.takeDamage(damage);
-        return CombatAction.magicAttack(attacker, target, damage, true);
-    }
-    
-    /**
-     * Execute healing action
-     */
-    private CombatAction executeHeal(GameCharacter healer, GameCharacter target) {
-        if (healer.useMana(15)) {
-            int healing = healer.getIntelligenceModifier() + rollD8();
-            target.heal(healing);
-            return CombatAction.heal(healer, target, healing);
-        } else {
-            // Not enough mana, fallback to attack
-            return executeMeleeAttack(healer, getRandomTarget(List.of(target)));
+        try {
+            return teamService.getCompanionCombatLine(companion, decision, gameState).trim();
+        } catch (RuntimeException e) {
+            LOG.debugf("No combat line from %s: %s", companion.getName(), e.getMessage());
+            return null;
         }
     }
     
     /**
      * Narrate a combat action
      */
-    private String narrateAction(CombatAction action) {
-        CombatNarratorAgent narrator = agentService.getCombatNarrator();
+    private String narrateAction(CombatAction action, GameState gameState) {
+        CombatNarratorAgent narrator = agentService.getCombatNarrator(gameState.getSessionId());
         
-        String context = String.format("""
-                Attacker: %s
-                Target: %s
-                Action: %s
-                Hit: %s
-                Damage dealt: %d
-                Healing done: %d
-                Attack roll: %d
-                Target defense: %d
-                Target remaining HP: %d/%d
-                
-                Narrate this combat action vividly.
-                """,
-                action.getAttacker().getName(),
-                action.getTarget().getName(),
-                action.getActionType(),
-                action.isHit(),
-                action.getDamageDealt(),
-                action.getHealingDone(),
-                action.getAttackRoll(),
-                action.getDefenseValue(),
-                action.getTarget().getCurrentHealth(),
-                action.getTarget().getMaxHealth()
-        );
+        String context = prompts.get("combat/action").bind()
+                .set("attacker", action.getAttacker().getName())
+                .set("target", action.getTarget().getName())
+                .set("action", action.getActionType())
+                .set("hit", action.isHit())
+                .set("damage", action.getDamageDealt())
+                .set("healing", action.getHealingDone())
+                .set("attackRoll", action.getAttackRoll())
+                .set("defense", action.getDefenseValue())
+                .set("targetHealth", action.getTarget().getCurrentHealth())
+                .set("targetMaxHealth", action.getTarget().getMaxHealth())
+                .render();
         
         return narrator.narrateCombatAction(context);
     }
@@ -294,21 +234,15 @@ public class CombatService {
      */
     private String endCombat(GameState gameState, boolean victory) {
         CombatEncounter combat = gameState.getCurrentCombat();
-        CombatNarratorAgent narrator = agentService.getCombatNarrator();
+        CombatNarratorAgent narrator = agentService.getCombatNarrator(gameState.getSessionId());
         
-        String context = String.format("""
-                Combat ended with %s!
-                Hero: %s (HP: %d/%d)
-                Party survivors: %d
-                
-                Narrate the outcome.
-                """,
-                victory ? "VICTORY" : "DEFEAT",
-                gameState.getHero().getName(),
-                gameState.getHero().getCurrentHealth(),
-                gameState.getHero().getMaxHealth(),
-                gameState.getLivingPartyMembers().size()
-        );
+        String context = prompts.get("combat/end").bind()
+                .set("outcome", victory ? "VICTORY" : "DEFEAT")
+                .set("hero", gameState.getHero().getName())
+                .set("health", gameState.getHero().getCurrentHealth())
+                .set("maxHealth", gameState.getHero().getMaxHealth())
+                .set("survivors", gameState.getLivingPartyMembers().size())
+                .render();
         
         String narration = narrator.narrateCombatEnd(context);
         
@@ -331,55 +265,21 @@ public class CombatService {
         context.append("Allies:\n");
         for (GameCharacter ally : combat.getPlayerParty()) {
             if (ally.isAlive()) {
-                context.append(String.format("- %s (HP: %d/%d)\n", 
-                    ally.getName(), ally.getCurrentHealth(), ally.getMaxHealth()));
+                appendHealthLine(context, ally);
             }
         }
         context.append("Enemies:\n");
         for (NPC enemy : combat.getEnemies()) {
             if (enemy.isAlive()) {
-                context.append(String.format("- %s (HP: %d/%d)\n", 
-                    enemy.getName(), enemy.getCurrentHealth(), enemy.getMaxHealth()));
+                appendHealthLine(context, enemy);
             }
         }
         return context.toString();
     }
     
-    private String extractValue(String text, String key) {
-        int start = text.indexOf(key + ":") + key.length() + 1;
-        int end = text.indexOf("|", start);
-        if (end == -1) end = text.length();
-        return text.substring(start, end).trim();
-    }
-    
-    private GameCharacter findCharacterByName(String name, List<? extends GameCharacter> characters) {
-        return characters.stream()
-                .filter(c -> c.getName().equalsIgnoreCase(name.trim()))
-                .findFirst()
-                .orElse(null);
-    }
-    
-    private GameCharacter getRandomTarget(List<? extends GameCharacter> targets) {
-        List<? extends GameCharacter> alive = targets.stream().filter(GameCharacter::isAlive).toList();
-        return alive.isEmpty() ? null : alive.get(random.nextInt(alive.size()));
-    }
-    
-    private GameCharacter getStrongestEnemy(CombatEncounter combat) {
-        return combat.getEnemies().stream()
-                .filter(GameCharacter::isAlive)
-                .max((e1, e2) -> Integer.compare(e1.getCurrentHealth(), e2.getCurrentHealth()))
-                .orElse(null);
-    }
-    
-    private int rollD20() {
-        return random.nextInt(20) + 1;
-    }
-    
-    private int rollD8() {
-        return random.nextInt(8) + 1;
-    }
-    
-    private int rollD6() {
-        return random.nextInt(6) + 1;
+    private static void appendHealthLine(StringBuilder context, GameCharacter character) {
+        context.append("- ").append(character.getName())
+                .append(" (HP: ").append(character.getCurrentHealth())
+                .append('/').append(character.getMaxHealth()).append(")\n");
     }
 }
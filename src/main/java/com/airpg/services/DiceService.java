@@ -0,0 +1,57 @@
+package com.airpg.services;
+
+import com.airpg.config.GameConfig;
+import com.airpg.domain.Dice;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Hands out the dice of each game session.
+ * Sessions roll on their own {@link Dice}, so rolls are never contended between players;
+ * only drawing a session's seed is shared. Seeds are logged so a session can be replayed.
+ */
+@ApplicationScoped
+public class DiceService {
+
+    private static final Logger LOG = Logger.getLogger(DiceService.class);
+
+    @Inject
+    GameConfig gameConfig;
+
+    private SplittableRandom seeds;
+    private final Deque<Long> replayedSeeds = new ArrayDeque<>();
+
+    @PostConstruct
+    void init() {
+        seeds = gameConfig.dice().seed()
+                .map(SplittableRandom::new)
+                .orElseGet(SplittableRandom::new);
+    }
+
+    /**
+     * Hand out the given seeds to the next sessions before drawing new ones, e.g. those of a replayed recording
+     */
+    public synchronized void replaySeeds(List<Long> recorded) {
+        replayedSeeds.addAll(recorded);
+    }
+
+    /**
+     * Dice for a new or loaded session
+     */
+    public Dice newSession(String gameId) {
+        long seed;
+        synchronized (this) {
+            Long replayed = replayedSeeds.poll();
+            seed = replayed != null ? replayed : seeds.nextLong();
+        }
+        LOG.infof("Game %s rolls with dice seed %d", gameId, seed);
+        return new Dice(seed);
+    }
+}
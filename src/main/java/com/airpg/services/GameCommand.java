@@ -0,0 +1,52 @@
+package com.airpg.services;
+
+import com.airpg.commands.CommandRegistry;
+import com.airpg.commands.CommandRegistry.Arguments;
+
+/**
+ * Commands the game engine answers itself; anything else is a free-form action for the narrator.
+ * The first phrase is the command's name, the rest are aliases.
+ */
+enum GameCommand {
+
+    HELP(Arguments.NONE, false, "help", "?", "commands"),
+    STATS(Arguments.NONE, false, "stats", "status", "character"),
+    QUESTS(Arguments.NONE, false, "quests", "quest log", "journal"),
+    TEAM(Arguments.NONE, false, "team", "party", "companions"),
+    LOCATION(Arguments.NONE, false, "location", "where am i"),
+    TALK(Arguments.REQUIRED, false, "talk", "talk to", "talk with", "speak to", "speak with"),
+    COMBAT_TEST(Arguments.NONE, false, "combat test"),
+    ATTACK(Arguments.OPTIONAL, true, "attack", "fight", "next turn"),
+    FLEE(Arguments.NONE, true, "flee", "run away", "retreat");
+
+    static final CommandRegistry<GameCommand> REGISTRY = registry();
+
+    private final Arguments arguments;
+    private final boolean combatOnly;
+    private final String[] phrases;
+
+    GameCommand(Arguments arguments, boolean combatOnly, String... phrases) {
+        this.arguments = arguments;
+        this.combatOnly = combatOnly;
+        this.phrases = phrases;
+    }
+
+    /**
+     * Canonical name, e.g. for speculation keys
+     */
+    String commandName() {
+        return phrases[0];
+    }
+
+    boolean isAvailable(boolean inCombat) {
+        return inCombat || !combatOnly;
+    }
+
+    private static CommandRegistry<GameCommand> registry() {
+        CommandRegistry.Builder<GameCommand> builder = CommandRegistry.builder();
+        for (GameCommand command : values()) {
+            builder.add(command, command.arguments, command.phrases);
+        }
+        return builder.build();
+    }
+}
@@ -1,27 +1,46 @@
 package com.airpg.services;
 
 import com.airpg.agents.AgentService;
+import com.airpg.commands.CommandRegistry;
 import com.airpg.config.GameConfig;
 import com.airpg.domain.*;
+import com.airpg.recording.RecordingService;
+import com.airpg.recording.SessionRecorder;
+import com.airpg.recording.SessionRecording.InputKind;
+import com.airpg.world.WorldClock;
 import dev.langchain4j.data.message.ChatMessage;
-import jakarta.enterprise.context.ApplicationScoped;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Main game engine that coordinates all game systems.
  * Entry point for player actions and game progression.
+ * One engine per player session: each view (or simulated player) gets its own instance.
+ * With recording enabled, the engine's recorder is active while it works for the player,
+ * so inputs, dice seeds and agent calls land in the session's recording.
  */
-@ApplicationScoped
+@Dependent
 public class GameEngine {
     
     private static final Logger LOG = Logger.getLogger(GameEngine.class);
-    private final Random random = new Random();
+    private static final String COMBAT_HINT = "In combat. Use 'attack' to fight or 'flee' to escape.";
+    private static final Set<String> COMPASS_DIRECTIONS = Set.of("north", "south", "east", "west",
+            "northeast", "northwest", "southeast", "southwest", "forward", "back", "ahead");
     
     @Inject
     GameConfig gameConfig;
@@ -44,32 +63,79 @@ public class GameEngine {
     @Inject
     AgentService agentService;
 
-    private GameState gameState;
+    @Inject
+    SpeculationService speculationService;
+
+    @Inject
+    IntentService intentService;
+
+    @Inject
+    DiceService diceService;
+
+    @Inject
+    RecordingService recordingService;
+
+    @Inject
+    WorldGenerationService worldGeneration;
+
+    @Inject
+    AgendaService agendaService;
+
+    @Inject
+    Tracer tracer;
+
+    GameState gameState;
+    private SessionRecorder recorder;
+    private WorldClock worldClock = WorldClock.STOPPED;
+
+    @PostConstruct
+    void init() {
+        recorder = recordingService.newRecorder();
+    }
+
+    @PreDestroy
+    void close() {
+        worldClock.close();
+        releaseGame();
+        recorder.close();
+    }
     
     /**
      * Initialize a new game
      */
+    @WithSpan
     public String startNewGame(String heroName, String heroClass) {
+        try (SessionRecorder.Activation ignored = recorder.activate()) {
+            return newGame(heroName, heroClass);
+        }
+    }
+
+    private String newGame(String heroName, String heroClass) {
+        releaseGame();
         gameState = new GameState();
+        gameState.setDice(diceService.newSession(gameState.getGameId()));
+        gameState.setWorldSeed(gameState.getDice().nextLong());
+        startRecording(InputKind.NEW_GAME, false, heroName, heroClass);
 
         // Create hero
         Hero hero = Hero.createDefault(heroName, heroClass);
 
         // Select random main goal
         List<String> goals = gameConfig.initialGoals();
-        String mainGoal = goals.get(random.nextInt(goals.size()));
+        String mainGoal = gameState.getDice().pick(goals);
 
         // Start the game
         gameState.startGame(hero, mainGoal);
 
-        // Create initial NPCs
-        NPC sage = npcService.createSampleNPC(gameState.getCurrentLocation());
-        gameState.addNPC(sage);
+        // Generate the starting region and its residents
+        worldGeneration.explore(gameState);
+        restartClock();
 
         // Generate opening scene
         String opening = worldService.generateOpeningScene(gameState);
 
         LOG.infof("New game started: %s the %s - Quest: %s", heroName, heroClass, mainGoal);
+        speculationService.speculate(gameState);
 
         return String.format("""
                 %s
@@ -92,26 +158,40 @@ public class GameEngine {
      * Initialize a new game with streaming support for the opening scene
      */
     public void startNewGameStreaming(String heroName, String heroClass, StreamingResponseHandler handler) {
+        Span span = tracer.spanBuilder("GameEngine.startNewGameStreaming").startSpan();
+        try (Scope ignored = span.makeCurrent(); SessionRecorder.Activation recording = recorder.activate()) {
+            newGameStreaming(heroName, heroClass, traced(span, handler));
+        } catch (RuntimeException e) {
+            endSpan(span, e);
+            throw e;
+        }
+    }
+
+    private void newGameStreaming(String heroName, String heroClass, StreamingResponseHandler handler) {
+        releaseGame();
         gameState = new GameState();
+        gameState.setDice(diceService.newSession(gameState.getGameId()));
+        gameState.setWorldSeed(gameState.getDice().nextLong());
+        startRecording(InputKind.NEW_GAME, true, heroName, heroClass);
 
         // Create hero
         Hero hero = Hero.createDefault(heroName, heroClass);
 
         // Select random main goal
         List<String> goals = gameConfig.initialGoals();
-        String mainGoal = goals.get(random.nextInt(goals.size()));
+        String mainGoal = gameState.getDice().pick(goals);
 
         // Start the game
         gameState.startGame(hero, mainGoal);
 
-        // Create initial NPCs
-        NPC sage = npcService.createSampleNPC(gameState.getCurrentLocation());
-        gameState.addNPC(sage);
+        // Generate the starting region and its residents
+        worldGeneration.explore(gameState);
+        restartClock();
 
         LOG.infof("New game started: %s the %s - Quest: %s", heroName, heroClass, mainGoal);
 
         // Generate opening scene with streaming
-        worldService.generateOpeningSceneStreaming(gameState, new StreamingResponseHandler() {
+        worldService.generateOpeningSceneStreaming(gameState, recorded(new StreamingResponseHandler() {
             @Override
             public void onToken(String token) {
                 handler.onToken(token);
@@ -135,6 +215,8 @@ public class GameEngine {
                         hero.getStrength(), hero.getIntelligence(), hero.getAgility()
                 );
                 handler.onToken(statsInfo);
+                // Pre-generate before completion is signalled: once it is, the next turn may start
+                speculationService.speculate(gameState);
                 handler.onComplete(fullResponse + statsInfo);
             }
 
@@ -142,122 +224,336 @@ public class GameEngine {
             public void onError(Throwable error) {
                 handler.onError(error);
             }
-        });
+        }));
     }
     
     /**
      * Process player input/action with streaming support
      */
     public void processPlayerInputStreaming(String input, StreamingResponseHandler handler) {
-        if (gameState == null || gameState.getStatus() == GameState.GameStatus.NOT_STARTED) {
-            String message = "No active game. Please start a new game first.";
-            handler.onToken(message);
-            handler.onComplete(message);
-            return;
+        Span span = tracer.spanBuilder("GameEngine.processPlayerInputStreaming").startSpan();
+        StreamingResponseHandler tracedHandler = traced(span, handler);
+        recorder.input(InputKind.ACTION, true, input);
+        try (Scope ignored = span.makeCurrent(); SessionRecorder.Activation recording = recorder.activate()) {
+            handleTurnStreaming(input, recorded(new StreamingResponseHandler() {
+                @Override
+                public void onToken(String token) {
+                    tracedHandler.onToken(token);
+                }
+
+                @Override
+                public void onComplete(String fullResponse) {
+                    worldClock.observe(gameState);
+                    // Pre-generate likely next responses while the player reads this one.
+                    // Done before completion is signalled: once it is, the next turn may start
+                    speculationService.speculate(gameState);
+                    tracedHandler.onComplete(fullResponse);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    tracedHandler.onError(error);
+                }
+            }));
+        } catch (RuntimeException e) {
+            endSpan(span, e);
+            throw e;
         }
-        
-        if (gameState.getStatus() != GameState.GameStatus.IN_PROGRESS) {
-            String message = "Game has ended. Start a new game to continue.";
-            handler.onToken(message);
-            handler.onComplete(message);
-            return;
+    }
+
+    /**
+     * Wrap a handler so the span ends when the response completes or fails
+     */
+    private static StreamingResponseHandler traced(Span span, StreamingResponseHandler handler) {
+        return new StreamingResponseHandler() {
+            @Override
+            public void onToken(String token) {
+                handler.onToken(token);
+            }
+
+            @Override
+            public void onComplete(String fullResponse) {
+                span.end();
+                handler.onComplete(fullResponse);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                endSpan(span, error);
+                handler.onError(error);
+            }
+        };
+    }
+
+    /**
+     * Wrap a handler so its callbacks, which may arrive on a provider thread,
+     * run with the session's recorder active
+     */
+    private StreamingResponseHandler recorded(StreamingResponseHandler handler) {
+        if (recorder == SessionRecorder.NONE) {
+            return handler;
         }
-        
-        String trimmedInput = input.trim().toLowerCase();
-        
-        // Command handling - non-streaming commands return immediately
-        if (trimmedInput.equals("help")) {
-            String response = getHelpText();
-            handler.onToken(response);
-            handler.onComplete(response);
-            return;
-        } else if (trimmedInput.equals("stats")) {
-            String response = getStatsDisplay();
-            handler.onToken(response);
-            handler.onComplete(response);
-            return;
-        } else if (trimmedInput.equals("quests")) {
-            String response = getQuestsDisplay();
-            handler.onToken(response);
-            handler.onComplete(response);
-            return;
-        } else if (trimmedInput.equals("team")) {
-            String response = getTeamDisplay();
-            handler.onToken(response);
-            handler.onComplete(response);
-            return;
-        } else if (trimmedInput.equals("location")) {
-            worldService.describeLocationStreaming(gameState, handler);
-            return;
-        } else if (trimmedInput.startsWith("talk ")) {
-            String response = handleTalkCommand(trimmedInput.substring(5));
-            handler.onToken(response);
-            handler.onComplete(response);
-            return;
-        } else if (trimmedInput.equals("combat test")) {
-            String response = handleTestCombat();
-            handler.onToken(response);
-            handler.onComplete(response);
+        return new StreamingResponseHandler() {
+            @Override
+            public void onToken(String token) {
+                handler.onToken(token);
+            }
+
+            @Override
+            public void onComplete(String fullResponse) {
+                try (SessionRecorder.Activation ignored = recorder.activate()) {
+                    handler.onComplete(fullResponse);
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                try (SessionRecorder.Activation ignored = recorder.activate()) {
+                    handler.onError(error);
+                }
+            }
+        };
+    }
+
+    /**
+     * Stop the previous game's world clock and start the current game's
+     */
+    private void restartClock() {
+        worldClock.close();
+        worldClock = agendaService.startClock(gameState);
+    }
+
+    /**
+     * Start a new recording file for the current game, beginning with the input that started it
+     */
+    private void startRecording(InputKind kind, boolean streaming, String... args) {
+        recorder.start(gameState.getGameId(), gameState.getDice().seed());
+        recorder.input(kind, streaming, args);
+    }
+
+    private static void endSpan(Span span, Throwable error) {
+        span.recordException(error);
+        span.setStatus(StatusCode.ERROR, error.getClass().getSimpleName());
+        span.end();
+    }
+    
+    private void handleTurnStreaming(String input, StreamingResponseHandler handler) {
+        Optional<String> unavailable = checkGameActive();
+        if (unavailable.isPresent()) {
+            respond(handler, unavailable.get());
             return;
+        }
+        worldClock.catchUp(gameState);
+
+        Optional<CommandRegistry.Match<GameCommand>> command = parseCommand(input);
+        Optional<IntentService.RecognizedIntent> intent = command.isEmpty() ? recognizeIntent(input) : Optional.empty();
+        boolean describeLocation = command.map(match -> match.command() == GameCommand.LOCATION)
+                .orElseGet(() -> intent.filter(GameEngine::isLookAround).isPresent());
+        if (describeLocation) {
+            Optional<String> speculated = speculationService.take(gameState, GameCommand.LOCATION.commandName());
+            if (speculated.isPresent()) {
+                respond(handler, speculated.get());
+            } else {
+                worldService.describeLocationStreaming(gameState, handler);
+            }
+        } else if (command.isPresent()) {
+            respond(handler, executeCommand(command.get()));
         } else if (gameState.isInCombat()) {
-            String response = handleCombatInput(trimmedInput);
-            handler.onToken(response);
-            handler.onComplete(response);
-            return;
+            respond(handler, COMBAT_HINT);
         } else {
+            Optional<String> handled = intent.flatMap(recognized -> executeIntent(recognized, input));
+            if (handled.isPresent()) {
+                respond(handler, handled.get());
+                return;
+            }
             // General action processing - use streaming
-            worldService.processPlayerActionStreaming(gameState, input, handler);
+            Optional<String> speculated = speculationService.take(gameState, input);
+            if (speculated.isPresent()) {
+                respond(handler, speculated.get());
+            } else {
+                worldService.processPlayerActionStreaming(gameState, input, handler);
+            }
         }
     }
+
+    private static void respond(StreamingResponseHandler handler, String response) {
+        handler.onToken(response);
+        handler.onComplete(response);
+    }
     
     /**
      * Process player input/action
      */
+    @WithSpan
     public String processPlayerInput(String input) {
-        if (gameState == null || gameState.getStatus() == GameState.GameStatus.NOT_STARTED) {
-            return "No active game. Please start a new game first.";
+        recorder.input(InputKind.ACTION, false, input);
+        try (SessionRecorder.Activation ignored = recorder.activate()) {
+            String response = handleTurn(input);
+            worldClock.observe(gameState);
+            speculationService.speculate(gameState);
+            return response;
         }
-        
-        if (gameState.getStatus() != GameState.GameStatus.IN_PROGRESS) {
-            return "Game has ended. Start a new game to continue.";
+    }
+    
+    private String handleTurn(String input) {
+        Optional<String> unavailable = checkGameActive();
+        if (unavailable.isPresent()) {
+            return unavailable.get();
         }
-        
-        String trimmedInput = input.trim().toLowerCase();
-        
-        // Command handling
-        if (trimmedInput.equals("help")) {
-            return getHelpText();
-        } else if (trimmedInput.equals("stats")) {
-            return getStatsDisplay();
-        } else if (trimmedInput.equals("quests")) {
-            return getQuestsDisplay();
-        } else if (trimmedInput.equals("team")) {
-            return getTeamDisplay();
-        } else if (trimmedInput.equals("location")) {
-            return worldService.describeLocation(gameState);
-        } else if (trimmedInput.startsWith("talk ")) {
-            return handleTalkCommand(trimmedInput.substring(5));
-        } else if (trimmedInput.equals("combat test")) {
-            return handleTestCombat();
+        worldClock.catchUp(gameState);
+
+        Optional<CommandRegistry.Match<GameCommand>> command = parseCommand(input);
+        if (command.isPresent()) {
+            return executeCommand(command.get());
         } else if (gameState.isInCombat()) {
-            return handleCombatInput(trimmedInput);
-        } else {
-            // General action processing
-            return worldService.processPlayerAction(gameState, input);
+            return COMBAT_HINT;
+        }
+        Optional<String> handled = recognizeIntent(input).flatMap(recognized -> executeIntent(recognized, input));
+        if (handled.isPresent()) {
+            return handled.get();
+        }
+        // General action processing
+        return speculationService.take(gameState, input)
+                .orElseGet(() -> worldService.processPlayerAction(gameState, input));
+    }
+
+    private Optional<String> checkGameActive() {
+        if (gameState == null || gameState.getStatus() == GameState.GameStatus.NOT_STARTED) {
+            return Optional.of("No active game. Please start a new game first.");
         }
+        if (gameState.getStatus() != GameState.GameStatus.IN_PROGRESS) {
+            return Optional.of("Game has ended. Start a new game to continue.");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Match input against the command table (including near-miss spellings) for the current combat state
+     */
+    private Optional<CommandRegistry.Match<GameCommand>> parseCommand(String input) {
+        boolean inCombat = gameState.isInCombat();
+        Optional<CommandRegistry.Match<GameCommand>> command =
+                GameCommand.REGISTRY.match(input, candidate -> candidate.isAvailable(inCombat));
+        command.filter(match -> match.kind() != CommandRegistry.MatchKind.EXACT)
+                .ifPresent(match -> LOG.debugf("Interpreting '%s' as '%s'", input, match.phrase()));
+        return command;
+    }
+
+    /**
+     * Run a matched command (shared by the blocking and streaming paths)
+     */
+    private String executeCommand(CommandRegistry.Match<GameCommand> match) {
+        return switch (match.command()) {
+            case HELP -> getHelpText();
+            case STATS -> getStatsDisplay();
+            case QUESTS -> getQuestsDisplay();
+            case TEAM -> getTeamDisplay();
+            case LOCATION -> describeLocation();
+            case TALK -> handleTalkCommand(match.arguments(), match.arguments());
+            case COMBAT_TEST -> handleTestCombat();
+            case ATTACK -> combatService.executeCombatRound(gameState);
+            case FLEE -> handleFlee();
+        };
     }
     
+    private String describeLocation() {
+        return speculationService.take(gameState, GameCommand.LOCATION.commandName())
+                .orElseGet(() -> worldService.describeLocation(gameState));
+    }
+
+    /**
+     * Classify a free-text action (outside combat only; combat has its own commands)
+     */
+    private Optional<IntentService.RecognizedIntent> recognizeIntent(String input) {
+        return gameState.isInCombat() ? Optional.empty() : intentService.recognize(input);
+    }
+
+    private static boolean isLookAround(IntentService.RecognizedIntent intent) {
+        return intent.intent() == ActionIntent.INSPECT && intent.target().isEmpty();
+    }
+
+    /**
+     * Carry out the mechanics of a recognized intent.
+     * Empty if there is nothing mechanical to do, so the narrator handles the action as before.
+     *
+     * @param input the player's words, e.g. what is said to the NPC talked to
+     */
+    private Optional<String> executeIntent(IntentService.RecognizedIntent intent, String input) {
+        String target = intent.target();
+        return switch (intent.intent()) {
+            case TRAVEL -> target.isEmpty() || COMPASS_DIRECTIONS.contains(target)
+                    ? Optional.empty()
+                    : Optional.of(worldService.travelToLocation(gameState, toPlaceName(target)));
+            case TALK -> target.isEmpty() ? Optional.empty() : Optional.of(handleTalkCommand(target, input));
+            case ATTACK -> findHostileNPC(target)
+                    .map(enemy -> combatService.startCombat(List.of(enemy), gameState));
+            case REST -> Optional.of(handleRest());
+            case INSPECT -> target.isEmpty() ? Optional.of(describeLocation()) : Optional.empty();
+            case OTHER -> Optional.empty();
+        };
+    }
+
+    /**
+     * Living hostile NPC at the current location, matching the target by name or role if one is given
+     */
+    private Optional<NPC> findHostileNPC(String target) {
+        return gameState.getNPCsHere().stream()
+                .filter(NPC::isHostile)
+                .filter(NPC::isAlive)
+                .filter(npc -> target.isEmpty()
+                        || npc.getName().toLowerCase().contains(target)
+                        || (npc.getRole() != null && target.contains(npc.getRole().toLowerCase())))
+                .findFirst();
+    }
+
+    /**
+     * Recover half of maximum health and mana for every living party member
+     */
+    private String handleRest() {
+        List<GameCharacter> party = gameState.getLivingPartyMembers();
+        boolean rested = party.stream().allMatch(member ->
+                member.getCurrentHealth() == member.getMaxHealth() && member.getCurrentMana() == member.getMaxMana());
+        if (rested) {
+            return "Your party is already fully rested.";
+        }
+
+        StringBuilder response = new StringBuilder("You rest for a while at ")
+                .append(gameState.getCurrentLocation()).append(".\n");
+        for (GameCharacter member : party) {
+            member.heal(member.getMaxHealth() / 2);
+            member.restoreMana(member.getMaxMana() / 2);
+            response.append(String.format("- %s: HP %d/%d, Mana %d/%d%n", member.getName(),
+                    member.getCurrentHealth(), member.getMaxHealth(), member.getCurrentMana(), member.getMaxMana()));
+        }
+        gameState.addToHistory("Rested at " + gameState.getCurrentLocation());
+        return response.toString();
+    }
+
+    private static String toPlaceName(String target) {
+        StringBuilder name = new StringBuilder();
+        for (String word : target.split(" ")) {
+            if (!name.isEmpty()) {
+                name.append(' ');
+            }
+            name.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return name.toString();
+    }
+
     /**
      * Handle talking to NPCs
+     *
+     * @param npcIdentifier what names the NPC talked to (for the talk command, its arguments)
+     * @param playerMessage what the player says to it
      */
-    private String handleTalkCommand(String npcIdentifier) {
-        // Find NPC (simplified - just get first NPC for demo)
-        if (gameState.getWorldNPCs().isEmpty()) {
+    private String handleTalkCommand(String npcIdentifier, String playerMessage) {
+        NPC npc = npcService.resolveTalkTarget(gameState, npcIdentifier);
+        if (npc == null) {
             return "There's no one here to talk to.";
         }
         
-        NPC npc = gameState.getWorldNPCs().get(0);
-        String dialogue = npcService.getNPCDialogue(npc, npcIdentifier, gameState);
+        String dialogue = speculationService.take(gameState, GameCommand.TALK.commandName() + " " + playerMessage)
+                .orElseGet(() -> npcService.getNPCDialogue(npc, playerMessage, gameState));
         
         return String.format("%s: \"%s\"", npc.getName(), dialogue);
     }
@@ -282,18 +578,12 @@ public class GameEngine {
     }
     
     /**
-     * Handle combat-specific input
+     * Leave the current combat
      */
-    private String handleCombatInput(String input) {
-        if (input.equals("attack") || input.equals("fight") || input.equals("next turn")) {
-            return combatService.executeCombatRound(gameState);
-        } else if (input.equals("flee")) {
-            gameState.getCurrentCombat().endByFleeing();
-            gameState.endCombat();
-            return "You fled from combat!";
-        } else {
-            return "In combat. Use 'attack' to fight or 'flee' to escape.";
-        }
+    private String handleFlee() {
+        gameState.getCurrentCombat().endByFleeing();
+        gameState.endCombat();
+        return "You fled from combat!";
     }
     
     /**
@@ -304,16 +594,18 @@ public class GameEngine {
                 Available Commands:
                 
                 General:
-                - help: Show this help
-                - stats: View character stats
-                - quests: View active quests
-                - team: View team members
-                - location: Describe current location
-                - talk [message]: Talk to NPCs
+                - help (?): Show this help
+                - stats (status): View character stats
+                - quests (journal): View active quests
+                - team (party): View team members
+                - location (where am i): Describe current location
+                - talk [message] (speak to): Talk to NPCs
                 
                 Combat:
-                - attack: Execute combat round
-                - flee: Run from combat
+                - attack (fight): Execute combat round
+                - flee (retreat): Run from combat
+                
+                Commands can be shortened ("que") and small typos are understood ("quets").
                 
                 Actions:
                 - Type any action in natural language to interact with the world
@@ -430,7 +722,8 @@ public class GameEngine {
      * @param saveName Display name for the save
      * @return Result of the save operation
      */
-    public GamePersistenceService.SaveResult saveGame(String saveName) {
+    @WithSpan
+    public GamePersistenceService.SaveResult saveGame(@SpanAttribute("save.name") String saveName) {
         if (gameState == null) {
             return new GamePersistenceService.SaveResult(false, "No active game to save", null);
         }
@@ -441,10 +734,11 @@ public class GameEngine {
 
         // Save game state
         GamePersistenceService.SaveResult result = persistenceService.saveGame(gameState, saveName);
+        recorder.input(InputKind.SAVE, false, saveName, String.valueOf(result.saveId()));
 
         // If successful, also save agent memories
         if (result.success() && result.saveId() != null) {
-            Map<Object, List<ChatMessage>> memories = agentService.exportMemories();
+            Map<Object, List<ChatMessage>> memories = agentService.exportMemories(gameState.getSessionId());
             persistenceService.saveAgentMemories(result.saveId(), memories);
             LOG.infof("Game saved with %d agent memories", memories.size());
         }
@@ -458,7 +752,12 @@ public class GameEngine {
      * @param saveId The ID of the save to load
      * @return true if loaded successfully
      */
-    public boolean loadGame(Long saveId) {
+    @WithSpan
+    public boolean loadGame(@SpanAttribute("save.id") Long saveId) {
+        if (gameState != null) {
+            speculationService.discard(gameState.getSessionId());
+        }
+
         // Load game state
         GameState loadedState = persistenceService.loadGame(saveId);
         if (loadedState == null) {
@@ -468,15 +767,33 @@ public class GameEngine {
 
         // Load and restore agent memories
         Map<Object, List<ChatMessage>> memories = persistenceService.loadAgentMemories(saveId);
-        agentService.importMemories(memories);
+        releaseGame();
+        agentService.importMemories(loadedState.getSessionId(), memories);
 
         // Set the loaded state as current
+        loadedState.setDice(diceService.newSession(loadedState.getGameId()));
+        worldGeneration.explore(loadedState);
         this.gameState = loadedState;
+        startRecording(InputKind.LOAD, false, String.valueOf(saveId));
+        try (SessionRecorder.Activation ignored = recorder.activate()) {
+            restartClock();
+            speculationService.speculate(gameState);
+        }
 
         LOG.infof("Game loaded successfully: %d with %d agent memories", saveId, memories.size());
         return true;
     }
 
+    /**
+     * Drop the current game's speculations and agent memories before the session moves on
+     */
+    private void releaseGame() {
+        if (gameState != null) {
+            speculationService.discard(gameState.getSessionId());
+            agentService.releaseMemories(gameState.getSessionId());
+        }
+    }
+
     /**
      * Get list of available saves
      */
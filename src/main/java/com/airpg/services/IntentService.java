@@ -0,0 +1,112 @@
+package com.airpg.services;
+
+import com.airpg.commands.IntentClassifier;
+import com.airpg.config.GameConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Local intent recognition for free-text actions.
+ * A naive Bayes classifier is trained at startup from the bundled examples
+ * (intents/actions.tsv) plus an optional file of labelled examples, e.g. harvested from logs.
+ */
+@ApplicationScoped
+public class IntentService {
+
+    private static final Logger LOG = Logger.getLogger(IntentService.class);
+    private static final String TRAINING_RESOURCE = "intents/actions.tsv";
+
+    /**
+     * A recognized intent and what it is aimed at (may be empty)
+     */
+    public record RecognizedIntent(ActionIntent intent, String target, double confidence) {
+    }
+
+    @Inject
+    GameConfig gameConfig;
+
+    private IntentClassifier<ActionIntent> classifier;
+
+    @PostConstruct
+    void init() {
+        IntentClassifier.Builder<ActionIntent> builder = IntentClassifier.builder();
+        int examples;
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(TRAINING_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing intent training data: " + TRAINING_RESOURCE);
+            }
+            examples = load(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Optional<String> trainingFile = gameConfig.intents().trainingFile();
+        if (trainingFile.isPresent()) {
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(trainingFile.get()))) {
+                examples += load(reader, builder);
+            } catch (IOException e) {
+                LOG.warnf("Could not read intent training file %s: %s", trainingFile.get(), e.getMessage());
+            }
+        }
+
+        classifier = builder.build();
+        LOG.infof("Intent classifier trained on %d examples (%d features)", examples, classifier.vocabularySize());
+    }
+
+    /**
+     * Recognize a mechanical intent in a free-text action.
+     *
+     * @return the intent, or empty if disabled, not confident enough, or an OTHER action
+     */
+    public Optional<RecognizedIntent> recognize(String input) {
+        GameConfig.IntentConfig config = gameConfig.intents();
+        if (!config.enabled()) {
+            return Optional.empty();
+        }
+        return classifier.classify(input)
+                .filter(prediction -> prediction.intent() != ActionIntent.OTHER)
+                .filter(prediction -> prediction.confidence() >= config.minConfidence())
+                .map(prediction -> {
+                    LOG.debugf("Intent %s (%.2f) for '%s'", prediction.intent(), prediction.confidence(), input);
+                    return new RecognizedIntent(prediction.intent(), prediction.intent().target(input),
+                            prediction.confidence());
+                });
+    }
+
+    /**
+     * Read INTENT<TAB>text lines; blank lines and # comments are skipped
+     */
+    private static int load(BufferedReader reader, IntentClassifier.Builder<ActionIntent> builder) throws IOException {
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int tab = line.indexOf('\t');
+            if (tab < 0) {
+                LOG.warnf("Skipping malformed intent example: %s", line);
+                continue;
+            }
+            try {
+                builder.add(ActionIntent.valueOf(line.substring(0, tab).trim()), line.substring(tab + 1).trim());
+                count++;
+            } catch (IllegalArgumentException e) {
+                LOG.warnf("Skipping intent example with unknown intent: %s", line);
+            }
+        }
+        return count;
+    }
+}
@@ -1,10 +1,15 @@
 package com.airpg.services;
 
 import com.airpg.agents.AgentService;
+import com.airpg.agents.LlmPriority;
+import com.airpg.agents.LlmRequestScheduler;
 import com.airpg.agents.NPCAgent;
 import com.airpg.domain.GameState;
 import com.airpg.domain.NPC;
 import com.airpg.domain.Quest;
+import com.airpg.prompts.ContextAssembler;
+import com.airpg.prompts.PromptLibrary;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
@@ -23,92 +28,98 @@ public class NPCService {
     @Inject
     AgentService agentService;
     
+    @Inject
+    LlmRequestScheduler scheduler;
+    
+    @Inject
+    PromptLibrary prompts;
+    
+    @Inject
+    ContextAssembler contextAssembler;
+    
     /**
      * Have an NPC speak/respond to the player
      */
+    @WithSpan
     public String getNPCDialogue(NPC npc, String playerMessage, GameState gameState) {
-        NPCAgent agent = agentService.getNPCAgent(npc);
-        
-        String context = String.format("""
-                You are %s, a %s.
-                Your role: %s
-                Your personality: %s
-                Your agenda: %s
-                Current location: %s
-                You are %s.
-                
-                The player says: "%s"
-                
-                Respond as this character.
-                """,
-                npc.getName(),
-                npc.getRole(),
-                npc.getRole(),
-                npc.getPersonality(),
-                npc.getAgenda(),
-                npc.getLocation(),
-                npc.isHostile() ? "hostile to the player" : "neutral or friendly",
-                playerMessage
-        );
+        NPCAgent agent = agentService.getNPCAgent(gameState.getSessionId(), npc);
+        DialoguePrompt prompt = buildDialoguePrompt(npc, playerMessage, gameState);
         
-        String dialogue = agent.speak(context);
+        String dialogue = agent.speak(prompt.persona(), prompt.context());
         LOG.debugf("NPC %s responded to player", npc.getName());
         return dialogue;
     }
     
+    /**
+     * Persona and prompt for an NPC's reply. Reads the NPC and its memory,
+     * so it must be rendered on the session's thread (e.g., ahead of a speculative request).
+     */
+    DialoguePrompt buildDialoguePrompt(NPC npc, String playerMessage, GameState gameState) {
+        String facts = contextAssembler.facts(agentService.npcContext(gameState.getSessionId(), npc))
+                .add("Lately", npc.getRecentActivity())
+                .add("Current location", npc.getLocation())
+                .add("Attitude", npc.isHostile() ? "hostile to the player" : "neutral or friendly")
+                .render();
+        String context = ContextAssembler.compact(prompts.get("npc/dialogue").bind()
+                .set("facts", facts)
+                .set("message", playerMessage)
+                .render());
+        return new DialoguePrompt(contextAssembler.npcPersona(npc), context);
+    }
+    
+    /**
+     * Pick the NPC the player is talking to: the one at the current location named in the
+     * message (by name or role), else the first living NPC there
+     *
+     * @return the NPC, or null if there is no one here to talk to
+     */
+    public NPC resolveTalkTarget(GameState gameState, String playerMessage) {
+        NPC mentioned = gameState.getNpcs().findMentioned(playerMessage, gameState.getCurrentLocation());
+        if (mentioned != null) {
+            return mentioned;
+        }
+        return gameState.getNPCsHere().stream()
+                .filter(NPC::isAlive)
+                .findFirst()
+                .orElse(null);
+    }
+    
     /**
      * Have NPC react to a player action
      */
+    @WithSpan
     public String getNPCReaction(NPC npc, String playerAction, GameState gameState) {
-        NPCAgent agent = agentService.getNPCAgent(npc);
+        NPCAgent agent = agentService.getNPCAgent(gameState.getSessionId(), npc);
         
-        String context = String.format("""
-                You are %s (%s).
-                Personality: %s
-                Agenda: %s
-                
-                The player just did: %s
-                
-                How do you react? (Stay in character)
-                """,
-                npc.getName(),
-                npc.getRole(),
-                npc.getPersonality(),
-                npc.getAgenda(),
-                playerAction
-        );
+        String persona = contextAssembler.npcPersona(npc);
+        String context = ContextAssembler.compact(prompts.get("npc/reaction").bind()
+                .set("action", playerAction)
+                .render());
         
-        return agent.reactToPlayerAction(context);
+        return scheduler.withPriority(LlmPriority.BACKGROUND, () -> agent.reactToPlayerAction(persona, context));
     }
     
     /**
      * Have NPC generate a quest for the player
      */
+    @WithSpan
     public Quest generateQuestFromNPC(NPC npc, GameState gameState) {
         if (!npc.isQuestGiver()) {
             LOG.warnf("NPC %s is not a quest giver", npc.getName());
             return null;
         }
         
-        NPCAgent agent = agentService.getNPCAgent(npc);
+        NPCAgent agent = agentService.getNPCAgent(gameState.getSessionId(), npc);
         
-        String context = String.format("""
-                You are %s, a %s.
-                Your agenda: %s
-                Your location: %s
-                Hero level: %d
-                
-                Generate a quest that fits your character and agenda.
-                The quest should be something the player can help you with.
-                """,
-                npc.getName(),
-                npc.getRole(),
-                npc.getAgenda(),
-                npc.getLocation(),
-                gameState.getHero().getLevel()
-        );
+        String facts = contextAssembler.facts(agentService.npcContext(gameState.getSessionId(), npc))
+                .add("Current location", npc.getLocation())
+                .add("Hero level", gameState.getHero().getLevel())
+                .render();
+        String context = ContextAssembler.compact(prompts.get("npc/quest").bind()
+                .set("facts", facts)
+                .render());
         
-        String questData = agent.generateQuest(context);
+        String questData = agent.generateQuest(contextAssembler.npcPersona(npc), context);
         
         // Parse the quest data (format: "TITLE: [title] | DESCRIPTION: [description]")
         Quest quest = parseQuestFromAgentResponse(questData, npc);
@@ -145,18 +156,5 @@ public class NPCService {
         }
     }
     
-    /**
-     * Create a sample NPC for the game
-     */
-    public NPC createSampleNPC(String location) {
-        return NPC.create(
-                UUID.randomUUID().toString(),
-                "Old Sage Marcus",
-                "Wizard",
-                location,
-                "Seeks ancient knowledge and wants to prevent dark magic from spreading",
-                "Wise, cautious, speaks in riddles, values knowledge over gold",
-                false
-        );
-    }
+    record DialoguePrompt(String persona, String context) {}
 }
@@ -0,0 +1,246 @@
+package com.airpg.services;
+
+import com.airpg.agents.AgentFork;
+import com.airpg.agents.AgentService;
+import com.airpg.agents.NPCAgent;
+import com.airpg.agents.WorldNarratorAgent;
+import com.airpg.config.GameConfig;
+import com.airpg.domain.GameState;
+import com.airpg.domain.Hero;
+import com.airpg.domain.NPC;
+import com.airpg.recording.SessionRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Speculative pre-generation of likely next responses.
+ * After each turn, the most likely next commands are generated in the background
+ * (at background LLM priority) on forked agents, so the real conversation memory
+ * is untouched. If the player picks one of them while the game state is unchanged,
+ * the fork's conversation is committed and the response is served instantly.
+ * Prompts are rendered and forks taken on the caller's thread; background tasks
+ * only run the agent call, never reading the live game state.
+ * Speculations are kept per session id of the game in play, so each session only ever
+ * replaces or discards its own, even when several sessions loaded the same save.
+ */
+@ApplicationScoped
+public class SpeculationService {
+
+    private static final Logger LOG = Logger.getLogger(SpeculationService.class);
+
+    @Inject
+    GameConfig gameConfig;
+
+    @Inject
+    AgentService agentService;
+
+    @Inject
+    WorldService worldService;
+
+    @Inject
+    NPCService npcService;
+
+    private final Map<String, Map<String, Speculation>> speculationsBySession = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> commandCounts = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start pre-generating the most likely next commands for the current state.
+     * Replaces any speculations from the game's previous turn.
+     */
+    public void speculate(GameState gameState) {
+        if (gameState == null) {
+            return;
+        }
+        discard(gameState.getSessionId());
+        GameConfig.SpeculationConfig config = gameConfig.speculation();
+        if (!config.enabled() || gameState.getStatus() != GameState.GameStatus.IN_PROGRESS
+                || gameState.isInCombat()) {
+            return;
+        }
+
+        int fingerprint = fingerprint(gameState);
+        // Speculative requests belong to the session that asked for them
+        SessionRecorder recorder = SessionRecorder.current();
+        Map<String, Speculation> speculations = new ConcurrentHashMap<>();
+        for (String command : rankedCommands(config)) {
+            Supplier<Result> request = prepare(command, gameState);
+            if (request == null) {
+                continue;
+            }
+            CompletableFuture<Result> result = new CompletableFuture<>();
+            Future<?> task = executor.submit(recorder.wrap(() -> {
+                try {
+                    result.complete(request.get());
+                } catch (Throwable error) {
+                    result.completeExceptionally(error);
+                }
+            }));
+            speculations.put(normalize(command), new Speculation(fingerprint, result, task));
+        }
+        speculationsBySession.put(gameState.getSessionId(), speculations);
+        LOG.debugf("Speculating on %d commands", speculations.size());
+    }
+
+    /**
+     * Take the speculative response for a command the player just issued.
+     * All other speculations of the game are discarded, since this turn will change the conversation.
+     *
+     * @return the pre-generated response, or empty if there is none, it is stale
+     * or it is not ready within the configured timeout
+     */
+    public Optional<String> take(GameState gameState, String input) {
+        String key = normalize(input);
+        commandCounts.computeIfAbsent(key, k -> new LongAdder()).increment();
+
+        Map<String, Speculation> speculations = speculationsBySession.get(gameState.getSessionId());
+        Speculation speculation = speculations == null ? null : speculations.remove(key);
+        discard(gameState.getSessionId());
+        if (speculation == null) {
+            return Optional.empty();
+        }
+        if (speculation.fingerprint() != fingerprint(gameState)) {
+            speculation.task().cancel(true);
+            LOG.debugf("Discarding stale speculation for '%s'", key);
+            return Optional.empty();
+        }
+
+        try {
+            // A running speculation has a head start, but one still queued behind other
+            // background work may take longer than asking for real at normal priority
+            Duration timeout = gameConfig.speculation().takeTimeout();
+            Result result = speculation.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (result == null || !agentService.commitFork(result.fork())) {
+                LOG.debugf("Speculation for '%s' no longer matches agent memory", key);
+                return Optional.empty();
+            }
+            LOG.debugf("Serving speculative response for '%s'", key);
+            return Optional.of(result.text());
+        } catch (ExecutionException e) {
+            LOG.debugf("Speculation for '%s' failed: %s", key, e.getCause().getMessage());
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            speculation.task().cancel(true);
+            LOG.debugf("Speculation for '%s' not ready, discarding it", key);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            speculation.task().cancel(true);
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cancel and drop a session's pending speculations (e.g., when it starts or loads another game)
+     */
+    public void discard(String sessionId) {
+        Map<String, Speculation> speculations = speculationsBySession.remove(sessionId);
+        if (speculations != null) {
+            speculations.values().forEach(speculation -> speculation.task().cancel(true));
+        }
+    }
+
+    /**
+     * Render the prompt for a command and fork its agent, on the caller's thread
+     *
+     * @return the agent call to run in the background, or null if there is nothing to speculate on
+     */
+    private Supplier<Result> prepare(String command, GameState gameState) {
+        String key = normalize(command);
+        if (key.equals("location")) {
+            String context = worldService.buildLocationContext(gameState);
+            AgentFork<WorldNarratorAgent> fork = agentService.forkWorldNarrator(gameState.getSessionId());
+            return () -> new Result(fork.agent().describeLocation(context), fork);
+        }
+        if (key.startsWith("talk ")) {
+            // Normalized text is only the lookup key; the NPC replies to the words as given
+            String message = command.trim().substring(5).trim();
+            NPC npc = npcService.resolveTalkTarget(gameState, message);
+            if (npc == null) {
+                return null;
+            }
+            NPCService.DialoguePrompt prompt = npcService.buildDialoguePrompt(npc, message, gameState);
+            AgentFork<NPCAgent> fork = agentService.forkNPCAgent(gameState.getSessionId(), npc);
+            return () -> new Result(fork.agent().speak(prompt.persona(), prompt.context()), fork);
+        }
+        String context = worldService.buildActionContext(gameState, command);
+        AgentFork<WorldNarratorAgent> fork = agentService.forkWorldNarrator(gameState.getSessionId());
+        return () -> new Result(fork.agent().respondToAction(context), fork);
+    }
+
+    /**
+     * Candidate commands ordered by how often players picked them, then by configured order
+     */
+    private List<String> rankedCommands(GameConfig.SpeculationConfig config) {
+        List<String> commands = config.commands();
+        return commands.stream()
+                .sorted(Comparator.comparingLong((String command) -> -timesPicked(command))
+                        .thenComparingInt(commands::indexOf))
+                .limit(config.maxPerTurn())
+                .toList();
+    }
+
+    private long timesPicked(String command) {
+        LongAdder count = commandCounts.get(normalize(command));
+        return count == null ? 0 : count.sum();
+    }
+
+    private static String normalize(String command) {
+        return command.trim().toLowerCase();
+    }
+
+    /**
+     * Cheap fingerprint of the state a speculative prompt depends on
+     */
+    private static int fingerprint(GameState gameState) {
+        Hero hero = gameState.getHero();
+        return Objects.hash(
+                gameState.getGameId(),
+                gameState.getCurrentLocation(),
+                gameState.getMainGoal(),
+                hero.getLevel(),
+                hero.getCurrentHealth(),
+                hero.getCurrentMana(),
+                gameState.getTeamMembers().size(),
+                gameState.getWorldNPCs().size(),
+                gameState.getNPCsHere().size(), // off-screen NPCs may have arrived
+                gameState.getQuests().size(),
+                gameState.getStoryHistory().size(),
+                gameState.isInCombat()
+        );
+    }
+
+    private record Speculation(int fingerprint, CompletableFuture<Result> result, Future<?> task) {}
+
+    private record Result(String text, AgentFork<?> fork) {}
+}
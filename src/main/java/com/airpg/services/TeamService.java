@@ -1,14 +1,27 @@
 package com.airpg.services;
 
+import com.airpg.agents.AgentFork;
 import com.airpg.agents.AgentService;
 import com.airpg.agents.CompanionAgent;
+import com.airpg.agents.CompanionDecision;
+import com.airpg.agents.LlmPriority;
+import com.airpg.agents.LlmRequestScheduler;
 import com.airpg.config.GameConfig;
 import com.airpg.domain.GameState;
 import com.airpg.domain.TeamMember;
+import com.airpg.prompts.ContextAssembler;
+import com.airpg.prompts.PromptLibrary;
+import com.airpg.recording.SessionRecorder;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Service for managing team members (companions).
  * Handles recruitment, dialogue, and autonomous companion behavior.
@@ -24,6 +37,27 @@ public class TeamService {
     @Inject
     GameConfig gameConfig;
     
+    @Inject
+    LlmRequestScheduler scheduler;
+    
+    @Inject
+    PromptLibrary prompts;
+    
+    @Inject
+    ContextAssembler contextAssembler;
+    
+    private ExecutorService executor;
+    
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
     /**
      * Recruit a team member to the party
      */
@@ -31,13 +65,8 @@ public class TeamService {
         boolean added = gameState.addTeamMember(member, gameConfig.maxTeamSize());
         
         if (added) {
-            // Get initial greeting from the companion
-            String greeting = getCompanionDialogue(member, 
-                String.format("You've just joined %s's party. Introduce yourself briefly.", 
-                    gameState.getHero().getName()),
-                gameState);
-            
-            LOG.infof("Team member %s recruited. Greeting: %s", member.getName(), greeting);
+            LOG.infof("Team member %s recruited", member.getName());
+            greetInBackground(member, gameState);
             return true;
         } else {
             LOG.warnf("Failed to recruit %s - party full (max: %d)", 
@@ -46,58 +75,72 @@ public class TeamService {
         }
     }
     
+    /**
+     * Have the new companion greet the party off the player's thread. The greeting is only
+     * logged, so it runs at background priority and never holds up the recruit command.
+     * It runs on a fork of the companion's memory, committed only if the player hasn't
+     * talked to the companion in the meantime.
+     */
+    private void greetInBackground(TeamMember member, GameState gameState) {
+        // The game state and companion belong to the session's thread: build the prompt now
+        String name = member.getName();
+        String context = prompts.get("team/greeting").bind().set("hero", gameState.getHero().getName()).render();
+        DialoguePrompt prompt = buildDialoguePrompt(gameState, member, context);
+        AgentFork<CompanionAgent> fork = agentService.forkCompanionAgent(gameState.getSessionId(), member);
+        executor.execute(SessionRecorder.current().wrap(() -> {
+            try {
+                String greeting = scheduler.withPriority(LlmPriority.BACKGROUND,
+                        () -> fork.agent().speak(prompt.persona(), prompt.context()));
+                if (!agentService.commitFork(fork)) {
+                    LOG.debugf("%s's greeting is not remembered: the conversation moved on", name);
+                }
+                LOG.infof("%s greets the party: %s", name, greeting);
+            } catch (RuntimeException e) {
+                LOG.debugf("No greeting from %s: %s", name, e.getMessage());
+            }
+        }));
+    }
+    
     /**
      * Get dialogue from a companion
      */
+    @WithSpan
     public String getCompanionDialogue(TeamMember companion, String context, GameState gameState) {
-        CompanionAgent agent = agentService.getCompanionAgent(companion);
-        
-        String fullContext = String.format("""
-                You are %s, a %s in the party.
-                Your personality: %s
-                Your backstory: %s
-                Your loyalty to the party: %d/100
-                Current location: %s
-                Party leader: %s
-                
-                Context: %s
-                
-                Speak as this character.
-                """,
-                companion.getName(),
-                companion.getCharacterClass(),
-                companion.getPersonality(),
-                companion.getBackstory(),
-                companion.getLoyalty(),
-                gameState.getCurrentLocation(),
-                gameState.getHero().getName(),
-                context
-        );
-        
-        return agent.speak(fullContext);
+        CompanionAgent agent = agentService.getCompanionAgent(gameState.getSessionId(), companion);
+        DialoguePrompt prompt = buildDialoguePrompt(gameState, companion, context);
+        return agent.speak(prompt.persona(), prompt.context());
+    }
+    
+    private DialoguePrompt buildDialoguePrompt(GameState gameState, TeamMember companion, String context) {
+        String facts = contextAssembler.facts(agentService.companionContext(gameState.getSessionId(), companion))
+                .add("Your loyalty to the party", companion.getLoyalty() + "/100")
+                .add("Current location", gameState.getCurrentLocation())
+                .add("Party leader", gameState.getHero().getName())
+                .render();
+        String fullContext = ContextAssembler.compact(prompts.get("team/dialogue").bind()
+                .set("facts", facts)
+                .set("context", context)
+                .render());
+        return new DialoguePrompt(contextAssembler.companionPersona(companion), fullContext);
     }
     
     /**
      * Have companion react to an event or decision
      */
+    @WithSpan
     public String getCompanionReaction(TeamMember companion, String event, GameState gameState) {
-        CompanionAgent agent = agentService.getCompanionAgent(companion);
+        CompanionAgent agent = agentService.getCompanionAgent(gameState.getSessionId(), companion);
         
-        String context = String.format("""
-                You are %s (loyalty: %d/100).
-                Personality: %s
-                
-                Something happened: %s
-                
-                React to this event. Your loyalty may be affected by your response.
-                """,
-                companion.getName(),
-                companion.getLoyalty(),
-                companion.getPersonality(),
-                event
-        );
+        String persona = contextAssembler.companionPersona(companion);
+        String facts = contextAssembler.facts(agentService.companionContext(gameState.getSessionId(), companion))
+                .add("Your loyalty to the party", companion.getLoyalty() + "/100")
+                .render();
+        String context = ContextAssembler.compact(prompts.get("team/reaction").bind()
+                .set("facts", facts)
+                .set("event", event)
+                .render());
         
-        String reaction = agent.reactToEvent(context);
+        String reaction = scheduler.withPriority(LlmPriority.BACKGROUND, () -> agent.reactToEvent(persona, context));
         
         // Adjust loyalty based on reaction sentiment (simplified)
         adjustLoyaltyFromReaction(companion, reaction);
@@ -108,6 +151,7 @@ public class TeamService {
     /**
      * Have all companions react to a major event
      */
+    @WithSpan
     public String getAllCompanionsReactions(String event, GameState gameState) {
         StringBuilder reactions = new StringBuilder();
         
@@ -123,30 +167,46 @@ public class TeamService {
     }
     
     /**
-     * Get autonomous combat decision from companion
+     * Get autonomous combat decision from companion.
+     * The reply is parsed into a {@link CompanionDecision}; a reply that isn't valid JSON throws.
      */
-    public String getCompanionCombatDecision(TeamMember companion, String combatContext) {
-        CompanionAgent agent = agentService.getCompanionAgent(companion);
+    @WithSpan
+    public CompanionDecision getCompanionCombatDecision(TeamMember companion, String combatContext, GameState gameState) {
+        CompanionAgent agent = agentService.getCompanionAgent(gameState.getSessionId(), companion);
         
-        String context = String.format("""
-                You are %s, a %s in combat.
-                Your stats: HP %d/%d, Strength %d, Intelligence %d, Agility %d
-                
-                Combat situation: %s
-                
-                Decide your action.
-                """,
-                companion.getName(),
-                companion.getCharacterClass(),
-                companion.getCurrentHealth(),
-                companion.getMaxHealth(),
-                companion.getStrength(),
-                companion.getIntelligence(),
-                companion.getAgility(),
-                combatContext
-        );
+        String facts = contextAssembler.facts(agentService.companionContext(gameState.getSessionId(), companion))
+                .add("Your stats", prompts.get("team/stats").bind()
+                        .set("health", companion.getCurrentHealth())
+                        .set("maxHealth", companion.getMaxHealth())
+                        .set("mana", companion.getCurrentMana())
+                        .set("maxMana", companion.getMaxMana())
+                        .set("strength", companion.getStrength())
+                        .set("intelligence", companion.getIntelligence())
+                        .set("agility", companion.getAgility())
+                        .render())
+                .render();
+        String context = ContextAssembler.compact(prompts.get("team/combat-decision").bind()
+                .set("facts", facts)
+                .set("situation", combatContext)
+                .render());
+        
+        return agent.decideCombatAction(contextAssembler.companionPersona(companion), context);
+    }
+    
+    /**
+     * Short in-character line to go with a combat action the companion has already decided on
+     */
+    @WithSpan
+    public String getCompanionCombatLine(TeamMember companion, CompanionDecision decision, GameState gameState) {
+        CompanionAgent agent = agentService.getCompanionAgent(gameState.getSessionId(), companion);
         
-        return agent.decideCombatAction(context);
+        String context = ContextAssembler.compact(prompts.get("team/combat-line").bind()
+                .set("action", decision.action().name().toLowerCase())
+                .set("target", decision.target())
+                .set("reason", decision.reason())
+                .render());
+        
+        return agent.speak(contextAssembler.companionPersona(companion), context);
     }
     
     /**
@@ -189,4 +249,6 @@ public class TeamService {
         
         return warnings.toString();
     }
+    
+    private record DialoguePrompt(String persona, String context) {}
 }
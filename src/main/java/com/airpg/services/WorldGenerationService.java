@@ -0,0 +1,160 @@
+package com.airpg.services;
+
+import com.airpg.config.GameConfig;
+import com.airpg.domain.GameState;
+import com.airpg.domain.WorldMap;
+import com.airpg.world.Region;
+import com.airpg.world.WorldGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lazily expands the world around the party. The first time the party is at a location,
+ * its {@link Region} (new places nearby and the people living there) is added to the game.
+ * Regions are cached per world seed and location, and the regions next to the party are
+ * generated in the background, so arriving somewhere new only applies a ready region.
+ * Only the generation runs in the background; the game state is changed by the caller.
+ */
+@ApplicationScoped
+public class WorldGenerationService {
+
+    private static final Logger LOG = Logger.getLogger(WorldGenerationService.class);
+
+    @Inject
+    GameConfig gameConfig;
+
+    private final WorldGenerator generator = new WorldGenerator();
+    private Map<RegionKey, CompletableFuture<Region>> regions;
+    private ExecutorService executor;
+
+    private record RegionKey(long worldSeed, String location) {
+
+        static RegionKey of(long worldSeed, String location) {
+            return new RegionKey(worldSeed, location.strip().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        int maxRegions = gameConfig.world().regionCacheSize();
+        regions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RegionKey, CompletableFuture<Region>> eldest) {
+                return size() > maxRegions;
+            }
+        };
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Add the region of the party's location if it hasn't been explored yet,
+     * then start generating the regions of its unexplored neighbours
+     */
+    public void explore(GameState gameState) {
+        WorldMap map = gameState.getWorldMap();
+        String location = map.find(gameState.getCurrentLocation()).orElse(gameState.getCurrentLocation());
+        if (!map.isExplored(location)) {
+            apply(gameState, location, region(gameState.getWorldSeed(), location));
+        }
+        if (gameConfig.world().prefetch()) {
+            for (String neighbor : map.neighbors(location).keySet()) {
+                if (!map.isExplored(neighbor)) {
+                    prefetch(gameState.getWorldSeed(), neighbor);
+                }
+            }
+        }
+    }
+
+    private void apply(GameState gameState, String location, Region region) {
+        WorldMap map = gameState.getWorldMap();
+        map.addLocation(location);
+        for (Region.Exit exit : region.exits()) {
+            // Only new places: existing routes and hand-made regions keep their costs
+            if (!map.contains(exit.name())) {
+                map.connect(location, exit.name(), exit.cost());
+            }
+        }
+        List<String> arrived = new ArrayList<>();
+        for (Region.Resident resident : region.residents()) {
+            if (gameState.findNPC(resident.id()) == null) {
+                gameState.addNPC(resident.toNPC(location));
+                arrived.add(resident.name());
+            }
+        }
+        map.markExplored(location);
+        LOG.debugf("Explored %s: %d exits, residents %s", location, region.exits().size(), arrived);
+    }
+
+    private Region region(long worldSeed, String location) {
+        CompletableFuture<Region> region = cached(worldSeed, location, false);
+        try {
+            return region.get();
+        } catch (ExecutionException e) {
+            evict(worldSeed, location, region);
+            throw new IllegalStateException("Cannot generate region " + location, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating region " + location, e);
+        }
+    }
+
+    private void prefetch(long worldSeed, String location) {
+        cached(worldSeed, location, true);
+    }
+
+    /**
+     * The cached region, generating it on this thread or in the background if it's missing
+     */
+    private CompletableFuture<Region> cached(long worldSeed, String location, boolean background) {
+        RegionKey key = RegionKey.of(worldSeed, location);
+        CompletableFuture<Region> region;
+        synchronized (regions) {
+            region = regions.get(key);
+            if (region != null) {
+                return region;
+            }
+            region = new CompletableFuture<>();
+            regions.put(key, region);
+        }
+        CompletableFuture<Region> pending = region;
+        Runnable generate = () -> {
+            try {
+                pending.complete(generator.generate(worldSeed, location));
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Generating region %s failed", location);
+                pending.completeExceptionally(e);
+                evict(worldSeed, location, pending);
+            }
+        };
+        if (background) {
+            executor.execute(generate);
+        } else {
+            generate.run();
+        }
+        return region;
+    }
+
+    private void evict(long worldSeed, String location, CompletableFuture<Region> region) {
+        synchronized (regions) {
+            regions.remove(RegionKey.of(worldSeed, location), region);
+        }
+    }
+}
@@ -4,14 +4,27 @@ import com.airpg.agents.AgentService;
 import com.airpg.agents.WorldNarratorAgent;
 import com.airpg.agents.WorldNarratorStreamingAgent;
 import com.airpg.domain.GameState;
+import com.airpg.domain.NPC;
+import com.airpg.domain.Quest;
+import com.airpg.domain.WorldMap;
+import com.airpg.prompts.PromptLibrary;
 import dev.langchain4j.service.TokenStream;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 /**
  * Service for managing world state and story progression.
  * Handles location changes, world events, and narrative generation.
+ * Prompts state the routes, people and quests at a location from the world's
+ * indexes (map, NPC registry), so the narrator doesn't have to invent them.
+ * Prompt texts are the world/* templates of the {@link PromptLibrary}.
  */
 @ApplicationScoped
 public class WorldService {
@@ -21,22 +34,20 @@ public class WorldService {
     @Inject
     AgentService agentService;
     
+    @Inject
+    WorldGenerationService worldGeneration;
+    
+    @Inject
+    PromptLibrary prompts;
+    
     /**
      * Generate an initial scene description for the game start
      */
+    @WithSpan
     public String generateOpeningScene(GameState gameState) {
-        WorldNarratorAgent narrator = agentService.getWorldNarrator();
-        
-        String context = String.format("""
-                The game begins. The hero '%s' (a %s) stands in %s.
-                Their quest: %s
-                The adventure is about to begin. Set the scene and create anticipation.
-                """,
-                gameState.getHero().getName(),
-                gameState.getHero().getCharacterClass(),
-                gameState.getCurrentLocation(),
-                gameState.getMainGoal()
-        );
+        WorldNarratorAgent narrator = agentService.getWorldNarrator(gameState.getSessionId());
+        
+        String context = buildOpeningContext(gameState);
         
         String narration = narrator.narrateScene(context);
         LOG.debugf("Opening scene generated for hero: %s", gameState.getHero().getName());
@@ -46,47 +57,20 @@ public class WorldService {
     /**
      * Describe the current location
      */
+    @WithSpan
     public String describeLocation(GameState gameState) {
-        WorldNarratorAgent narrator = agentService.getWorldNarrator();
-        
-        String context = String.format("""
-                Location: %s
-                Hero: %s (Level %d %s)
-                Party size: %d
-                Current quest: %s
-                Describe this location in vivid detail.
-                """,
-                gameState.getCurrentLocation(),
-                gameState.getHero().getName(),
-                gameState.getHero().getLevel(),
-                gameState.getHero().getCharacterClass(),
-                gameState.getTeamMembers().size(),
-                gameState.getMainGoal()
-        );
-        
-        return narrator.describeLocation(context);
+        WorldNarratorAgent narrator = agentService.getWorldNarrator(gameState.getSessionId());
+        return narrator.describeLocation(buildLocationContext(gameState));
     }
     
     /**
      * Process player's exploration action (movement, investigation, etc.)
      */
+    @WithSpan
     public String processPlayerAction(GameState gameState, String playerAction) {
-        WorldNarratorAgent narrator = agentService.getWorldNarrator();
-        
-        String context = String.format("""
-                Location: %s
-                Hero: %s
-                Player action: "%s"
-                
-                Respond to this action with narrative.
-                If the action involves movement, describe the new location.
-                If it involves discovery, reveal appropriate information.
-                Consider potential encounters or events.
-                """,
-                gameState.getCurrentLocation(),
-                gameState.getHero().getName(),
-                playerAction
-        );
+        WorldNarratorAgent narrator = agentService.getWorldNarrator(gameState.getSessionId());
+        
+        String context = buildActionContext(gameState, playerAction);
         
         String response = narrator.respondToAction(context);
         LOG.debugf("Player action processed: %s", playerAction);
@@ -96,27 +80,17 @@ public class WorldService {
     /**
      * Generate a random encounter or event
      */
+    @WithSpan
     public String generateRandomEvent(GameState gameState) {
-        WorldNarratorAgent narrator = agentService.getWorldNarrator();
-        
-        String context = String.format("""
-                Location: %s
-                Hero: %s (Level %d)
-                Party size: %d
-                
-                Generate a random event or encounter appropriate for this location.
-                It could be:
-                - Meeting an NPC
-                - Finding an item or clue
-                - Environmental challenge
-                - Combat encounter
-                - Story development
-                """,
-                gameState.getCurrentLocation(),
-                gameState.getHero().getName(),
-                gameState.getHero().getLevel(),
-                gameState.getTeamMembers().size()
-        );
+        WorldNarratorAgent narrator = agentService.getWorldNarrator(gameState.getSessionId());
+        
+        String context = prompts.get("world/random-event").bind()
+                .set("location", gameState.getCurrentLocation())
+                .set("surroundings", buildSurroundings(gameState))
+                .set("hero", gameState.getHero().getName())
+                .set("level", gameState.getHero().getLevel())
+                .set("partySize", gameState.getTeamMembers().size())
+                .render();
         
         return narrator.narrateScene(context);
     }
@@ -125,22 +99,9 @@ public class WorldService {
      * Process player's exploration action (movement, investigation, etc.) with streaming
      */
     public void processPlayerActionStreaming(GameState gameState, String playerAction, StreamingResponseHandler handler) {
-        WorldNarratorStreamingAgent narrator = agentService.getWorldNarratorStreaming();
-        
-        String context = String.format("""
-                Location: %s
-                Hero: %s
-                Player action: "%s"
-                
-                Respond to this action with narrative.
-                If the action involves movement, describe the new location.
-                If it involves discovery, reveal appropriate information.
-                Consider potential encounters or events.
-                """,
-                gameState.getCurrentLocation(),
-                gameState.getHero().getName(),
-                playerAction
-        );
+        WorldNarratorStreamingAgent narrator = agentService.getWorldNarratorStreaming(gameState.getSessionId());
+        
+        String context = buildActionContext(gameState, playerAction);
         
         TokenStream tokenStream = narrator.respondToAction(context);
         tokenStream
@@ -160,18 +121,9 @@ public class WorldService {
      * Generate an initial scene description for the game start with streaming
      */
     public void generateOpeningSceneStreaming(GameState gameState, StreamingResponseHandler handler) {
-        WorldNarratorStreamingAgent narrator = agentService.getWorldNarratorStreaming();
-        
-        String context = String.format("""
-                The game begins. The hero '%s' (a %s) stands in %s.
-                Their quest: %s
-                The adventure is about to begin. Set the scene and create anticipation.
-                """,
-                gameState.getHero().getName(),
-                gameState.getHero().getCharacterClass(),
-                gameState.getCurrentLocation(),
-                gameState.getMainGoal()
-        );
+        WorldNarratorStreamingAgent narrator = agentService.getWorldNarratorStreaming(gameState.getSessionId());
+        
+        String context = buildOpeningContext(gameState);
         
         TokenStream tokenStream = narrator.narrateScene(context);
         tokenStream
@@ -191,22 +143,9 @@ public class WorldService {
      * Describe the current location with streaming
      */
     public void describeLocationStreaming(GameState gameState, StreamingResponseHandler handler) {
-        WorldNarratorStreamingAgent narrator = agentService.getWorldNarratorStreaming();
-        
-        String context = String.format("""
-                Location: %s
-                Hero: %s (Level %d %s)
-                Party size: %d
-                Current quest: %s
-                Describe this location in vivid detail.
-                """,
-                gameState.getCurrentLocation(),
-                gameState.getHero().getName(),
-                gameState.getHero().getLevel(),
-                gameState.getHero().getCharacterClass(),
-                gameState.getTeamMembers().size(),
-                gameState.getMainGoal()
-        );
+        WorldNarratorStreamingAgent narrator = agentService.getWorldNarratorStreaming(gameState.getSessionId());
+        
+        String context = buildLocationContext(gameState);
         
         TokenStream tokenStream = narrator.describeLocation(context);
         tokenStream
@@ -225,26 +164,110 @@ public class WorldService {
     /**
      * Move to a new location and get description
      */
+    @WithSpan
     public String travelToLocation(GameState gameState, String newLocation) {
         String oldLocation = gameState.getCurrentLocation();
+        WorldMap map = gameState.getWorldMap();
+        Optional<WorldMap.Route> route = map.find(newLocation).flatMap(known -> map.route(oldLocation, known));
         gameState.moveTo(newLocation);
+        worldGeneration.explore(gameState);
+        String destination = gameState.getCurrentLocation();
         
-        WorldNarratorAgent narrator = agentService.getWorldNarrator();
-        
-        String context = String.format("""
-                The party travels from %s to %s.
-                Hero: %s
-                Party size: %d
-                
-                Describe the journey and arrival at the new location.
-                """,
-                oldLocation,
-                newLocation,
-                gameState.getHero().getName(),
-                gameState.getTeamMembers().size()
-        );
-        
-        LOG.infof("Party traveled from %s to %s", oldLocation, newLocation);
+        WorldNarratorAgent narrator = agentService.getWorldNarrator(gameState.getSessionId());
+        
+        String context = prompts.get("world/travel").bind()
+                .set("from", oldLocation)
+                .set("to", destination)
+                .set("route", route.map(WorldService::describeRoute).orElse(" (a place not on their map yet)"))
+                .set("surroundings", buildSurroundings(gameState))
+                .set("hero", gameState.getHero().getName())
+                .set("partySize", gameState.getTeamMembers().size())
+                .render();
+        
+        LOG.infof("Party traveled from %s to %s", oldLocation, destination);
         return narrator.describeLocation(context);
     }
+    
+    private String buildOpeningContext(GameState gameState) {
+        return prompts.get("world/opening-scene").bind()
+                .set("hero", gameState.getHero().getName())
+                .set("heroClass", gameState.getHero().getCharacterClass())
+                .set("location", gameState.getCurrentLocation())
+                .set("quest", gameState.getMainGoal())
+                .render();
+    }
+    
+    /**
+     * Prompt for the narrator's response to an action. Reads the world's indexes,
+     * so it must be rendered on the session's thread (e.g., ahead of a speculative request).
+     */
+    String buildActionContext(GameState gameState, String playerAction) {
+        return prompts.get("world/action").bind()
+                .set("location", gameState.getCurrentLocation())
+                .set("surroundings", buildSurroundings(gameState))
+                .set("hero", gameState.getHero().getName())
+                .set("action", playerAction)
+                .render();
+    }
+    
+    /**
+     * Prompt for describing the current location; like {@link #buildActionContext},
+     * rendered on the session's thread
+     */
+    String buildLocationContext(GameState gameState) {
+        return prompts.get("world/location").bind()
+                .set("location", gameState.getCurrentLocation())
+                .set("surroundings", buildSurroundings(gameState))
+                .set("hero", gameState.getHero().getName())
+                .set("level", gameState.getHero().getLevel())
+                .set("heroClass", gameState.getHero().getCharacterClass())
+                .set("partySize", gameState.getTeamMembers().size())
+                .set("quest", gameState.getMainGoal())
+                .render();
+    }
+    
+    /**
+     * Routes, people and open quests at the current location, one line each
+     */
+    private static String buildSurroundings(GameState gameState) {
+        String location = gameState.getCurrentLocation();
+        Map<String, Integer> paths = gameState.getWorldMap().neighbors(location);
+        List<NPC> present = gameState.getNPCsHere().stream().filter(NPC::isAlive).toList();
+        List<Quest> quests = gameState.getActiveQuestsAt(location);
+        
+        StringBuilder surroundings = new StringBuilder("Paths lead to: ")
+                .append(paths.isEmpty() ? "no known places" : paths.entrySet().stream()
+                        .map(path -> path.getKey() + " (" + hours(path.getValue()) + ")")
+                        .collect(Collectors.joining(", ")))
+                .append('\n')
+                .append("Present: ")
+                .append(present.isEmpty() ? "no one else" : present.stream()
+                        .map(npc -> npc.getName() + " (" + npc.getRole() + (npc.isHostile() ? ", hostile" : "") + ")")
+                        .collect(Collectors.joining(", ")))
+                .append('\n');
+        for (NPC npc : present) {
+            if (npc.getRecentActivity() != null) {
+                surroundings.append("Lately, ").append(npc.getName()).append(": ")
+                        .append(npc.getRecentActivity()).append('\n');
+            }
+        }
+        if (!quests.isEmpty()) {
+            surroundings.append("Open quests here: ")
+                    .append(quests.stream().map(Quest::getTitle).collect(Collectors.joining(", ")))
+                    .append('\n');
+        }
+        return surroundings.toString();
+    }
+    
+    private static String describeRoute(WorldMap.Route route) {
+        List<String> stops = route.stops();
+        String via = stops.size() > 2
+                ? " by way of " + String.join(", ", stops.subList(1, stops.size() - 1))
+                : "";
+        return via + " (" + hours(route.cost()) + " on the road)";
+    }
+    
+    private static String hours(int cost) {
+        return cost == 1 ? "1 hour" : cost + " hours";
+    }
 }
@@ -2,11 +2,13 @@ package com.airpg.services.impl;
 
 import com.airpg.config.PersistenceConfig;
 import com.airpg.domain.*;
+import com.airpg.persistence.PersistenceEvent;
 import com.airpg.services.GamePersistenceService;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
@@ -35,6 +37,7 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
     PersistenceConfig config;
 
     @Override
+    @WithSpan
     public SaveResult saveGame(GameState state, String saveName) {
         if (!config.enabled()) {
             return new SaveResult(false, "Persistence is disabled", null);
@@ -48,6 +51,7 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
             return new SaveResult(false, "Cannot save during combat", null);
         }
 
+        PersistenceEvent event = PersistenceEvent.start("saveGame");
         try {
             return dsl.transactionResult(ctx -> {
                 DSLContext txDsl = ctx.dsl();
@@ -70,6 +74,7 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
                             .set(field("current_location"), state.getCurrentLocation())
                             .set(field("main_goal"), state.getMainGoal())
                             .set(field("game_status"), state.getStatus().name())
+                            .set(field("world_seed"), state.getWorldSeed())
                             .set(field("updated_at"), LocalDateTime.now())
                             .where(field("id").eq(saveId))
                             .execute();
@@ -88,6 +93,7 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
                                     field("current_location"),
                                     field("main_goal"),
                                     field("game_status"),
+                                    field("world_seed"),
                                     field("created_at"),
                                     field("updated_at")
                             )
@@ -100,12 +106,13 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
                                     state.getCurrentLocation(),
                                     state.getMainGoal(),
                                     state.getStatus().name(),
+                                    state.getWorldSeed(),
                                     LocalDateTime.now(),
                                     LocalDateTime.now()
                             )
                             .returning(field("id", Long.class))
                             .fetchOne()
-                            .get("ID", Long.class);
+                            .get(0, Long.class);
                 }
 
                 // Save hero
@@ -126,6 +133,9 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
                     saveQuest(txDsl, saveId, quest);
                 }
 
+                // Save world map
+                saveWorldMap(txDsl, saveId, state.getWorldMap());
+
                 // Save story history
                 List<String> history = state.getStoryHistory();
                 for (int i = 0; i < history.size(); i++) {
@@ -138,15 +148,19 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
         } catch (Exception e) {
             LOG.errorf(e, "Failed to save game: %s", saveName);
             return new SaveResult(false, "Failed to save: " + e.getMessage(), null);
+        } finally {
+            event.finish();
         }
     }
 
     @Override
+    @WithSpan
     public GameState loadGame(Long saveId) {
         if (!config.enabled()) {
             return null;
         }
 
+        PersistenceEvent event = PersistenceEvent.start("loadGame");
         try {
             // Load main save record
             Record saveRecord = dsl.select()
@@ -167,6 +181,9 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
             state.setCurrentLocation(saveRecord.get("CURRENT_LOCATION", String.class));
             state.setMainGoal(saveRecord.get("MAIN_GOAL", String.class));
             state.setStatus(GameState.GameStatus.valueOf(saveRecord.get("GAME_STATUS", String.class)));
+            Long worldSeed = saveRecord.get("WORLD_SEED", Long.class);
+            // Saves from before worlds were generated get a seed that stays the same across loads
+            state.setWorldSeed(worldSeed != null ? worldSeed : state.getGameId().hashCode());
 
             // Load hero
             Hero hero = loadHero(saveId);
@@ -184,6 +201,9 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
             List<Quest> quests = loadQuests(saveId);
             state.setQuests(quests);
 
+            // Load world map
+            state.setWorldMap(loadWorldMap(saveId, state.getCurrentLocation()));
+
             // Load story history
             List<String> history = loadStoryHistory(saveId);
             state.setStoryHistory(history);
@@ -193,15 +213,19 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
         } catch (Exception e) {
             LOG.errorf(e, "Failed to load game: %d", saveId);
             return null;
+        } finally {
+            event.finish();
         }
     }
 
     @Override
+    @WithSpan
     public List<SaveMetadata> listSaves() {
         if (!config.enabled()) {
             return Collections.emptyList();
         }
 
+        PersistenceEvent event = PersistenceEvent.start("listSaves");
         try {
             Result<Record> records = dsl.select()
                     .from(table("game_saves"))
@@ -226,15 +250,19 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
         } catch (Exception e) {
             LOG.errorf(e, "Failed to list saves");
             return Collections.emptyList();
+        } finally {
+            event.finish();
         }
     }
 
     @Override
+    @WithSpan
     public void deleteSave(Long saveId) {
         if (!config.enabled()) {
             return;
         }
 
+        PersistenceEvent event = PersistenceEvent.start("deleteSave");
         try {
             int deleted = dsl.deleteFrom(table("game_saves"))
                     .where(field("id").eq(saveId))
@@ -247,15 +275,19 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
             }
         } catch (Exception e) {
             LOG.errorf(e, "Failed to delete save: %d", saveId);
+        } finally {
+            event.finish();
         }
     }
 
     @Override
+    @WithSpan
     public void saveAgentMemories(Long gameSaveId, Map<Object, List<ChatMessage>> memories) {
         if (!config.enabled() || memories == null || memories.isEmpty()) {
             return;
         }
 
+        PersistenceEvent event = PersistenceEvent.start("saveAgentMemories");
         try {
             // Delete existing memories for this save
             dsl.deleteFrom(table("agent_memories"))
@@ -288,15 +320,19 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
             LOG.infof("Saved %d agent memories for save %d", memories.size(), gameSaveId);
         } catch (Exception e) {
             LOG.errorf(e, "Failed to save agent memories for save: %d", gameSaveId);
+        } finally {
+            event.finish();
         }
     }
 
     @Override
+    @WithSpan
     public Map<Object, List<ChatMessage>> loadAgentMemories(Long gameSaveId) {
         if (!config.enabled()) {
             return Collections.emptyMap();
         }
 
+        PersistenceEvent event = PersistenceEvent.start("loadAgentMemories");
         try {
             Result<Record> records = dsl.select()
                     .from(table("agent_memories"))
@@ -319,6 +355,8 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
         } catch (Exception e) {
             LOG.errorf(e, "Failed to load agent memories for save: %d", gameSaveId);
             return Collections.emptyMap();
+        } finally {
+            event.finish();
         }
     }
 
@@ -330,6 +368,8 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
         txDsl.deleteFrom(table("npcs")).where(field("game_save_id").eq(saveId)).execute();
         txDsl.deleteFrom(table("quests")).where(field("game_save_id").eq(saveId)).execute();
         txDsl.deleteFrom(table("story_history")).where(field("game_save_id").eq(saveId)).execute();
+        txDsl.deleteFrom(table("locations")).where(field("game_save_id").eq(saveId)).execute();
+        txDsl.deleteFrom(table("location_routes")).where(field("game_save_id").eq(saveId)).execute();
         txDsl.deleteFrom(table("agent_memories")).where(field("game_save_id").eq(saveId)).execute();
     }
 
@@ -454,7 +494,8 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
                         field("constitution"), field("charisma"),
                         field("current_health"), field("max_health"),
                         field("current_mana"), field("max_mana"),
-                        field("armor_bonus"), field("weapon_bonus")
+                        field("armor_bonus"), field("weapon_bonus"),
+                        field("agenda_progress"), field("recent_activity")
                 )
                 .values(
                         saveId, npc.getId(), npc.getName(),
@@ -464,7 +505,8 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
                         npc.getConstitution(), npc.getCharisma(),
                         npc.getCurrentHealth(), npc.getMaxHealth(),
                         npc.getCurrentMana(), npc.getMaxMana(),
-                        npc.getArmorBonus(), npc.getWeaponBonus()
+                        npc.getArmorBonus(), npc.getWeaponBonus(),
+                        npc.getAgendaProgress(), npc.getRecentActivity()
                 )
                 .execute();
     }
@@ -497,6 +539,8 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
                     .maxMana(record.get("MAX_MANA", Integer.class))
                     .armorBonus(record.get("ARMOR_BONUS", Integer.class))
                     .weaponBonus(record.get("WEAPON_BONUS", Integer.class))
+                    .agendaProgress(record.get("AGENDA_PROGRESS", Integer.class))
+                    .recentActivity(record.get("RECENT_ACTIVITY", String.class))
                     .build();
             npcs.add(npc);
         }
@@ -561,6 +605,55 @@ public class GamePersistenceServiceImpl implements GamePersistenceService {
         return history;
     }
 
+    private void saveWorldMap(DSLContext txDsl, Long saveId, WorldMap map) {
+        int order = 0;
+        for (String location : map.locations()) {
+            txDsl.insertInto(table("locations"))
+                    .columns(field("game_save_id"), field("location_order"), field("name"), field("explored"))
+                    .values(saveId, order++, location, map.isExplored(location))
+                    .execute();
+        }
+        for (WorldMap.Connection connection : map.connections()) {
+            txDsl.insertInto(table("location_routes"))
+                    .columns(field("game_save_id"), field("from_location"), field("to_location"), field("travel_cost"))
+                    .values(saveId, connection.from(), connection.to(), connection.cost())
+                    .execute();
+        }
+    }
+
+    /**
+     * The saved map; saves from before maps were stored get the default map with their location on it
+     */
+    private WorldMap loadWorldMap(Long saveId, String currentLocation) {
+        Result<Record> locations = dsl.select()
+                .from(table("locations"))
+                .where(field("game_save_id").eq(saveId))
+                .orderBy(field("location_order"))
+                .fetch();
+        if (locations.isEmpty()) {
+            WorldMap map = WorldMap.createDefault();
+            map.discover(currentLocation, map.locations().iterator().next());
+            return map;
+        }
+
+        WorldMap map = new WorldMap();
+        for (Record record : locations) {
+            String location = map.addLocation(record.get("NAME", String.class));
+            if (Boolean.TRUE.equals(record.get("EXPLORED", Boolean.class))) {
+                map.markExplored(location);
+            }
+        }
+        Result<Record> routes = dsl.select()
+                .from(table("location_routes"))
+                .where(field("game_save_id").eq(saveId))
+                .fetch();
+        for (Record record : routes) {
+            map.connect(record.get("FROM_LOCATION", String.class), record.get("TO_LOCATION", String.class),
+                    record.get("TRAVEL_COST", Integer.class));
+        }
+        return map;
+    }
+
     private void setGameId(GameState state, String gameId) {
         // GameState generates a random UUID in constructor, we need to override it
         // Using reflection since there's no setter
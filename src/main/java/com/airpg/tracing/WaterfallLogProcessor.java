@@ -0,0 +1,107 @@
+package com.airpg.tracing;
+
+import com.airpg.config.TracingConfig;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Span processor that logs each finished trace as an indented waterfall,
+ * one line per span with its start offset and duration.
+ * Enabled with tracing.log-waterfall=true; works alongside (or without) the OTLP exporter.
+ */
+@ApplicationScoped
+public class WaterfallLogProcessor implements SpanProcessor {
+
+    private static final Logger LOG = Logger.getLogger(WaterfallLogProcessor.class);
+
+    @Inject
+    TracingConfig config;
+
+    private final Map<String, List<SpanData>> pending = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<SpanData>> eldest) {
+            return size() > config.maxPendingTraces();
+        }
+    };
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!config.logWaterfall()) {
+            return;
+        }
+        SpanData data = span.toSpanData();
+        List<SpanData> trace;
+        synchronized (pending) {
+            trace = pending.computeIfAbsent(data.getTraceId(), id -> new ArrayList<>());
+            trace.add(data);
+            if (data.getParentSpanContext().isValid()) {
+                return;
+            }
+            pending.remove(data.getTraceId());
+        }
+        LOG.info(render(data, trace));
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        synchronized (pending) {
+            pending.clear();
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static String render(SpanData root, List<SpanData> spans) {
+        Map<String, List<SpanData>> children = new LinkedHashMap<>();
+        spans.stream()
+                .sorted(Comparator.comparingLong(SpanData::getStartEpochNanos))
+                .forEach(span -> children
+                        .computeIfAbsent(span.getParentSpanId(), id -> new ArrayList<>())
+                        .add(span));
+
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Trace %s (%d spans)%n", root.getTraceId(), spans.size()));
+        appendSpan(out, root, root.getStartEpochNanos(), 0, children);
+        return out.toString();
+    }
+
+    private static void appendSpan(StringBuilder out, SpanData span, long traceStart, int depth,
+                                   Map<String, List<SpanData>> children) {
+        out.append(String.format("  %9.1fms %9.1fms  %s%s%s%n",
+                (span.getStartEpochNanos() - traceStart) / 1e6,
+                (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1e6,
+                "  ".repeat(depth),
+                span.getName(),
+                span.getStatus().getStatusCode() == StatusCode.ERROR ? " [ERROR]" : ""));
+        for (SpanData child : children.getOrDefault(span.getSpanId(), List.of())) {
+            appendSpan(out, child, traceStart, depth + 1, children);
+        }
+    }
+}
@@ -27,7 +27,10 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.PreserveOnRefresh;
 import com.vaadin.flow.router.Route;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
 import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
 
@@ -39,10 +42,14 @@ import java.util.List;
  * Provides text-based interface for player input and game output.
  */
 @Route("")
+@PreserveOnRefresh
 public class GameView extends VerticalLayout {
     
     @Inject
     private GameEngine gameEngine;
+
+    @Inject
+    private Tracer tracer;
     
     // UI Components
     private final TextArea storyArea;
@@ -314,49 +321,56 @@ public class GameView extends VerticalLayout {
         appendToStory("=".repeat(50) + "\n\n");
 
         // Start the game with streaming
-        gameEngine.startNewGameStreaming(heroName, heroClass, new com.airpg.services.StreamingResponseHandler() {
-            @Override
-            public void onToken(String token) {
-                // Update UI on UI thread with each token
-                UI ui = getUI().orElse(null);
-                if (ui != null) {
-                    ui.access(() -> {
-                        appendToStory(token);
-                        ui.push();
-                    });
+        TurnTrace trace = TurnTrace.start(tracer, "new game", heroName + " the " + heroClass);
+        try (Scope ignored = trace.makeCurrent()) {
+            gameEngine.startNewGameStreaming(heroName, heroClass, new com.airpg.services.StreamingResponseHandler() {
+                @Override
+                public void onToken(String token) {
+                    // Update UI on UI thread with each token
+                    UI ui = getUI().orElse(null);
+                    if (ui != null) {
+                        ui.access(() -> trace.tokenPush(token, () -> {
+                            appendToStory(token);
+                            ui.push();
+                        }));
+                    }
                 }
-            }
 
-            @Override
-            public void onComplete(String fullResponse) {
-                // Enable controls and update UI when streaming is complete
-                UI ui = getUI().orElse(null);
-                if (ui != null) {
-                    ui.access(() -> {
-                        appendToStory("\n");
-                        updateSidePanels();
-                        setGameControlsEnabled(true);
-                        inputField.focus();
-                        ui.push();
-                    });
+                @Override
+                public void onComplete(String fullResponse) {
+                    // Enable controls and update UI when streaming is complete
+                    UI ui = getUI().orElse(null);
+                    if (ui != null) {
+                        ui.access(() -> trace.finish(() -> {
+                            appendToStory("\n");
+                            updateSidePanels();
+                            setGameControlsEnabled(true);
+                            inputField.focus();
+                            ui.push();
+                        }, null));
+                    } else {
+                        trace.end(null);
+                    }
                 }
-            }
 
-            @Override
-            public void onError(Throwable error) {
-                // Handle error and still enable controls
-                UI ui = getUI().orElse(null);
-                if (ui != null) {
-                    ui.access(() -> {
-                        appendToStory("\n[Error starting game: " + error.getMessage() + "]\n");
-                        updateSidePanels();
-                        setGameControlsEnabled(true);
-                        inputField.focus();
-                        ui.push();
-                    });
+                @Override
+                public void onError(Throwable error) {
+                    // Handle error and still enable controls
+                    UI ui = getUI().orElse(null);
+                    if (ui != null) {
+                        ui.access(() -> trace.finish(() -> {
+                            appendToStory("\n[Error starting game: " + error.getMessage() + "]\n");
+                            updateSidePanels();
+                            setGameControlsEnabled(true);
+                            inputField.focus();
+                            ui.push();
+                        }, error));
+                    } else {
+                        trace.end(error);
+                    }
                 }
-            }
-        });
+            });
+        }
     }
     
     /**
@@ -374,49 +388,56 @@ public class GameView extends VerticalLayout {
         appendToStory("\n> " + action + "\n\n");
         
         // Process input through game engine with streaming
-        gameEngine.processPlayerInputStreaming(action, new com.airpg.services.StreamingResponseHandler() {
-            @Override
-            public void onToken(String token) {
-                // Update UI on UI thread with each token
-                UI ui = getUI().orElse(null);
-                if (ui != null) {
-                    ui.access(() -> {
-                        appendToStory(token);
-                        ui.push();
-                    });
+        TurnTrace trace = TurnTrace.start(tracer, "turn", action);
+        try (Scope ignored = trace.makeCurrent()) {
+            gameEngine.processPlayerInputStreaming(action, new com.airpg.services.StreamingResponseHandler() {
+                @Override
+                public void onToken(String token) {
+                    // Update UI on UI thread with each token
+                    UI ui = getUI().orElse(null);
+                    if (ui != null) {
+                        ui.access(() -> trace.tokenPush(token, () -> {
+                            appendToStory(token);
+                            ui.push();
+                        }));
+                    }
                 }
-            }
             
-            @Override
-            public void onComplete(String fullResponse) {
-                // Re-enable controls and update UI when streaming is complete
-                UI ui = getUI().orElse(null);
-                if (ui != null) {
-                    ui.access(() -> {
-                        appendToStory("\n");
-                        updateSidePanels();
-                        setGameControlsEnabled(true);
-                        inputField.focus();
-                        ui.push();
-                    });
+                @Override
+                public void onComplete(String fullResponse) {
+                    // Re-enable controls and update UI when streaming is complete
+                    UI ui = getUI().orElse(null);
+                    if (ui != null) {
+                        ui.access(() -> trace.finish(() -> {
+                            appendToStory("\n");
+                            updateSidePanels();
+                            setGameControlsEnabled(true);
+                            inputField.focus();
+                            ui.push();
+                        }, null));
+                    } else {
+                        trace.end(null);
+                    }
                 }
-            }
             
-            @Override
-            public void onError(Throwable error) {
-                // Handle error and re-enable controls
-                UI ui = getUI().orElse(null);
-                if (ui != null) {
-                    ui.access(() -> {
-                        appendToStory("\n[Error: " + error.getMessage() + "]\n");
-                        updateSidePanels();
-                        setGameControlsEnabled(true);
-                        inputField.focus();
-                        ui.push();
-                    });
+                @Override
+                public void onError(Throwable error) {
+                    // Handle error and re-enable controls
+                    UI ui = getUI().orElse(null);
+                    if (ui != null) {
+                        ui.access(() -> trace.finish(() -> {
+                            appendToStory("\n[Error: " + error.getMessage() + "]\n");
+                            updateSidePanels();
+                            setGameControlsEnabled(true);
+                            inputField.focus();
+                            ui.push();
+                        }, error));
+                    } else {
+                        trace.end(error);
+                    }
                 }
-            }
-        });
+            });
+        }
     }
     
     /**
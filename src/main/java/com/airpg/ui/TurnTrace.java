@@ -0,0 +1,103 @@
+package com.airpg.ui;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Root span of one player turn, from submitting the action to the final UI push.
+ * Token pushes are aggregated into attributes instead of a span each;
+ * the final push gets its own child span. Every push is also recorded as a JFR event.
+ * Push methods run under the UI lock.
+ */
+final class TurnTrace {
+
+    private final Tracer tracer;
+    private final Span span;
+    private int tokenPushes;
+    private long tokenPushNanos;
+    private long lastPushNanos;
+
+    private TurnTrace(Tracer tracer, Span span) {
+        this.tracer = tracer;
+        this.span = span;
+    }
+
+    static TurnTrace start(Tracer tracer, String name, String input) {
+        Span span = tracer.spanBuilder(name)
+                .setNoParent()
+                .setAttribute("turn.input", input)
+                .startSpan();
+        return new TurnTrace(tracer, span);
+    }
+
+    /**
+     * Make the turn the current span, so engine, service and agent spans nest under it
+     */
+    Scope makeCurrent() {
+        return span.makeCurrent();
+    }
+
+    void tokenPush(String token, Runnable push) {
+        UiPushEvent event = new UiPushEvent();
+        long start = System.nanoTime();
+        event.begin();
+        push.run();
+        event.end();
+        tokenPushNanos += System.nanoTime() - start;
+        if (tokenPushes++ == 0) {
+            span.addEvent("first token pushed");
+        }
+        if (event.shouldCommit()) {
+            event.bytes = token.getBytes(StandardCharsets.UTF_8).length;
+            commit(event, start);
+        }
+    }
+
+    /**
+     * Run the final push in a child span and end the turn
+     */
+    void finish(Runnable push, Throwable error) {
+        Span pushSpan = tracer.spanBuilder("ui.push")
+                .setParent(Context.current().with(span))
+                .startSpan();
+        UiPushEvent event = new UiPushEvent();
+        long start = System.nanoTime();
+        event.begin();
+        try (Scope ignored = pushSpan.makeCurrent()) {
+            push.run();
+        } finally {
+            event.end();
+            pushSpan.end();
+            end(error);
+        }
+        if (event.shouldCommit()) {
+            event.finalPush = true;
+            commit(event, start);
+        }
+    }
+
+    private void commit(UiPushEvent event, long start) {
+        event.index = tokenPushes;
+        event.sincePrevious = lastPushNanos != 0 ? start - lastPushNanos : 0;
+        lastPushNanos = start;
+        event.commit();
+    }
+
+    /**
+     * End the turn without a push (e.g., the view was detached)
+     */
+    void end(Throwable error) {
+        span.setAttribute("ui.token.pushes", tokenPushes);
+        span.setAttribute("ui.token.push.ms", tokenPushNanos / 1_000_000.0);
+        if (error != null) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR, error.getClass().getSimpleName());
+        }
+        span.end();
+    }
+}
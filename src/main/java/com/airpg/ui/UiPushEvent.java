@@ -0,0 +1,38 @@
+package com.airpg.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one server push to the browser during a turn
+ */
+@Name("airpg.UiPush")
+@Label("UI Push")
+@Category({"AI RPG", "UI"})
+@Description("A Vaadin push of streamed story text or the end-of-turn update")
+@StackTrace(false)
+class UiPushEvent extends Event {
+
+    @Label("Final")
+    @Description("Whether this is the end-of-turn push (side panels, controls)")
+    boolean finalPush;
+
+    @Label("Payload")
+    @Description("UTF-8 size of the appended story text")
+    @DataAmount
+    long bytes;
+
+    @Label("Push Index")
+    @Description("Position of this push within the turn")
+    int index;
+
+    @Label("Since Previous Push")
+    @Timespan
+    long sincePrevious;
+}
@@ -0,0 +1,31 @@
+package com.airpg.world;
+
+import com.airpg.domain.NPC;
+
+import java.util.List;
+
+/**
+ * What exploring a location adds to the world: routes to new places nearby and the people living there.
+ * Regions are immutable, so one generated region can be shared by every game with the same world seed.
+ */
+public record Region(String location, List<Exit> exits, List<Resident> residents) {
+
+    /**
+     * A route from the region's location to a nearby place, with its travel cost in hours
+     */
+    public record Exit(String name, int cost) {
+    }
+
+    /**
+     * A person living at the region's location
+     */
+    public record Resident(String id, String name, String role, String agenda, String personality, boolean hostile) {
+
+        /**
+         * A fresh NPC for one game
+         */
+        public NPC toNPC(String location) {
+            return NPC.create(id, name, role, location, agenda, personality, hostile);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.airpg.world;
+
+import com.airpg.config.GameConfig;
+import com.airpg.domain.Dice;
+import com.airpg.domain.GameState;
+import com.airpg.domain.NPC;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time passing for the NPCs of one game while the party is elsewhere.
+ * Every tick mechanically advances the agendas of all off-screen NPCs (progress, and now
+ * and then a move to a neighbouring place); every few ticks the NPCs whose agenda reached
+ * a new stage are summed up in one batched {@link Chronicler} call.
+ * <p>
+ * Ticks run on the clock's own single thread, so a session never has more than one tick
+ * or chronicler call in flight. They only change the clock's copy of the off-screen NPCs:
+ * the session applies the results to its {@link GameState} with {@link #catchUp} and hands
+ * the clock the current off-screen NPCs with {@link #observe}, both on the session's thread.
+ */
+public final class WorldClock implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(WorldClock.class);
+
+    /** A clock for games whose world stands still */
+    public static final WorldClock STOPPED = new WorldClock();
+
+    /** Progress between two agenda stages */
+    private static final int STAGE_SIZE = 25;
+    /** Most progress an agenda makes in one tick */
+    private static final int MAX_STEP = 6;
+
+    /**
+     * An off-screen NPC's situation, as told to the chronicler
+     */
+    public record Activity(String npcId, String name, String role, String agenda, String location, int progress) {
+
+        /**
+         * How far along the agenda is, in words
+         */
+        public String stage() {
+            return WorldClock.stage(progress);
+        }
+    }
+
+    /**
+     * Sums up a batch of activities in one call
+     */
+    @FunctionalInterface
+    public interface Chronicler {
+
+        /**
+         * @return one sentence per NPC id; NPCs left out get a plain mechanical summary
+         */
+        Map<String, String> summarize(List<Activity> activities);
+    }
+
+    /**
+     * The clock's copy of an off-screen NPC
+     */
+    private static final class Tracked {
+        private final String id;
+        private final String name;
+        private final String role;
+        private final String agenda;
+        private String location;
+        private List<String> neighbors;
+        private int progress;
+
+        private Tracked(NPC npc, List<String> neighbors) {
+            this.id = npc.getId();
+            this.name = npc.getName();
+            this.role = npc.getRole();
+            this.agenda = npc.getAgenda();
+            this.location = npc.getLocation();
+            this.neighbors = neighbors;
+            this.progress = npc.getAgendaProgress();
+        }
+
+        private Activity activity() {
+            return new Activity(id, name, role, agenda, location, progress);
+        }
+    }
+
+    private final GameConfig.AgendaConfig config;
+    private final Dice dice;
+    private final Chronicler chronicler;
+    private final ScheduledExecutorService executor;
+
+    // Guarded by this
+    private final Map<String, Tracked> tracked = new LinkedHashMap<>();
+    private final Set<String> newsworthy = new LinkedHashSet<>();
+    private final Map<String, String> news = new LinkedHashMap<>();
+    private long ticks;
+
+    private WorldClock() {
+        this.config = null;
+        this.dice = null;
+        this.chronicler = null;
+        this.executor = null;
+    }
+
+    /**
+     * Start a running clock
+     *
+     * @param dice the clock's own dice, only rolled on the clock's thread
+     */
+    public WorldClock(GameConfig.AgendaConfig config, Dice dice, Chronicler chronicler, String name) {
+        this.config = config;
+        this.dice = dice;
+        this.chronicler = chronicler;
+        this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name(name).factory());
+        long interval = config.tickInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Apply what happened off-screen since the last call to the game
+     */
+    public void catchUp(GameState gameState) {
+        if (executor == null) {
+            return;
+        }
+        synchronized (this) {
+            for (Tracked npc : tracked.values()) {
+                NPC current = gameState.findNPC(npc.id);
+                if (current == null || !current.isAlive()) {
+                    continue;
+                }
+                current.setAgendaProgress(npc.progress);
+                String here = gameState.getCurrentLocation();
+                // The party may have arrived where the NPC was; then it stays to meet them
+                if (!npc.location.equalsIgnoreCase(current.getLocation())
+                        && !current.getLocation().equalsIgnoreCase(here)) {
+                    gameState.moveNPC(current, npc.location);
+                }
+            }
+            news.forEach((id, sentence) -> {
+                NPC npc = gameState.findNPC(id);
+                if (npc != null) {
+                    npc.setRecentActivity(sentence);
+                }
+            });
+            news.clear();
+        }
+    }
+
+    /**
+     * Take the living NPCs away from the party as the ones time passes for
+     */
+    public void observe(GameState gameState) {
+        if (executor == null) {
+            return;
+        }
+        String here = gameState.getCurrentLocation();
+        List<Tracked> offscreen = new ArrayList<>();
+        for (NPC npc : gameState.getWorldNPCs()) {
+            if (npc.isAlive() && npc.getLocation() != null && !npc.getLocation().equalsIgnoreCase(here)) {
+                List<String> neighbors = List.copyOf(gameState.getWorldMap().neighbors(npc.getLocation()).keySet());
+                offscreen.add(new Tracked(npc, neighbors));
+            }
+        }
+        synchronized (this) {
+            tracked.clear();
+            offscreen.forEach(npc -> tracked.put(npc.id, npc));
+            newsworthy.retainAll(tracked.keySet());
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Activity> batch;
+            synchronized (this) {
+                ticks++;
+                tracked.values().forEach(this::advance);
+                int every = config.summaryEveryTicks();
+                batch = every > 0 && ticks % every == 0 ? takeNewsworthy() : List.of();
+            }
+            if (!batch.isEmpty()) {
+                Map<String, String> summaries = summarize(batch);
+                synchronized (this) {
+                    news.putAll(summaries);
+                }
+            }
+        } catch (RuntimeException e) {
+            // A failed tick must not cancel the schedule
+            LOG.warnf(e, "World tick failed");
+        }
+    }
+
+    private void advance(Tracked npc) {
+        if (npc.progress < 100) {
+            int stageBefore = npc.progress / STAGE_SIZE;
+            npc.progress = Math.min(100, npc.progress + 1 + dice.nextInt(MAX_STEP));
+            if (npc.progress / STAGE_SIZE != stageBefore) {
+                newsworthy.add(npc.id);
+            }
+        }
+        if (!npc.neighbors.isEmpty() && dice.chance(config.travelChance())) {
+            npc.location = dice.pick(npc.neighbors);
+            // Routes from the new place are known again once the session observes it there
+            npc.neighbors = List.of();
+            newsworthy.add(npc.id);
+        }
+    }
+
+    private List<Activity> takeNewsworthy() {
+        List<Activity> batch = new ArrayList<>();
+        Iterator<String> ids = newsworthy.iterator();
+        while (ids.hasNext() && batch.size() < config.summaryBatchSize()) {
+            batch.add(tracked.get(ids.next()).activity());
+            ids.remove();
+        }
+        return batch;
+    }
+
+    private Map<String, String> summarize(List<Activity> batch) {
+        Map<String, String> summaries = new LinkedHashMap<>();
+        try {
+            summaries.putAll(chronicler.summarize(batch));
+        } catch (RuntimeException e) {
+            LOG.debugf("Chronicler failed, using plain summaries: %s", e.getMessage());
+        }
+        for (Activity activity : batch) {
+            summaries.putIfAbsent(activity.npcId(),
+                    "Was seen at " + activity.location() + ", " + activity.stage() + ".");
+        }
+        return summaries;
+    }
+
+    /**
+     * How far along an agenda with this progress is, in words
+     */
+    public static String stage(int progress) {
+        if (progress >= 100) {
+            return "having achieved their goal";
+        }
+        return switch (progress / STAGE_SIZE) {
+            case 0 -> "just setting out on their goal";
+            case 1 -> "making headway on their goal";
+            case 2 -> "getting close to their goal";
+            default -> "on the verge of their goal";
+        };
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.airpg.world;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Rule-based generator of {@link Region}s. A region depends only on the world seed and the
+ * location's name, so it can be generated ahead of time, cached and regenerated identically.
+ * The kind of place (settlement, wilds, ruins) is read from the name and decides which
+ * places lie nearby and who lives there; no AI provider is involved.
+ */
+public final class WorldGenerator {
+
+    private enum Kind {
+        SETTLEMENT(
+                new String[]{"Crossroads", "Orchard", "Watchtower", "Mill Pond", "Market", "Chapel", "Farmstead"},
+                new String[]{"merchant", "guard", "innkeeper", "farmer", "priest", "blacksmith"},
+                new String[]{},
+                2, 4, 0.0),
+        WILDS(
+                new String[]{"Glade", "Hollow", "Ridge", "Caves", "Crossing", "Falls", "Marsh", "Woods"},
+                new String[]{"hunter", "hermit", "ranger", "herbalist"},
+                new String[]{"bandit", "warrior"},
+                1, 3, 0.5),
+        RUINS(
+                new String[]{"Crypt", "Tower", "Catacombs", "Shrine", "Vault", "Keep"},
+                new String[]{"scholar", "wizard"},
+                new String[]{"mage", "cultist", "warrior"},
+                1, 3, 0.7);
+
+        private final String[] places;
+        private final String[] friendlyRoles;
+        private final String[] hostileRoles;
+        private final int minResidents;
+        private final int maxResidents;
+        private final double hostileChance;
+
+        Kind(String[] places, String[] friendlyRoles, String[] hostileRoles,
+             int minResidents, int maxResidents, double hostileChance) {
+            this.places = places;
+            this.friendlyRoles = friendlyRoles;
+            this.hostileRoles = hostileRoles;
+            this.minResidents = minResidents;
+            this.maxResidents = maxResidents;
+            this.hostileChance = hostileChance;
+        }
+
+        static Kind of(String location) {
+            String name = location.toLowerCase(Locale.ROOT);
+            if (containsAny(name, "village", "town", "square", "market", "inn", "mill", "farm", "harbor", "port",
+                    "orchard", "chapel", "crossroads", "watchtower")) {
+                return SETTLEMENT;
+            }
+            if (containsAny(name, "ruin", "crypt", "tomb", "tower", "temple", "keep", "vault", "shrine",
+                    "catacomb", "doom")) {
+                return RUINS;
+            }
+            return WILDS;
+        }
+
+        private static boolean containsAny(String name, String... words) {
+            for (String word : words) {
+                if (name.contains(word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final String[] ADJECTIVES = {
+            "Whispering", "Misty", "Sunken", "Broken", "Silent", "Crimson", "Ashen", "Thorny",
+            "Old", "Northern", "Hidden", "Windy", "Golden", "Forgotten",
+    };
+    private static final String[] FIRST_NAMES = {
+            "Aldric", "Brina", "Corwin", "Dara", "Edric", "Fenna", "Garrick", "Hilde", "Ivo", "Jora",
+            "Kael", "Lysa", "Maren", "Nils", "Orla", "Pell", "Quinn", "Rhea", "Sten", "Tova",
+    };
+    private static final String[] FAMILY_NAMES = {
+            "Ashford", "Blackwood", "Fairweather", "Holt", "Marsh", "Stone", "Thorne", "Vale", "Wren", "Yarrow",
+    };
+    private static final String[] PERSONALITIES = {
+            "Gruff but fair", "Curious and talkative", "Suspicious of strangers", "Cheerful and generous",
+            "Weary and blunt", "Proud and quick to anger", "Quiet, watches everything", "Greedy but honest",
+    };
+    private static final String[] FRIENDLY_AGENDAS = {
+            "Wants to keep %s safe from the growing darkness",
+            "Seeks help recovering something stolen near %s",
+            "Hopes to earn enough coin to leave %s for good",
+            "Guards a secret about the old roads around %s",
+            "Looks for news of a missing friend last seen near %s",
+    };
+    private static final String[] HOSTILE_AGENDAS = {
+            "Preys on travelers passing through %s",
+            "Serves a dark master who wants %s for their own",
+            "Hunts for treasure around %s and kills anyone in the way",
+    };
+
+    /**
+     * The region of a location in the world with the given seed
+     */
+    public Region generate(long worldSeed, String location) {
+        SplittableRandom random = new SplittableRandom(worldSeed ^ (31L * location.toLowerCase(Locale.ROOT).hashCode()));
+        Kind kind = Kind.of(location);
+        return new Region(location, exits(kind, location, random), residents(kind, worldSeed, location, random));
+    }
+
+    private static List<Region.Exit> exits(Kind kind, String location, SplittableRandom random) {
+        int count = 1 + random.nextInt(3);
+        Set<String> names = new LinkedHashSet<>();
+        while (names.size() < count) {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + kind.places[random.nextInt(kind.places.length)];
+            if (!name.equalsIgnoreCase(location)) {
+                names.add(name);
+            }
+        }
+        List<Region.Exit> exits = new ArrayList<>();
+        for (String name : names) {
+            exits.add(new Region.Exit(name, 1 + random.nextInt(4)));
+        }
+        return List.copyOf(exits);
+    }
+
+    private static List<Region.Resident> residents(Kind kind, long worldSeed, String location, SplittableRandom random) {
+        int count = kind.minResidents + random.nextInt(kind.maxResidents - kind.minResidents + 1);
+        List<Region.Resident> residents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // The first resident of a place is always someone to talk to
+            boolean hostile = i > 0 && random.nextDouble() < kind.hostileChance;
+            String role = hostile
+                    ? kind.hostileRoles[random.nextInt(kind.hostileRoles.length)]
+                    : kind.friendlyRoles[random.nextInt(kind.friendlyRoles.length)];
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)];
+            String[] agendas = hostile ? HOSTILE_AGENDAS : FRIENDLY_AGENDAS;
+            residents.add(new Region.Resident(
+                    residentId(worldSeed, location, i),
+                    name,
+                    role,
+                    String.format(agendas[random.nextInt(agendas.length)], location),
+                    PERSONALITIES[random.nextInt(PERSONALITIES.length)],
+                    hostile));
+        }
+        return List.copyOf(residents);
+    }
+
+    /**
+     * Stable id, so a resident regenerated from the same seed is recognized as the same NPC
+     */
+    private static String residentId(long worldSeed, String location, int index) {
+        String source = worldSeed + "/" + location.toLowerCase(Locale.ROOT) + "/" + index;
+        return UUID.nameUUIDFromBytes(source.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
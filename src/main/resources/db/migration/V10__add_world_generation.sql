@@ -0,0 +1,4 @@
+-- V10: Seed of the generated world and which locations have been explored
+ALTER TABLE game_saves ADD COLUMN world_seed BIGINT;
+
+ALTER TABLE locations ADD COLUMN explored BOOLEAN DEFAULT FALSE NOT NULL;
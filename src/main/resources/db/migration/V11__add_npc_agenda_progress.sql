@@ -0,0 +1,4 @@
+-- V11: Off-screen progress of NPC agendas
+ALTER TABLE npcs ADD COLUMN agenda_progress INT DEFAULT 0 NOT NULL;
+
+ALTER TABLE npcs ADD COLUMN recent_activity VARCHAR(500);
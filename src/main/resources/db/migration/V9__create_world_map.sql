@@ -0,0 +1,22 @@
+-- V9: Create world map tables (known locations and routes, 1:N with game_saves)
+CREATE TABLE locations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    game_save_id BIGINT NOT NULL,
+    location_order INT NOT NULL,
+    name VARCHAR(200) NOT NULL,
+    CONSTRAINT fk_locations_game_save FOREIGN KEY (game_save_id)
+        REFERENCES game_saves(id) ON DELETE CASCADE
+);
+
+CREATE TABLE location_routes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    game_save_id BIGINT NOT NULL,
+    from_location VARCHAR(200) NOT NULL,
+    to_location VARCHAR(200) NOT NULL,
+    travel_cost INT NOT NULL,
+    CONSTRAINT fk_location_routes_game_save FOREIGN KEY (game_save_id)
+        REFERENCES game_saves(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_locations_game_save_id ON locations(game_save_id, location_order);
+CREATE INDEX idx_location_routes_game_save_id ON location_routes(game_save_id);
@@ -0,0 +1,227 @@
+package com.airpg.agents;
+
+import com.airpg.config.AIConfig;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingChatModelTest {
+
+    /** Slower than the hedge delay, so a hedgeable request is always hedged */
+    private static final long PRIMARY_MILLIS = 200;
+    private static final List<ChatMessage> MESSAGES = List.of(UserMessage.from("Where am I?"));
+
+    private final List<LlmPriority> admitted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger alternateCalls = new AtomicInteger();
+    private HedgingRouter router;
+    private RecordingScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new RecordingScheduler();
+        router = new HedgingRouter();
+        router.aiConfig = config(Duration.ofMillis(10));
+        router.scheduler = scheduler;
+        router.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+    }
+
+    @Test
+    void backgroundModelIsNeverHedged() {
+        ChatLanguageModel model = hedging(LlmPriority.BACKGROUND);
+
+        model.generate(MESSAGES);
+
+        assertEquals(0, alternateCalls.get());
+        assertEquals(List.of(LlmPriority.BACKGROUND), admitted);
+    }
+
+    @Test
+    void backgroundStreamingModelIsNeverHedged() throws Exception {
+        StreamingChatLanguageModel model = hedgingStreaming(LlmPriority.BACKGROUND);
+
+        CompletableFuture<Response<AiMessage>> done = new CompletableFuture<>();
+        model.generate(MESSAGES, completing(done));
+        done.get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, alternateCalls.get());
+        assertEquals(List.of(LlmPriority.BACKGROUND), admitted);
+    }
+
+    @Test
+    void backgroundLatencyStaysOutOfHedgeDelay() {
+        router.aiConfig = config(Duration.ofMillis(10), 1);
+        ChatLanguageModel model = hedging(LlmPriority.BACKGROUND);
+
+        model.generate(MESSAGES);
+
+        assertEquals(Duration.ofMillis(10), router.hedgeDelay("primary"));
+    }
+
+    @Test
+    void backgroundOverrideIsNeverHedged() {
+        ChatLanguageModel model = hedging(LlmPriority.NORMAL);
+
+        scheduler.withPriority(LlmPriority.BACKGROUND, () -> model.generate(MESSAGES));
+
+        assertEquals(0, alternateCalls.get());
+        assertEquals(List.of(LlmPriority.BACKGROUND), admitted);
+    }
+
+    @Test
+    void slowNormalRequestIsHedgedAtItsOwnPriority() {
+        ChatLanguageModel model = hedging(LlmPriority.NORMAL);
+
+        model.generate(MESSAGES);
+
+        assertEquals(1, alternateCalls.get());
+        assertEquals(2, admitted.size());
+        assertTrue(admitted.stream().allMatch(priority -> priority == LlmPriority.NORMAL), admitted::toString);
+    }
+
+    @Test
+    void losingPrimaryRecordsItsElapsedTime() {
+        router.aiConfig = config(Duration.ofMillis(10), 1);
+        ChatLanguageModel primary = messages -> {
+            sleep(PRIMARY_MILLIS);
+            return Response.from(AiMessage.from("primary"));
+        };
+        ChatLanguageModel alternate = messages -> {
+            sleep(40);
+            return Response.from(AiMessage.from("alternate"));
+        };
+        ChatLanguageModel model = new HedgingChatModel(
+                new ScheduledChatModel(primary, scheduler, "primary", LlmPriority.NORMAL), "primary",
+                new ScheduledChatModel(alternate, scheduler, "alternate", LlmPriority.NORMAL), "alternate",
+                router, LlmPriority.NORMAL);
+
+        assertEquals("alternate", model.generate(MESSAGES).content().text());
+
+        // Cancelled after the alternate won, so the primary took at least as long as the alternate
+        Duration delay = router.hedgeDelay("primary");
+        assertTrue(delay.toMillis() >= 40, delay::toString);
+    }
+
+    private ChatLanguageModel hedging(LlmPriority priority) {
+        ChatLanguageModel primary = messages -> {
+            sleep(PRIMARY_MILLIS);
+            return Response.from(AiMessage.from("primary"));
+        };
+        ChatLanguageModel alternate = messages -> {
+            alternateCalls.incrementAndGet();
+            return Response.from(AiMessage.from("alternate"));
+        };
+        return new HedgingChatModel(
+                new ScheduledChatModel(primary, scheduler, "primary", priority), "primary",
+                new ScheduledChatModel(alternate, scheduler, "alternate", priority), "alternate",
+                router, priority);
+    }
+
+    private StreamingChatLanguageModel hedgingStreaming(LlmPriority priority) {
+        StreamingChatLanguageModel primary = (messages, handler) -> {
+            sleep(PRIMARY_MILLIS);
+            handler.onNext("primary");
+            handler.onComplete(Response.from(AiMessage.from("primary")));
+        };
+        StreamingChatLanguageModel alternate = (messages, handler) -> {
+            alternateCalls.incrementAndGet();
+            handler.onComplete(Response.from(AiMessage.from("alternate")));
+        };
+        return new HedgingStreamingChatModel(
+                new ScheduledStreamingChatModel(primary, scheduler, "primary", priority), "primary",
+                new ScheduledStreamingChatModel(alternate, scheduler, "alternate", priority), "alternate",
+                router, priority);
+    }
+
+    private static StreamingResponseHandler<AiMessage> completing(CompletableFuture<Response<AiMessage>> done) {
+        return new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                done.complete(response);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.completeExceptionally(error);
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hedging enabled with a fixed hedge delay
+     */
+    private static AIConfig config(Duration hedgeDelay) {
+        return config(hedgeDelay, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Hedging enabled, delaying hedges by the latency percentile once there are enough samples
+     */
+    private static AIConfig config(Duration hedgeDelay, int minSamples) {
+        AIConfig.HedgingConfig hedging = (AIConfig.HedgingConfig) Proxy.newProxyInstance(
+                AIConfig.class.getClassLoader(), new Class<?>[]{AIConfig.HedgingConfig.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "enabled" -> true;
+                    case "alternateProvider", "alternateModel" -> Optional.empty();
+                    case "percentile" -> 0.95;
+                    case "initialDelay", "minDelay" -> hedgeDelay;
+                    case "minSamples" -> minSamples;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (AIConfig) Proxy.newProxyInstance(
+                AIConfig.class.getClassLoader(), new Class<?>[]{AIConfig.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("hedging")) {
+                        return hedging;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Admits every request at once, remembering the priority it was admitted at
+     */
+    private final class RecordingScheduler extends LlmRequestScheduler {
+
+        @Override
+        Permit admit(String provider, LlmPriority priority, List<ChatMessage> messages) {
+            admitted.add(priority);
+            return actualTokens -> { };
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.airpg.agents.memory;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryChatMemoryStoreTest {
+
+    private static final List<ChatMessage> FIRST = List.of(UserMessage.from("Hello from the first game"));
+    private static final List<ChatMessage> SECOND = List.of(UserMessage.from("Hello from the second game"));
+
+    private final InMemoryChatMemoryStore store = new InMemoryChatMemoryStore();
+
+    @Test
+    void gamesKeepTheirOwnConversationsUnderTheSameMemoryId() {
+        store.currentGeneration("first").updateMessages("world-narrator", FIRST);
+        store.currentGeneration("second").updateMessages("world-narrator", SECOND);
+
+        assertEquals(FIRST, store.currentGeneration("first").getMessages("world-narrator"));
+        assertEquals(Map.of("world-narrator", SECOND), store.getMemories("second"));
+    }
+
+    @Test
+    void restoringOneGameLeavesTheOthersAlone() {
+        InMemoryChatMemoryStore.Generation first = store.currentGeneration("first");
+        first.updateMessages("npc-smith", FIRST);
+        store.currentGeneration("second").updateMessages("npc-smith", SECOND);
+
+        store.restoreMemories("second", Map.of("world-narrator", SECOND));
+
+        assertTrue(store.isCurrent(first));
+        assertEquals(Map.of("npc-smith", FIRST), store.getMemories("first"));
+        assertEquals(Map.of("world-narrator", SECOND), store.getMemories("second"));
+    }
+
+    @Test
+    void clearingOrRemovingAGameRetiresOnlyItsGeneration() {
+        InMemoryChatMemoryStore.Generation first = store.currentGeneration("first");
+        InMemoryChatMemoryStore.Generation second = store.currentGeneration("second");
+        first.updateMessages("world-narrator", FIRST);
+        second.updateMessages("world-narrator", SECOND);
+
+        store.clear("first");
+        store.remove("second");
+
+        assertFalse(store.isCurrent(first));
+        assertFalse(store.isCurrent(second));
+        assertTrue(store.getMemories("first").isEmpty());
+        assertTrue(store.getMemories("second").isEmpty());
+    }
+}
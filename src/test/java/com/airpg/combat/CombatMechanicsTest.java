@@ -0,0 +1,79 @@
+package com.airpg.combat;
+
+import com.airpg.domain.CombatEncounter;
+import com.airpg.domain.Dice;
+import com.airpg.domain.GameCharacter;
+import com.airpg.domain.Hero;
+import com.airpg.domain.NPC;
+import com.airpg.domain.TeamMember;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CombatMechanicsTest {
+
+    private final CombatMechanics mechanics = new CombatMechanics(new Dice(7));
+    private TeamMember warrior;
+    private CombatEncounter combat;
+
+    @BeforeEach
+    void setUp() {
+        warrior = TeamMember.create("bran", "Bran", "Warrior", "Stoic", "A veteran of the border wars");
+        combat = CombatEncounter.builder()
+                .playerParty(List.<GameCharacter>of(Hero.createDefault("Aria", "Warrior"), warrior))
+                .enemies(List.of(NPC.create("goblin", "Goblin Scout", "Warrior", "Village Square",
+                        "Defend goblin territory", "Aggressive", true)))
+                .status(CombatEncounter.CombatStatus.IN_PROGRESS)
+                .build();
+    }
+
+    @Test
+    void defendingAgainDoesNotStack() {
+        int defense = warrior.getDefense();
+
+        mechanics.defend(warrior);
+        mechanics.defend(warrior);
+
+        assertEquals(defense + CombatMechanics.DEFEND_ARMOR_BONUS, warrior.getDefense());
+    }
+
+    @Test
+    void guardIsLoweredAtTheDefendersNextTurn() {
+        int defense = warrior.getDefense();
+
+        mechanics.defend(warrior);
+        mechanics.startTurn(warrior);
+
+        assertEquals(defense, warrior.getDefense());
+    }
+
+    @Test
+    void defendingTwiceThenEndingCombatLeavesDefenseUnchanged() {
+        int defense = warrior.getDefense();
+        int armorBonus = warrior.getArmorBonus();
+
+        mechanics.defend(warrior);
+        mechanics.defend(warrior);
+        combat.endWithVictory();
+
+        assertEquals(defense, warrior.getDefense());
+        assertEquals(armorBonus, warrior.getArmorBonus());
+    }
+
+    @Test
+    void columnStateDropsTheGuardAtTheDefendersNextTurn() {
+        int defense = warrior.getDefense();
+        mechanics.defend(warrior);
+        CombatState state = CombatState.of(combat);
+
+        // Unhurt, the warrior attacks this round instead of defending again
+        state.resolveRound(new Dice(7), 0.5, null);
+        state.applyTo(combat);
+
+        assertEquals(0, warrior.getDefendBonus());
+        assertEquals(defense, warrior.getDefense());
+    }
+}
@@ -0,0 +1,72 @@
+package com.airpg.services;
+
+import com.airpg.domain.GameState;
+import com.airpg.domain.Hero;
+import com.airpg.domain.NPC;
+import com.airpg.recording.RecordingService;
+import com.airpg.recording.SessionRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameEngineTalkTest {
+
+    private final List<String> heard = new ArrayList<>();
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine();
+        engine.recordingService = new RecordingService() {
+            @Override
+            public SessionRecorder newRecorder() {
+                return SessionRecorder.NONE;
+            }
+        };
+        engine.intentService = new IntentService() {
+            @Override
+            public Optional<RecognizedIntent> recognize(String input) {
+                return Optional.of(new RecognizedIntent(ActionIntent.TALK, "old man", 0.9));
+            }
+        };
+        engine.npcService = new NPCService() {
+            @Override
+            public String getNPCDialogue(NPC npc, String playerMessage, GameState gameState) {
+                heard.add(playerMessage);
+                return "Greetings, traveller.";
+            }
+        };
+        engine.speculationService = new SpeculationService() {
+            @Override
+            public Optional<String> take(GameState gameState, String input) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void speculate(GameState gameState) {
+            }
+        };
+        engine.init();
+
+        GameState gameState = new GameState();
+        gameState.startGame(Hero.createDefault("Aria", "Warrior"), "Find the Lost Artifact");
+        gameState.addNPC(NPC.create("hermit", "Old Man Tobin", "Hermit", gameState.getCurrentLocation(),
+                "Guard the well", "Gruff, kind", false));
+        gameState.addNPC(NPC.create("smith", "Greta", "Blacksmith", gameState.getCurrentLocation(),
+                "Forge a blade", "Loud", false));
+        engine.gameState = gameState;
+    }
+
+    @Test
+    void npcHearsWhatThePlayerSaid() {
+        String response = engine.processPlayerInput("say hello to the old man");
+
+        assertEquals(List.of("say hello to the old man"), heard);
+        assertEquals("Old Man Tobin: \"Greetings, traveller.\"", response);
+    }
+}